@@ -0,0 +1,112 @@
+package com.firmys.terminus.benchmarks;
+
+import com.firmys.terminus.TerminusConstants;
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.filters.TerminusVersionFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExecutionChain;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Measures the per-request cost of servlet routing: {@link TerminusVersionFilter} followed by
+ * {@link TerminusMvcHandlerMapping} handler resolution.
+ * <pre>
+ * Parameters:
+ * - `endpoints`: number of versioned endpoints registered across all versions.
+ * - `header`: `none` (no version header), `known` (a declared version) or `unknown`
+ *   (a version no controller declares).
+ * </pre>
+ * Throughput and sampled latency (including p99) are reported by the benchmark modes; bytes
+ * allocated per operation are reported when running with {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MvcRoutingBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int endpoints;
+
+    @Param({"none", "known", "unknown"})
+    private String header;
+
+    private GenericApplicationContext context;
+    private TerminusMvcHandlerMapping handlerMapping;
+    private TerminusVersionFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private HandlerExecutionChain handler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = TerminusControllers.context(endpoints);
+        handlerMapping = new TerminusMvcHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+        filter = new TerminusVersionFilter(handlerMapping, true);
+
+        request = new MockHttpServletRequest("GET",
+                TerminusControllers.path(TerminusControllers.endpointsPerController(endpoints) / 2));
+        switch (header) {
+            case "known" -> request.addHeader(TerminusConstants.TERMINUS_VERSION_HEADER, "1.1");
+            case "unknown" -> request.addHeader(TerminusConstants.TERMINUS_VERSION_HEADER, "9.9");
+            default -> {
+            }
+        }
+        response = new MockHttpServletResponse();
+        chain = this::resolveHandler;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public HandlerExecutionChain filterAndHandlerMapping() throws IOException, ServletException {
+        filter.doFilter(request, response, chain);
+        return handler;
+    }
+
+    @Benchmark
+    public HandlerExecutionChain handlerMapping() throws Exception {
+        return handlerMapping.getHandler(request);
+    }
+
+    private void resolveHandler(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res)
+            throws ServletException {
+        try {
+            handler = handlerMapping.getHandler((HttpServletRequest) req);
+        } catch (ServletException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new ServletException(ex);
+        }
+    }
+}
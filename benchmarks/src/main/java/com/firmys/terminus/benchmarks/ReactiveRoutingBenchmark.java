@@ -0,0 +1,97 @@
+package com.firmys.terminus.benchmarks;
+
+import com.firmys.terminus.TerminusConstants;
+import com.firmys.terminus.TerminusReactiveHandlerMapping;
+import com.firmys.terminus.filters.TerminusVersionReactiveFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of reactive routing: {@link TerminusVersionReactiveFilter}
+ * followed by {@link TerminusReactiveHandlerMapping} handler resolution.
+ * <pre>
+ * Parameters:
+ * - `endpoints`: number of versioned endpoints registered across all versions.
+ * - `header`: `none` (no version header), `known` (a declared version) or `unknown`
+ *   (a version no controller declares).
+ * </pre>
+ * Every operation subscribes to the resulting {@code Mono} with {@code block()}, whose own
+ * allocation is included in the figures reported by {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveRoutingBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int endpoints;
+
+    @Param({"none", "known", "unknown"})
+    private String header;
+
+    private GenericApplicationContext context;
+    private TerminusReactiveHandlerMapping handlerMapping;
+    private TerminusVersionReactiveFilter filter;
+    private MockServerWebExchange exchange;
+    private WebFilterChain chain;
+    private Object handler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = TerminusControllers.context(endpoints);
+        handlerMapping = new TerminusReactiveHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+        filter = new TerminusVersionReactiveFilter(handlerMapping, true);
+
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(
+                TerminusControllers.path(TerminusControllers.endpointsPerController(endpoints) / 2));
+        switch (header) {
+            case "known" -> request.header(TerminusConstants.TERMINUS_VERSION_HEADER, "1.1");
+            case "unknown" -> request.header(TerminusConstants.TERMINUS_VERSION_HEADER, "9.9");
+            default -> {
+            }
+        }
+        exchange = MockServerWebExchange.from(request);
+        chain = ex -> handlerMapping.getHandler(ex)
+                .doOnNext(resolved -> handler = resolved)
+                .then();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object filterAndHandlerMapping() {
+        filter.filter(exchange, chain).block();
+        return handler;
+    }
+
+    @Benchmark
+    public Object handlerMapping() {
+        return handlerMapping.getHandler(exchange).block();
+    }
+}
@@ -0,0 +1,71 @@
+package com.firmys.terminus.benchmarks;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.TerminusReactiveHandlerMapping;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup cost of the Terminus handler mappings: detecting every handler method
+ * of the application context and registering its versioned mappings.
+ * <pre>
+ * Parameters:
+ * - `handlers`: number of versioned handler methods registered across all versions.
+ * </pre>
+ * Each invocation initializes a new handler mapping against the same application context, so
+ * controller generation and context refresh are not part of the figures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int handlers;
+
+    private GenericApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = TerminusControllers.context(handlers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TerminusMvcHandlerMapping mvcHandlerMapping() {
+        TerminusMvcHandlerMapping handlerMapping = new TerminusMvcHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+        return handlerMapping;
+    }
+
+    @Benchmark
+    public TerminusReactiveHandlerMapping reactiveHandlerMapping() {
+        TerminusReactiveHandlerMapping handlerMapping = new TerminusReactiveHandlerMapping();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+        return handlerMapping;
+    }
+}
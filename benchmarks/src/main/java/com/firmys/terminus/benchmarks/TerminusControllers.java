@@ -0,0 +1,132 @@
+package com.firmys.terminus.benchmarks;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusMapping;
+
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FixedValue;
+
+/**
+ * TerminusControllers generates controller sets of arbitrary size for the benchmarks, so that
+ * routing cost can be measured against realistic numbers of versioned endpoints without
+ * checking thousands of controller classes into the repository.
+ * <pre>
+ * For a given endpoint count and version list the generated set contains:
+ * - one `@Terminus(versions = {version})` controller per version, each declaring
+ *   `endpoints / versions` GET handlers mapped with `@TerminusMapping("/resource/{n}")`.
+ * - one unversioned `@RestController` serving the same paths, acting as the latest version.
+ * </pre>
+ */
+public final class TerminusControllers {
+
+    public static final String[] VERSIONS = {"1.0", "1.1", "1.2", "2.0"};
+
+    private TerminusControllers() {
+    }
+
+    /**
+     * @return the literal path of the n-th generated endpoint
+     */
+    public static String path(int endpoint) {
+        return "/resource/" + endpoint;
+    }
+
+    /**
+     * Registers the generated controllers in a new, refreshed application context.
+     *
+     * @param endpoints total number of versioned endpoints, spread evenly across {@link #VERSIONS}
+     */
+    public static GenericApplicationContext context(int endpoints) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        int perVersion = endpointsPerController(endpoints);
+        for (String version : VERSIONS) {
+            Class<?> controller = versionedController(version, perVersion);
+            context.registerBean(controller.getSimpleName(), controller);
+        }
+        Class<?> latest = latestController(perVersion);
+        context.registerBean(latest.getSimpleName(), latest);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * @return the number of endpoints each generated controller declares
+     */
+    public static int endpointsPerController(int endpoints) {
+        return Math.max(1, endpoints / VERSIONS.length);
+    }
+
+    private static Class<?> versionedController(String version, int endpoints) {
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class)
+                .name(TerminusControllers.class.getPackageName()
+                        + ".generated.V" + version.replace('.', '_') + "Controller")
+                .annotateType(AnnotationDescription.Builder.ofType(Terminus.class)
+                        .defineArray("versions", version)
+                        .build());
+        for (AnnotatedEndpoint endpoint : terminusEndpoints(endpoints)) {
+            builder = builder.defineMethod(endpoint.name(), String.class, Visibility.PUBLIC)
+                    .intercept(FixedValue.value(version))
+                    .annotateMethod(endpoint.annotation());
+        }
+        return load(builder);
+    }
+
+    private static Class<?> latestController(int endpoints) {
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class)
+                .name(TerminusControllers.class.getPackageName() + ".generated.LatestController")
+                .annotateType(AnnotationDescription.Builder.ofType(RestController.class).build());
+        for (AnnotatedEndpoint endpoint : latestEndpoints(endpoints)) {
+            builder = builder.defineMethod(endpoint.name(), String.class, Visibility.PUBLIC)
+                    .intercept(FixedValue.value("latest"))
+                    .annotateMethod(endpoint.annotation());
+        }
+        return load(builder);
+    }
+
+    private static List<AnnotatedEndpoint> terminusEndpoints(int endpoints) {
+        List<AnnotatedEndpoint> result = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; i++) {
+            result.add(new AnnotatedEndpoint("endpoint" + i, AnnotationDescription.Builder.ofType(TerminusMapping.class)
+                    .defineArray("value", path(i))
+                    .defineEnumerationArray("method", RequestMethod.class, RequestMethod.GET)
+                    .build()));
+        }
+        return result;
+    }
+
+    private static List<AnnotatedEndpoint> latestEndpoints(int endpoints) {
+        List<AnnotatedEndpoint> result = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; i++) {
+            result.add(new AnnotatedEndpoint("endpoint" + i, AnnotationDescription.Builder.ofType(RequestMapping.class)
+                    .defineArray("value", path(i))
+                    .defineEnumerationArray("method", RequestMethod.class, RequestMethod.GET)
+                    .build()));
+        }
+        return result;
+    }
+
+    private static Class<?> load(DynamicType.Builder<Object> builder) {
+        try (DynamicType.Unloaded<Object> unloaded = builder.make()) {
+            return unloaded
+                    .load(TerminusControllers.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+        }
+    }
+
+    private record AnnotatedEndpoint(String name, AnnotationDescription annotation) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.limits.TerminusVersionLimit;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * TerminusAdmission is the decision the Terminus version filters act on before any handler is
+ * looked up, made once for Spring MVC and WebFlux alike.
+ * <pre>
+ * - admitted without a permit: the request proceeds.
+ * - admitted with a permit: the request proceeds and the permit of its version's concurrency
+ *   limit is released once it completes.
+ * - rejected: the request is answered with the status alone, `410 Gone` for a disabled version,
+ *   `429 Too Many Requests` or `503 Service Unavailable` for an exceeded limit.
+ * </pre>
+ *
+ * @param status the status to reject the request with, or {@code null} if it is admitted
+ * @param permit the concurrency limit holding a permit for the request, or {@code null}
+ */
+public record TerminusAdmission(HttpStatus status, TerminusVersionLimit permit) {
+
+    public static final TerminusAdmission ADMITTED = new TerminusAdmission(null, null);
+
+    public static final TerminusAdmission GONE = new TerminusAdmission(HttpStatus.GONE, null);
+
+    public boolean isRejected() {
+        return status != null;
+    }
+
+    /**
+     * @return the `Retry-After` value to reject the request with, or {@code null} when retrying
+     * cannot succeed
+     */
+    public String retryAfter() {
+        return status != null && status != HttpStatus.GONE ? "1" : null;
+    }
+}
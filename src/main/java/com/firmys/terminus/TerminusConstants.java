@@ -2,4 +2,6 @@ package com.firmys.terminus;
 
 public class TerminusConstants {
     public static final String TERMINUS_VERSION_HEADER = "X-Terminus-Version";
+    public static final String TERMINUS_VERSION_ATTRIBUTE = TerminusConstants.class.getName() + ".version";
+    public static final String TERMINUS_VERSION_RESOLUTION_ATTRIBUTE = TerminusConstants.class.getName() + ".resolution";
 }
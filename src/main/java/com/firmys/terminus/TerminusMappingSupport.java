@@ -0,0 +1,75 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.annotations.TerminusMapping;
+
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * TerminusMappingSupport adapts the request mapping type of a web stack, Spring MVC or WebFlux,
+ * to the framework-neutral {@link TerminusRouter}. Both stacks declare a {@code RequestMappingInfo}
+ * with the same shape but no common type, so each handler mapping implements this once.
+ *
+ * @param <M> the request mapping type
+ * @param <R> the request type matched against it
+ */
+interface TerminusMappingSupport<M, R> {
+
+    /**
+     * Creates a mapping for the given paths carrying every condition declared with
+     * {@link TerminusMapping}, so that handlers sharing a path are told apart by method,
+     * parameters, headers and media types rather than colliding.
+     */
+    M createMapping(TerminusMapping mapping, String[] paths);
+
+    /**
+     * @return the mapping narrowed to the conditions matching the request, or {@code null} if it
+     * does not match
+     */
+    M getMatchingCondition(M mapping, R request);
+
+    /**
+     * Compares two mappings matching the same request, the more specific first.
+     */
+    int compareMatches(M first, M second, R request);
+
+    /**
+     * @return the paths of the mapping without patterns
+     */
+    Set<String> getDirectPaths(M mapping);
+
+    /**
+     * @return all paths and patterns of the mapping
+     */
+    Set<String> getPatterns(M mapping);
+
+    /**
+     * @return the names of the HTTP methods matched, empty when all are
+     */
+    Set<String> getMethods(M mapping);
+
+    /**
+     * @return the parameter, header and media type conditions of the mapping, empty when there
+     * are none
+     */
+    String describeConditions(M mapping);
+
+    /*
+     * Request conditions print as `[]` when empty in both stacks.
+     */
+    static String describeConditions(Object params, Object headers, Object consumes, Object produces) {
+        StringJoiner conditions = new StringJoiner(", ");
+        appendCondition(conditions, "params", params);
+        appendCondition(conditions, "headers", headers);
+        appendCondition(conditions, "consumes", consumes);
+        appendCondition(conditions, "produces", produces);
+        return conditions.toString();
+    }
+
+    private static void appendCondition(StringJoiner conditions, String name, Object condition) {
+        String value = condition.toString();
+        if (!value.equals("[]")) {
+            conditions.add(name + " " + value);
+        }
+    }
+}
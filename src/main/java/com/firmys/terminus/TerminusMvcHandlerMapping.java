@@ -1,20 +1,53 @@
 package com.firmys.terminus;
 
 import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+import com.firmys.terminus.annotations.TerminusDowngrade;
 import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusMemoize;
+import com.firmys.terminus.annotations.TerminusRateLimit;
+import com.firmys.terminus.annotations.TerminusVirtualThreads;
+import com.firmys.terminus.aot.TerminusRuntimeHints;
+import com.firmys.terminus.cache.TerminusCacheInterceptor;
+import com.firmys.terminus.cache.TerminusCachePolicy;
+import com.firmys.terminus.cache.TerminusResponseCache;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.execution.TerminusBulkhead;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+import com.firmys.terminus.execution.TerminusSingleFlightInterceptor;
+import com.firmys.terminus.execution.TerminusVirtualThreadHandlerAdapter;
+import com.firmys.terminus.limits.TerminusVersionLimits;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+import com.firmys.terminus.metrics.TerminusMetrics;
+import com.firmys.terminus.resolvers.TerminusRequestAccessor;
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionResolvers;
+import com.firmys.terminus.transform.TerminusResponseTransform;
+import com.firmys.terminus.transform.TerminusResponseTransformAdvice;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * TerminusHandlerMapping is a specialized implementation of {@link RequestMappingHandlerMapping}
@@ -27,82 +60,547 @@ import java.util.Map;
  * defined in a {@link Terminus} annotation is mapped as a separate {@link RequestMappingInfo}.
  * <p>
  * Features:
- * <li>Automatically unregisters default request mappings for methods annotated with {@link Terminus}.</li>
+ * <li>Builds mappings for methods annotated with {@link TerminusMapping} directly from the annotation.</li>
  * <li>Registers new mappings by appending version information to the endpoint paths.</li>
  * <li>Processes mapping metadata such as HTTP methods, path patterns, headers, and media types.</li>
  * <p>
- * Lifecycle:
- * The {@code afterPropertiesSet} method is overridden to process {@link Terminus} annotations
- * and adjust the handler mappings during initialization.
+ * Registration:
+ * Versioned mappings are computed in the same pass that detects handler methods. Rather than
+ * registering a default mapping for each {@link Terminus} handler and replacing it afterwards,
+ * {@link #getMappingForMethod} reads the annotations once and {@link #registerHandlerMethod}
+ * registers a single mapping per handler method carrying the paths prefixed with each declared
+ * version, filling the route table as it goes. The mapping registry therefore grows with the
+ * number of handler methods, not with versions times endpoints. Version ranges such as
+ * {@code [1.2,2.0)} are only served through the route table and get no prefixed path.
+ * <p>
+ * Routing Core:
+ * The annotations, route table, version resolution and admission are handled by a
+ * {@link TerminusRouter} shared with {@link TerminusReactiveHandlerMapping}; this mapping only
+ * adapts Spring MVC's {@link RequestMappingInfo} and request to it, so both stacks route alike.
+ * <p>
+ * Request Resolution:
+ * Versioned handlers are also collected into an immutable {@link TerminusRouteTable} keyed by
+ * version and then by path segment. {@link #getHandlerInternal} resolves requests carrying a
+ * known version straight from that table, so the request URI never needs to be rewritten to the
+ * versioned path and matched a second time. Requests naming their version in the path prefix
+ * are resolved from it too, rather than matched by Spring against the prefixed paths of every
+ * version. Requests without a version, or without a versioned route for their path, are handled
+ * by the regular request mapping lookup. A requested version is resolved to
+ * the declared versions able to serve it by a {@link TerminusVersionIndex}, and each of them is
+ * tried in order of preference.
+ * <p>
+ * Versions can be aliased, such as {@code latest}, and given fallback chains, such as
+ * {@code 2.0 -> 1.3 -> 1.2}, ahead of the unversioned controllers. These, and disabled or
+ * redirected versions, can be changed while the application runs, see
+ * {@link TerminusVersionRegistry}. Each change publishes a new route table snapshot, read once
+ * per request without locking.
+ * <p>
+ * Every route counts the requests it serves and samples its match time, see
+ * {@link TerminusRouteStats}. {@link #getRouteReport} describes the table with these figures;
+ * it is logged once at startup, collisions as warnings.
+ * <p>
+ * Caching:
+ * Handler methods annotated with {@link TerminusCache} get a {@link TerminusCachePolicy}, applied
+ * by a {@link TerminusCacheInterceptor} this mapping registers for its own handlers. Handler
+ * methods annotated with {@link TerminusMemoize} get a {@link TerminusResponseCache}: a GET
+ * request answered from it resolves to a handler writing the cached body instead of the
+ * handler method, and a miss is stored once the handler method returns.
  * <p>
- * Custom Processing:
- * <li>{@link #processTerminusAnnotations}: Iterates over all request mappings to identify
- * {@link Terminus}-annotated methods, unregister default mappings, and register
- * versioned mappings.</li>
- * <li>{@link #createMappingForTerminus}: Constructs a {@link RequestMappingInfo} instance
- * for each version specified in a {@link Terminus} annotation.</li>
+ * Coalescing:
+ * Handler methods mapped with {@code singleFlight} get a {@link TerminusSingleFlight}. A GET
+ * request identical to one in flight blocks until the leading request shares its body, then
+ * resolves to the handler writing that body; the {@link TerminusSingleFlightInterceptor} ends
+ * the call once the leading request completes.
+ * <p>
+ * Downgrades:
+ * Handler methods of controllers annotated with {@link TerminusDowngrade} also serve the older
+ * versions named, through the route table only. Requests for them carry the
+ * {@link TerminusResponseTransform} of their version, applied to the JSON body by the
+ * {@link TerminusResponseTransformAdvice} as it is written.
+ * <p>
+ * Execution:
+ * Requests to controllers annotated with {@link TerminusVirtualThreads} are tagged with the
+ * {@link TerminusBulkhead} of their version, and their handler methods are run on virtual
+ * threads by the {@link TerminusVirtualThreadHandlerAdapter}.
+ * <p>
+ * Limits:
+ * Versions limited with {@link TerminusRateLimit} or under {@code terminus.limits.versions} get
+ * their {@link TerminusVersionLimits}, built alongside the route table and enforced by the
+ * version filter before any handler is looked up.
  */
 @Component
 @ConditionalOnClass(WebMvcConfigurer.class)
 @ConditionalOnMissingBean(TerminusMvcHandlerMapping.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
-public class TerminusMvcHandlerMapping extends RequestMappingHandlerMapping implements InitializingBean {
+@ImportRuntimeHints(TerminusRuntimeHints.class)
+public class TerminusMvcHandlerMapping extends RequestMappingHandlerMapping
+        implements InitializingBean, TerminusVersionRegistry {
+
+    private static final TerminusRequestAccessor<HttpServletRequest> ACCESSOR = new TerminusRequestAccessor<>() {
+
+        @Override
+        public String header(HttpServletRequest request, String name) {
+            return request.getHeader(name);
+        }
+
+        @Override
+        public String rawQuery(HttpServletRequest request) {
+            return request.getQueryString();
+        }
+
+        @Override
+        public String path(HttpServletRequest request) {
+            String uri = request.getRequestURI();
+            int contextPathLength = request.getContextPath().length();
+            return contextPathLength > 0 ? uri.substring(contextPathLength) : uri;
+        }
+    };
+
+    private static final HandlerMethod MEMOIZED_HANDLER =
+            new HandlerMethod(new MemoizedHandler(),
+                    ClassUtils.getMethod(MemoizedHandler.class, "body", HttpServletRequest.class));
+
+    private final TerminusRouter<RequestMappingInfo, HttpServletRequest> router =
+            new TerminusRouter<>(new MappingSupport(), ACCESSOR);
 
     @Override
     public void afterPropertiesSet() {
-        super.afterPropertiesSet();
-        processTerminusAnnotations();
+        router.initialize(super::afterPropertiesSet, logger);
+    }
+
+    @Override
+    protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
+        TerminusVersionResolution resolution = resolveRequestVersion(request);
+        if (resolution.isResolved()) {
+            request.removeAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+            String lookupPath = initLookupPath(request);
+            TerminusRouteTable.Match<RequestMappingInfo> match = router.match(resolution, lookupPath, request);
+            if (match != null) {
+                request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, match.handlerMethod());
+                TerminusLatencyHistogram latency = router.latency(match);
+                if (latency != null) {
+                    request.setAttribute(TerminusLatencyHistogram.ATTRIBUTE, latency);
+                }
+                handleMatch(match.mapping(), lookupPath, request);
+                return prepare(match.handlerMethod(), match.version(), request).createWithResolvedBean();
+            }
+        }
+        HandlerMethod handlerMethod = super.getHandlerInternal(request);
+        return handlerMethod == null
+                || (router.responseCaches().isEmpty() && router.singleFlights().isEmpty() && router.bulkheads().isEmpty())
+                ? handlerMethod
+                : prepare(handlerMethod, resolveRequestVersion(request).version(), request);
+    }
+
+    /*
+     * Applies the response cache, the single flight and the bulkhead of the handler method, in
+     * that order, so that requests answered from the cache or by another request never take a
+     * permit. The response transform of a downgraded version applies to all of them alike.
+     */
+    private HandlerMethod prepare(HandlerMethod handlerMethod, String version, HttpServletRequest request) {
+        TerminusResponseTransform transform = router.responseTransform(handlerMethod.getMethod(), version);
+        if (transform != null) {
+            request.setAttribute(TerminusResponseTransform.ATTRIBUTE, transform);
+        }
+        HandlerMethod memoized = memoize(handlerMethod, request);
+        if (memoized != handlerMethod) {
+            return memoized;
+        }
+        HandlerMethod coalesced = coalesce(handlerMethod, version, request);
+        if (coalesced != handlerMethod) {
+            return coalesced;
+        }
+        Map<String, TerminusBulkhead> typeBulkheads = router.bulkheads().get(handlerMethod.getBeanType());
+        TerminusBulkhead bulkhead = typeBulkheads != null ? typeBulkheads.get(version != null ? version : "") : null;
+        if (bulkhead != null) {
+            request.setAttribute(TerminusBulkhead.ATTRIBUTE, bulkhead);
+        }
+        return handlerMethod;
+    }
+
+    /*
+     * Answers GET requests to memoized handler methods from their cache. On a miss, the key is
+     * left as a request attribute for `TerminusResponseCacheAdvice` to store the returned body.
+     */
+    private HandlerMethod memoize(HandlerMethod handlerMethod, HttpServletRequest request) {
+        TerminusResponseCache cache = handlerMethod != null ? router.responseCaches().get(handlerMethod.getMethod()) : null;
+        if (cache == null || !"GET".equals(request.getMethod())) {
+            return handlerMethod;
+        }
+        String key = cache.key(resolveRequestVersion(request).version(), request, ACCESSOR);
+        Object body = cache.get(key);
+        router.metrics().responseCache(cache.endpoint(), body != null);
+        if (body != null) {
+            request.setAttribute(TerminusResponseCache.BODY_ATTRIBUTE, body);
+            return MEMOIZED_HANDLER;
+        }
+        request.setAttribute(TerminusResponseCache.KEY_ATTRIBUTE, key);
+        return handlerMethod;
+    }
+
+    /*
+     * Joins an identical GET request in flight and waits for the body it shares. A request
+     * leading the call is left to invoke the handler method, and one dispatched again after
+     * asynchronous processing keeps leading the call it started.
+     */
+    private HandlerMethod coalesce(HandlerMethod handlerMethod, String version, HttpServletRequest request) {
+        TerminusSingleFlight singleFlight = router.singleFlights().get(handlerMethod.getMethod());
+        if (singleFlight == null || !"GET".equals(request.getMethod())
+                || request.getAttribute(TerminusSingleFlight.CALL_ATTRIBUTE) != null) {
+            return handlerMethod;
+        }
+        TerminusSingleFlight.Call call = singleFlight.newCall(singleFlight.key(version, request, ACCESSOR));
+        TerminusSingleFlight.Call inFlight = singleFlight.join(call);
+        if (inFlight == null) {
+            request.setAttribute(TerminusSingleFlight.CALL_ATTRIBUTE, call);
+            return handlerMethod;
+        }
+        router.metrics().coalesced(singleFlight.endpoint());
+        Object body = inFlight.await();
+        if (body == null) {
+            return handlerMethod;
+        }
+        request.setAttribute(TerminusResponseCache.BODY_ATTRIBUTE, body);
+        return MEMOIZED_HANDLER;
+    }
+
+    @Override
+    protected void extendInterceptors(List<Object> interceptors) {
+        interceptors.add(new TerminusSingleFlightInterceptor());
+        interceptors.add(new TerminusCacheInterceptor(this));
+    }
+
+    /**
+     * @param metrics recorder for version resolution, {@link TerminusMetrics#NOOP} by default
+     */
+    public void setMetrics(TerminusMetrics metrics) {
+        router.setMetrics(metrics);
+    }
+
+    public TerminusMetrics getMetrics() {
+        return router.metrics();
+    }
+
+    /**
+     * @param versionResolvers the chain reading requested versions, {@link TerminusVersionResolvers#DEFAULT}
+     *                         by default
+     */
+    public void setVersionResolvers(TerminusVersionResolvers versionResolvers) {
+        router.setVersionResolvers(versionResolvers);
+    }
+
+    public TerminusVersionResolvers getVersionResolvers() {
+        return router.versionResolvers();
+    }
+
+    /**
+     * @param etagSeed distinguishes the ETags of this deployment from those of other deployments,
+     *                 the start time of the application by default
+     */
+    public void setEtagSeed(String etagSeed) {
+        router.setEtagSeed(etagSeed);
+    }
+
+    /**
+     * @param initialOverrides aliases and fallbacks applied from startup, such as those configured
+     *                         under {@code terminus.version}, see {@link TerminusVersionOverrides}
+     */
+    public void setVersionOverrides(TerminusVersionOverrides initialOverrides) {
+        router.setInitialOverrides(initialOverrides);
+    }
+
+    /**
+     * @param initialTrafficSplits traffic splits applied from startup, such as those configured
+     *                             under {@code terminus.traffic}, see {@link TerminusTrafficSplits}
+     */
+    public void setTrafficSplits(TerminusTrafficSplits initialTrafficSplits) {
+        router.setInitialTrafficSplits(initialTrafficSplits);
+    }
+
+    /**
+     * @param maxLatencyHistograms the most {@link TerminusLatencyHistogram}s kept, one per
+     *                             declared version and route served, zero to time no request
+     */
+    public void setMaxLatencyHistograms(int maxLatencyHistograms) {
+        router.setMaxLatencyHistograms(maxLatencyHistograms);
+    }
+
+    /**
+     * @param configuredLimits limits by version, overriding those declared with {@link TerminusRateLimit}
+     */
+    public void setConfiguredLimits(Map<String, TerminusVersionLimits.Limit> configuredLimits) {
+        router.setConfiguredLimits(configuredLimits);
+    }
+
+    /**
+     * @param deprecationClientKey the request header identifying the clients of deprecated
+     *                             versions, see {@link TerminusVersionDeprecation}
+     */
+    public void setDeprecationClientKey(String deprecationClientKey) {
+        router.setDeprecationClientKey(deprecationClientKey);
+    }
+
+    /**
+     * @return {@code true} if any declared version is deprecated with {@link TerminusDeprecated}
+     */
+    public boolean hasDeprecations() {
+        return !router.versionDeprecations().isEmpty();
+    }
+
+    /**
+     * @return the admission limits of declared versions, enforced by the version filter
+     */
+    public TerminusVersionLimits getVersionLimits() {
+        return router.versionLimits();
+    }
+
+    /**
+     * @return the caching policy declared with {@link TerminusCache} on a handler method, or
+     * {@code null} if it declares none
+     */
+    public TerminusCachePolicy getCachePolicy(Method method) {
+        return router.cachePolicies().get(method);
+    }
+
+    /**
+     * @return the response cache declared with {@link TerminusMemoize} on a handler method, or
+     * {@code null} if it declares none
+     */
+    public TerminusResponseCache getResponseCache(Method method) {
+        return router.responseCaches().get(method);
+    }
+
+    /**
+     * @return the response caches of all memoized handler methods
+     */
+    public Map<Method, TerminusResponseCache> getResponseCaches() {
+        return router.responseCaches();
+    }
+
+    /**
+     * @return the single flight of a handler method mapped with {@code singleFlight}, or
+     * {@code null} if it is not coalesced
+     */
+    public TerminusSingleFlight getSingleFlight(Method method) {
+        return router.singleFlights().get(method);
+    }
+
+    /**
+     * @return the bulkheads of controllers annotated with {@link TerminusVirtualThreads}, by
+     * controller type and version
+     */
+    public Map<Class<?>, Map<String, TerminusBulkhead>> getBulkheads() {
+        return router.bulkheads();
+    }
+
+    /**
+     * @return the transform of the responses of a handler method for a version it is downgraded
+     * to with {@link TerminusDowngrade}, or {@code null}
+     */
+    public TerminusResponseTransform getResponseTransform(Method method, String version) {
+        return router.responseTransform(method, version);
+    }
+
+    /**
+     * @return {@code true} if any handler method is downgraded with {@link TerminusDowngrade}
+     */
+    public boolean hasResponseTransforms() {
+        return router.hasResponseTransforms();
     }
 
-    private void processTerminusAnnotations() {
-        getHandlerMethods().entrySet()
-                .forEach(this::processTerminusAnnotation);
+    /**
+     * @return {@code true} if versioned requests are timed into {@link TerminusLatencyHistogram}s
+     */
+    public boolean hasLatencyHistograms() {
+        return router.timesLatency();
     }
 
-    private void processTerminusAnnotation(Map.Entry<RequestMappingInfo, HandlerMethod> entry) {
-        Arrays.stream(entry.getValue().getBeanType().getAnnotationsByType(Terminus.class))
-                .filter(term -> term.versions().length > 0)
-                .peek(term -> unregisterMapping(entry.getKey()))
-                .forEach(term -> Arrays.stream(term.versions())
-                        .distinct()
-                        .forEach(ver -> registerMapping(
-                                createMappingForTerminus(entry, ver),
-                                entry.getValue().getBean(),
-                                entry.getValue().getMethod())));
+    /**
+     * Resolves a requested version against the versions declared by {@link Terminus} controllers.
+     * A version matches a declaration equal to it, a range containing it, or otherwise the
+     * highest declared version of the same major line below it.
+     *
+     * @param version the requested version, possibly {@code null}
+     * @return the canonical instance of the preferred declared version, or {@code null} if no
+     * declared version can serve it
+     */
+    public String resolveVersion(String version) {
+        return router.resolveVersion(version);
+    }
+
+    /**
+     * @return all versions declared by {@link Terminus} controllers
+     */
+    @Override
+    public Set<String> getVersions() {
+        return router.versions();
+    }
+
+    @Override
+    public TerminusVersionOverrides getVersionOverrides() {
+        return router.overrides();
+    }
+
+    @Override
+    public TerminusVersionOverrides updateVersionOverrides(UnaryOperator<TerminusVersionOverrides> update) {
+        return router.updateOverrides(update);
+    }
+
+    @Override
+    public TerminusTrafficSplits getTrafficSplits() {
+        return router.trafficSplits();
+    }
+
+    @Override
+    public TerminusTrafficSplits updateTrafficSplits(UnaryOperator<TerminusTrafficSplits> update) {
+        return router.updateTrafficSplits(update);
+    }
+
+    @Override
+    public boolean isVersionDisabled(String version) {
+        return router.isDisabled(version);
+    }
+
+    @Override
+    public TerminusRouteReport getRouteReport() {
+        return router.report();
+    }
+
+    @Override
+    public List<TerminusVersionDeprecation.Report> getDeprecationReport() {
+        return router.versionDeprecations().report();
+    }
+
+    /**
+     * Resolves the version requested by a request through the configured
+     * {@link TerminusVersionResolvers}. The resolution is cached as a request attribute, so
+     * the request is only read once however often this is called; a resolved version is also
+     * exposed under {@link TerminusConstants#TERMINUS_VERSION_ATTRIBUTE}.
+     * <p>
+     * Requests whose traffic is split by {@link TerminusTrafficSplits} resolve to the version
+     * they are assigned, and keep their split under {@link TerminusTrafficSplits#ATTRIBUTE}.
+     */
+    public TerminusVersionResolution resolveRequestVersion(HttpServletRequest request) {
+        if (request.getAttribute(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE)
+                instanceof TerminusVersionResolution resolution) {
+            return resolution;
+        }
+        TerminusVersionResolution resolution = router.resolve(request);
+        TerminusTrafficSplits.Split split = router.trafficSplit(resolution);
+        if (split != null) {
+            resolution = router.assign(split, resolution, request);
+            request.setAttribute(TerminusTrafficSplits.ATTRIBUTE, split);
+        }
+        request.setAttribute(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE, resolution);
+        if (resolution.isResolved()) {
+            request.setAttribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, resolution.version());
+        }
+        return resolution;
+    }
+
+    /**
+     * Counts the version requested by a request and decides whether it may proceed, before any
+     * handler is looked up, see {@link TerminusAdmission}.
+     *
+     * @param limited whether the limits of the version apply, only on the initial dispatch of a
+     *                request so that asynchronous dispatches never take a second permit
+     */
+    public TerminusAdmission admit(HttpServletRequest request, boolean limited) {
+        return router.admit(resolveRequestVersion(request), limited);
+    }
+
+    /**
+     * Counts a request resolved to a deprecated version and samples its client, once per
+     * request, from the version filter.
+     *
+     * @return the deprecation whose headers the response carries, or {@code null} if the version
+     * of the request is not deprecated
+     */
+    public TerminusVersionDeprecation deprecation(HttpServletRequest request) {
+        return router.deprecation(resolveRequestVersion(request), request);
+    }
+
+    /*
+     * Mappings declared with `TerminusMapping` are built by the router directly from the
+     * annotation, so the regular `RequestMapping` lookup never sees them, and expanded for the
+     * declared versions once registered.
+     */
+    @Override
+    protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
+        TerminusMapping terminusMapping = AnnotatedElementUtils.findMergedAnnotation(method, TerminusMapping.class);
+        if (terminusMapping == null) {
+            return super.getMappingForMethod(method, handlerType);
+        }
+        return router.detect(method, handlerType, terminusMapping,
+                resolveEmbeddedValuesInPatterns(TerminusRouter.terminusPaths(terminusMapping)));
+    }
+
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        RequestMappingInfo registered = router.register(mapping, () -> createHandlerMethod(handler, method));
+        if (registered != null) {
+            super.registerHandlerMethod(handler, method, registered);
+        }
     }
 
     /*
-     * Creates a versioned `RequestMappingInfo` instance based on the provided
-     * entry and version. This method adjusts the endpoint paths to include the specified
-     * version as a prefix while preserving mappings defined at the method level using
-     * `TerminusMapping`.
-     */
-    private RequestMappingInfo createMappingForTerminus(
-            Map.Entry<RequestMappingInfo, HandlerMethod> entry,
-            String version) {
-
-        // Get the paths from TerminusMapping at method level
-        String[] methodPaths = Arrays.stream(
-                        entry.getValue().getMethod().getAnnotationsByType(TerminusMapping.class))
-                .findFirst()
-                .map(mapping ->
-                        mapping.value().length > 0
-                                ? mapping.value()
-                                : mapping.path())
-                .orElse(new String[0]);
-
-        // Create versioned paths
-        String[] versionedPaths;
-        if (methodPaths.length == 0) {
-            versionedPaths = new String[]{"/" + version};
-        } else {
-            versionedPaths = Arrays.stream(methodPaths)
-                    .map(path -> "/" + version + (path.startsWith("/") ? path : "/" + path))
-                    .toArray(String[]::new);
-        }
-
-        return RequestMappingInfo
-                .paths(versionedPaths)
-                .build();
-    }
-}
\ No newline at end of file
+     * Writes a memoized body through the content negotiation of the handler method it was
+     * cached for, whose producible media types are still exposed by the match.
+     */
+    private static final class MemoizedHandler {
+
+        @ResponseBody
+        public Object body(HttpServletRequest request) {
+            return request.getAttribute(TerminusResponseCache.BODY_ATTRIBUTE);
+        }
+    }
+
+    private final class MappingSupport implements TerminusMappingSupport<RequestMappingInfo, HttpServletRequest> {
+
+        @Override
+        public RequestMappingInfo createMapping(TerminusMapping mapping, String[] paths) {
+            return RequestMappingInfo
+                    .paths(paths)
+                    .methods(mapping.method())
+                    .params(mapping.params())
+                    .headers(mapping.headers())
+                    .consumes(mapping.consumes())
+                    .produces(mapping.produces())
+                    .options(getBuilderConfiguration())
+                    .build();
+        }
+
+        @Override
+        public RequestMappingInfo getMatchingCondition(RequestMappingInfo mapping, HttpServletRequest request) {
+            return mapping.getMatchingCondition(request);
+        }
+
+        @Override
+        public int compareMatches(RequestMappingInfo first, RequestMappingInfo second, HttpServletRequest request) {
+            return first.compareTo(second, request);
+        }
+
+        @Override
+        public Set<String> getDirectPaths(RequestMappingInfo mapping) {
+            return mapping.getDirectPaths();
+        }
+
+        @Override
+        public Set<String> getPatterns(RequestMappingInfo mapping) {
+            return mapping.getPatternValues();
+        }
+
+        @Override
+        public Set<String> getMethods(RequestMappingInfo mapping) {
+            Set<String> methods = new TreeSet<>();
+            mapping.getMethodsCondition().getMethods().forEach(method -> methods.add(method.name()));
+            return methods;
+        }
+
+        @Override
+        public String describeConditions(RequestMappingInfo mapping) {
+            return TerminusMappingSupport.describeConditions(mapping.getParamsCondition(),
+                    mapping.getHeadersCondition(), mapping.getConsumesCondition(), mapping.getProducesCondition());
+        }
+    }
+}
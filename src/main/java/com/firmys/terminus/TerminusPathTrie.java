@@ -0,0 +1,278 @@
+package com.firmys.terminus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TerminusPathTrie is an immutable radix trie over the segments of request paths, holding the
+ * routes of one declared version in a {@link TerminusRouteTable}.
+ * <pre>
+ * Structure:
+ * - edges are literal path segments. Chains of nodes holding nothing are collapsed into a
+ *   single edge, so `/api/internal/orders` is one step when nothing is mapped in between.
+ * - a literal path holds its values at the node it ends on.
+ * - a pattern holds its values at the node of its literal prefix, the segments before the
+ *   first one containing `{`, `*` or `?`. Pattern segments are never edges, only leaves.
+ *
+ * Lookup:
+ * - {@link #literal} walks the path to its node, a binary search over the sorted edges of each
+ *   node visited, without allocating.
+ * - {@link #patterns} walks the same way and returns the patterns held along the path, most
+ *   specific prefix first. Matching them against the request is left to the caller; the trie
+ *   only narrows the candidates to those that can match.
+ * </pre>
+ * Paths are read from an offset, so a path carrying a version prefix is looked up in place.
+ *
+ * @param <T> the values held
+ */
+final class TerminusPathTrie<T> {
+
+    private static final String[] NO_KEYS = new String[0];
+
+    private final Node<T> root;
+
+    private final boolean hasPatterns;
+
+    private TerminusPathTrie(Node<T> root, boolean hasPatterns) {
+        this.root = root;
+        this.hasPatterns = hasPatterns;
+    }
+
+    static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return the values of the literal path equal to the path read from {@code offset}, or an
+     * empty list
+     */
+    List<T> literal(String path, int offset) {
+        Node<T> node = root;
+        int position = start(path, offset);
+        while (position >= 0 && node != null) {
+            int end = segmentEnd(path, position);
+            int edge = node.edge(path, position, end);
+            if (edge < 0) {
+                return List.of();
+            }
+            position = node.follow(edge, path, position);
+            node = position == -2 ? null : node.children[edge];
+        }
+        return node != null ? node.values : List.of();
+    }
+
+    /**
+     * @return the values of every pattern whose literal prefix the path read from {@code offset}
+     * starts with, the longest prefix first, or an empty list
+     */
+    List<T> patterns(String path, int offset) {
+        if (!hasPatterns) {
+            return List.of();
+        }
+        List<T> result = List.of();
+        List<T> collected = null;
+        Node<T> node = root;
+        int position = start(path, offset);
+        while (node != null) {
+            if (!node.patterns.isEmpty()) {
+                if (result.isEmpty()) {
+                    result = node.patterns;
+                } else {
+                    // Deeper prefixes go first, and a value held along the path twice once
+                    List<T> shallower = collected != null ? collected : result;
+                    collected = new ArrayList<>(node.patterns);
+                    for (T value : shallower) {
+                        if (!collected.contains(value)) {
+                            collected.add(value);
+                        }
+                    }
+                }
+            }
+            if (position < 0) {
+                break;
+            }
+            int edge = node.edge(path, position, segmentEnd(path, position));
+            if (edge < 0) {
+                break;
+            }
+            position = node.follow(edge, path, position);
+            node = position == -2 ? null : node.children[edge];
+        }
+        return collected != null ? collected : result;
+    }
+
+    /*
+     * A leading slash is optional and `/` has no segments. Returns the start of the first
+     * segment, or -1 when there is none.
+     */
+    private static int start(String path, int offset) {
+        int position = offset < path.length() && path.charAt(offset) == '/' ? offset + 1 : offset;
+        return position < path.length() ? position : -1;
+    }
+
+    private static int segmentEnd(String path, int position) {
+        int end = path.indexOf('/', position);
+        return end < 0 ? path.length() : end;
+    }
+
+    static boolean isPattern(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '{' || c == '*' || c == '?') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        int position = start(path, 0);
+        while (position >= 0) {
+            int end = segmentEnd(path, position);
+            segments.add(path.substring(position, end));
+            position = end < path.length() ? end + 1 : -1;
+        }
+        return segments;
+    }
+
+    /*
+     * `keys` are the first segments of the edges, sorted, and `labels` the edges themselves,
+     * several segments joined by `/` where a chain was collapsed.
+     */
+    private static final class Node<T> {
+
+        private final String[] keys;
+        private final String[] labels;
+        private final Node<T>[] children;
+        private final List<T> values;
+        private final List<T> patterns;
+
+        private Node(String[] keys, String[] labels, Node<T>[] children, List<T> values, List<T> patterns) {
+            this.keys = keys;
+            this.labels = labels;
+            this.children = children;
+            this.values = values;
+            this.patterns = patterns;
+        }
+
+        /*
+         * Binary search for the edge starting with the segment `path[from, to)`.
+         */
+        int edge(String path, int from, int to) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(keys[middle], path, from, to);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Follows an edge whose first segment matched at `position`. Returns the start of the
+         * segment after it, -1 when the path ends with it, or -2 when the path leaves a
+         * collapsed edge part way.
+         */
+        int follow(int edge, String path, int position) {
+            String label = labels[edge];
+            int end = position + label.length();
+            if (label.length() != keys[edge].length()
+                    && (end > path.length() || !path.regionMatches(position, label, 0, label.length())
+                    || (end < path.length() && path.charAt(end) != '/'))) {
+                return -2;
+            }
+            return end < path.length() ? end + 1 : -1;
+        }
+
+        private static int compare(String key, String path, int from, int to) {
+            int length = Math.min(key.length(), to - from);
+            for (int i = 0; i < length; i++) {
+                int difference = key.charAt(i) - path.charAt(from + i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return key.length() - (to - from);
+        }
+    }
+
+    static final class Builder<T> {
+
+        private final MutableNode<T> root = new MutableNode<>();
+
+        private boolean hasPatterns;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a value under a literal path or a pattern.
+         */
+        Builder<T> add(String path, T value) {
+            MutableNode<T> node = root;
+            for (String segment : segments(path)) {
+                if (isPattern(segment)) {
+                    addOnce(node.patterns, value);
+                    hasPatterns = true;
+                    return this;
+                }
+                node = node.children.computeIfAbsent(segment, key -> new MutableNode<>());
+            }
+            addOnce(node.values, value);
+            return this;
+        }
+
+        private static <T> void addOnce(List<T> values, T value) {
+            if (!values.contains(value)) {
+                values.add(value);
+            }
+        }
+
+        TerminusPathTrie<T> build() {
+            return new TerminusPathTrie<>(root.freeze(), hasPatterns);
+        }
+    }
+
+    private static final class MutableNode<T> {
+
+        private final Map<String, MutableNode<T>> children = new TreeMap<>();
+        private final List<T> values = new ArrayList<>();
+        private final List<T> patterns = new ArrayList<>();
+
+        private boolean holdsNothing() {
+            return values.isEmpty() && patterns.isEmpty() && children.size() == 1;
+        }
+
+        private Node<T> freeze() {
+            String[] keys = children.isEmpty() ? NO_KEYS : new String[children.size()];
+            String[] labels = children.isEmpty() ? NO_KEYS : new String[children.size()];
+            // Generic arrays cannot be created, and this one never leaves the trie
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Node<T>[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<String, MutableNode<T>> child : children.entrySet()) {
+                StringBuilder label = new StringBuilder(child.getKey());
+                MutableNode<T> node = child.getValue();
+                while (node.holdsNothing()) {
+                    Map.Entry<String, MutableNode<T>> only = node.children.entrySet().iterator().next();
+                    label.append('/').append(only.getKey());
+                    node = only.getValue();
+                }
+                keys[i] = child.getKey();
+                labels[i] = label.toString();
+                frozen[i++] = node.freeze();
+            }
+            return new Node<>(keys, labels, frozen, List.copyOf(values), List.copyOf(patterns));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.limits.TerminusVersionLimits;
+import com.firmys.terminus.metrics.TerminusMetrics;
+import com.firmys.terminus.resolvers.TerminusVersionResolvers;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@ConditionalOnClass(WebFluxConfigurer.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TerminusReactiveConfig implements WebFluxConfigurer {
+    @Bean
+    TerminusReactiveHandlerMapping terminusHandlerMapping(ObjectProvider<TerminusMetrics> metrics,
+                                                          ObjectProvider<TerminusVersionResolvers> versionResolvers,
+                                                          @Value("${terminus.cache.etag-seed:}") String etagSeed,
+                                                          @Value("${terminus.latency.max-histograms:256}") int maxLatencyHistograms,
+                                                          @Value("${terminus.deprecation.client-key:User-Agent}") String deprecationClientKey,
+                                                          Environment environment) {
+        TerminusReactiveHandlerMapping handlerMapping = new TerminusReactiveHandlerMapping();
+        handlerMapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        handlerMapping.setMetrics(metrics.getIfAvailable(() -> TerminusMetrics.NOOP));
+        handlerMapping.setVersionResolvers(versionResolvers.getIfAvailable(() -> TerminusVersionResolvers.DEFAULT));
+        if (!etagSeed.isBlank()) {
+            handlerMapping.setEtagSeed(etagSeed);
+        }
+        handlerMapping.setConfiguredLimits(TerminusVersionLimits.bind(environment));
+        handlerMapping.setVersionOverrides(TerminusVersionOverrides.bind(environment));
+        handlerMapping.setTrafficSplits(TerminusTrafficSplits.bind(environment));
+        handlerMapping.setMaxLatencyHistograms(maxLatencyHistograms);
+        handlerMapping.setDeprecationClientKey(deprecationClientKey);
+        return handlerMapping;
+    }
+}
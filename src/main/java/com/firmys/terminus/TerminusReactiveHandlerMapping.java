@@ -1,74 +1,536 @@
 package com.firmys.terminus;
 
 import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+import com.firmys.terminus.annotations.TerminusDowngrade;
 import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusMemoize;
+import com.firmys.terminus.annotations.TerminusRateLimit;
+import com.firmys.terminus.aot.TerminusRuntimeHints;
+import com.firmys.terminus.cache.TerminusCachePolicy;
+import com.firmys.terminus.cache.TerminusResponseCache;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+import com.firmys.terminus.limits.TerminusVersionLimits;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+import com.firmys.terminus.metrics.TerminusMetrics;
+import com.firmys.terminus.resolvers.TerminusRequestAccessor;
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionResolvers;
+import com.firmys.terminus.transform.TerminusResponseTransform;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 import org.springframework.web.reactive.result.method.RequestMappingInfo;
 import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+import reactor.core.publisher.Mono;
 
 @Component
 @ConditionalOnClass(WebFluxConfigurer.class)
 @ConditionalOnMissingBean(TerminusReactiveHandlerMapping.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
-public class TerminusReactiveHandlerMapping extends RequestMappingHandlerMapping implements InitializingBean {
+@ImportRuntimeHints(TerminusRuntimeHints.class)
+public class TerminusReactiveHandlerMapping extends RequestMappingHandlerMapping
+        implements InitializingBean, TerminusVersionRegistry {
+
+    private static final TerminusRequestAccessor<ServerWebExchange> ACCESSOR = new TerminusRequestAccessor<>() {
+
+        @Override
+        public String header(ServerWebExchange exchange, String name) {
+            return exchange.getRequest().getHeaders().getFirst(name);
+        }
+
+        @Override
+        public String rawQuery(ServerWebExchange exchange) {
+            return exchange.getRequest().getURI().getRawQuery();
+        }
+
+        @Override
+        public String path(ServerWebExchange exchange) {
+            return exchange.getRequest().getPath().pathWithinApplication().value();
+        }
+    };
+
+    private static final HandlerMethod NOT_MODIFIED_HANDLER =
+            new HandlerMethod(new NotModifiedHandler(), ClassUtils.getMethod(NotModifiedHandler.class, "handle"));
 
+    private static final HandlerMethod MEMOIZED_HANDLER =
+            new HandlerMethod(new MemoizedHandler(),
+                    ClassUtils.getMethod(MemoizedHandler.class, "body", ServerWebExchange.class));
+
+    private final TerminusRouter<RequestMappingInfo, ServerWebExchange> router =
+            new TerminusRouter<>(new MappingSupport(), ACCESSOR);
+
+    private RequestMappingInfo.BuilderConfiguration config;
+
+    /*
+     * Versioned mappings are expanded while handler methods are detected, see
+     * `getMappingForMethod` and `registerHandlerMethod`, by the routing core shared with the
+     * Spring MVC handler mapping.
+     */
     @Override
     public void afterPropertiesSet() {
-        super.afterPropertiesSet();
-        processTerminusAnnotations();
-    }
-
-    private void processTerminusAnnotations() {
-        getHandlerMethods().entrySet()
-                .forEach(this::processTerminusAnnotation);
-    }
-
-    private void processTerminusAnnotation(Map.Entry<RequestMappingInfo, HandlerMethod> entry) {
-        Arrays.stream(entry.getValue().getBeanType().getAnnotationsByType(Terminus.class))
-                .filter(term -> term.versions().length > 0)
-                .peek(term -> unregisterMapping(entry.getKey()))
-                .forEach(term -> Arrays.stream(term.versions())
-                        .distinct()
-                        .forEach(ver -> registerMapping(
-                                createMappingForTerminus(entry, ver),
-                                entry.getValue().getBean(),
-                                entry.getValue().getMethod())));
-    }
-
-    private RequestMappingInfo createMappingForTerminus(
-            Map.Entry<RequestMappingInfo, HandlerMethod> entry,
-            String version) {
-
-        String[] methodPaths = Arrays.stream(
-                        entry.getValue().getMethod().getAnnotationsByType(TerminusMapping.class))
-                .findFirst()
-                .map(mapping ->
-                        mapping.value().length > 0
-                                ? mapping.value()
-                                : mapping.path())
-                .orElse(new String[0]);
-
-        String[] versionedPaths;
-        if (methodPaths.length == 0) {
-            versionedPaths = new String[]{"/" + version};
-        } else {
-            versionedPaths = Arrays.stream(methodPaths)
-                    .map(path -> "/" + version + (path.startsWith("/") ? path : "/" + path))
-                    .toArray(String[]::new);
-        }
-
-        return RequestMappingInfo
-                .paths(versionedPaths)
-                .build();
+        router.initialize(super::afterPropertiesSet, logger);
+    }
+
+    /*
+     * Resolves requests carrying a declared version straight from the route table, using the
+     * request path as received, including versions named by the path prefix. The exchange is
+     * never mutated; only the attributes a regular match would set are populated.
+     */
+    @Override
+    public Mono<HandlerMethod> getHandlerInternal(ServerWebExchange exchange) {
+        TerminusVersionResolution resolution = resolveRequestVersion(exchange);
+        if (resolution.isResolved()) {
+            exchange.getAttributes().remove(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+            String lookupPath = exchange.getRequest().getPath().pathWithinApplication().value();
+            TerminusRouteTable.Match<RequestMappingInfo> match;
+            try {
+                match = router.match(resolution, lookupPath, exchange);
+            } catch (Exception ex) {
+                return Mono.error(ex);
+            }
+            if (match != null) {
+                handleMatch(match.mapping(), match.handlerMethod(), exchange);
+                TerminusLatencyHistogram latency = router.latency(match);
+                if (latency != null) {
+                    exchange.getAttributes().put(TerminusLatencyHistogram.ATTRIBUTE, latency);
+                }
+                TerminusResponseTransform transform =
+                        router.responseTransform(match.handlerMethod().getMethod(), match.version());
+                if (transform != null) {
+                    exchange.getAttributes().put(TerminusResponseTransform.ATTRIBUTE, transform);
+                }
+                HandlerMethod handlerMethod = applyCaching(match.handlerMethod(), exchange).createWithResolvedBean();
+                return hasSingleFlights() ? coalesce(handlerMethod, exchange) : Mono.just(handlerMethod);
+            }
+        }
+        if (router.cachePolicies().isEmpty() && router.responseCaches().isEmpty() && !hasSingleFlights()) {
+            return super.getHandlerInternal(exchange);
+        }
+        Mono<HandlerMethod> handlerMethod = super.getHandlerInternal(exchange)
+                .map(method -> applyCaching(method, exchange));
+        return hasSingleFlights() ? handlerMethod.flatMap(method -> coalesce(method, exchange)) : handlerMethod;
+    }
+
+    /*
+     * Identical GET requests in flight resolve once the leading request shares its body, without
+     * blocking. The leading request's call is finished by `TerminusVersionReactiveFilter`.
+     */
+    private Mono<HandlerMethod> coalesce(HandlerMethod handlerMethod, ServerWebExchange exchange) {
+        TerminusSingleFlight singleFlight = router.singleFlights().get(handlerMethod.getMethod());
+        if (singleFlight == null || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return Mono.just(handlerMethod);
+        }
+        TerminusSingleFlight.Call call = singleFlight.newCall(
+                singleFlight.key(resolveRequestVersion(exchange).version(), exchange, ACCESSOR));
+        TerminusSingleFlight.Call inFlight = singleFlight.join(call);
+        if (inFlight == null) {
+            exchange.getAttributes().put(TerminusSingleFlight.CALL_ATTRIBUTE, call);
+            return Mono.just(handlerMethod);
+        }
+        router.metrics().coalesced(singleFlight.endpoint());
+        return Mono.fromFuture(inFlight.result(), true)
+                .onErrorComplete()
+                .map(body -> {
+                    exchange.getAttributes().put(TerminusResponseCache.BODY_ATTRIBUTE, body);
+                    return MEMOIZED_HANDLER;
+                })
+                .defaultIfEmpty(handlerMethod);
+    }
+
+    /*
+     * WebFlux has no handler interceptors, so a request answered by a conditional check is
+     * handed a no-op handler instead of the handler method it was matched to, and a request
+     * answered from a response cache a handler writing the cached body. On a cache miss the key
+     * is left for `TerminusResponseCacheResultHandler` to store the returned body.
+     */
+    private HandlerMethod applyCaching(HandlerMethod handlerMethod, ServerWebExchange exchange) {
+        TerminusCachePolicy policy = router.cachePolicies().get(handlerMethod.getMethod());
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (policy != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+            if (policy.cacheControl() != null) {
+                exchange.getResponse().getHeaders().set(HttpHeaders.CACHE_CONTROL, policy.cacheControl());
+            }
+            String etag = policy.etag(resolveRequestVersion(exchange).version());
+            if (etag != null && exchange.checkNotModified(etag)) {
+                return NOT_MODIFIED_HANDLER;
+            }
+        }
+        TerminusResponseCache cache = router.responseCaches().get(handlerMethod.getMethod());
+        if (cache == null || method != HttpMethod.GET) {
+            return handlerMethod;
+        }
+        String key = cache.key(resolveRequestVersion(exchange).version(), exchange, ACCESSOR);
+        Object body = cache.get(key);
+        router.metrics().responseCache(cache.endpoint(), body != null);
+        if (body != null) {
+            exchange.getAttributes().put(TerminusResponseCache.BODY_ATTRIBUTE, body);
+            return MEMOIZED_HANDLER;
+        }
+        exchange.getAttributes().put(TerminusResponseCache.KEY_ATTRIBUTE, key);
+        return handlerMethod;
+    }
+
+    /**
+     * @param metrics recorder for version resolution, {@link TerminusMetrics#NOOP} by default
+     */
+    public void setMetrics(TerminusMetrics metrics) {
+        router.setMetrics(metrics);
+    }
+
+    public TerminusMetrics getMetrics() {
+        return router.metrics();
+    }
+
+    /**
+     * @param versionResolvers the chain reading requested versions, {@link TerminusVersionResolvers#DEFAULT}
+     *                         by default
+     */
+    public void setVersionResolvers(TerminusVersionResolvers versionResolvers) {
+        router.setVersionResolvers(versionResolvers);
+    }
+
+    public TerminusVersionResolvers getVersionResolvers() {
+        return router.versionResolvers();
+    }
+
+    /**
+     * @param etagSeed distinguishes the ETags of this deployment from those of other deployments,
+     *                 the start time of the application by default
+     */
+    public void setEtagSeed(String etagSeed) {
+        router.setEtagSeed(etagSeed);
+    }
+
+    /**
+     * @param initialOverrides aliases and fallbacks applied from startup, such as those configured
+     *                         under {@code terminus.version}, see {@link TerminusVersionOverrides}
+     */
+    public void setVersionOverrides(TerminusVersionOverrides initialOverrides) {
+        router.setInitialOverrides(initialOverrides);
+    }
+
+    /**
+     * @param initialTrafficSplits traffic splits applied from startup, such as those configured
+     *                             under {@code terminus.traffic}, see {@link TerminusTrafficSplits}
+     */
+    public void setTrafficSplits(TerminusTrafficSplits initialTrafficSplits) {
+        router.setInitialTrafficSplits(initialTrafficSplits);
+    }
+
+    /**
+     * @param maxLatencyHistograms the most {@link TerminusLatencyHistogram}s kept, one per
+     *                             declared version and route served, zero to time no request
+     */
+    public void setMaxLatencyHistograms(int maxLatencyHistograms) {
+        router.setMaxLatencyHistograms(maxLatencyHistograms);
+    }
+
+    /**
+     * @param configuredLimits limits by version, overriding those declared with {@link TerminusRateLimit}
+     */
+    public void setConfiguredLimits(Map<String, TerminusVersionLimits.Limit> configuredLimits) {
+        router.setConfiguredLimits(configuredLimits);
+    }
+
+    /**
+     * @param deprecationClientKey the request header identifying the clients of deprecated
+     *                             versions, see {@link TerminusVersionDeprecation}
+     */
+    public void setDeprecationClientKey(String deprecationClientKey) {
+        router.setDeprecationClientKey(deprecationClientKey);
+    }
+
+    /**
+     * @return {@code true} if any declared version is deprecated with {@link TerminusDeprecated}
+     */
+    public boolean hasDeprecations() {
+        return !router.versionDeprecations().isEmpty();
+    }
+
+    /**
+     * @return the admission limits of declared versions, enforced by the version filter
+     */
+    public TerminusVersionLimits getVersionLimits() {
+        return router.versionLimits();
+    }
+
+    /**
+     * @return the caching policy declared with {@link TerminusCache} on a handler method, or
+     * {@code null} if it declares none
+     */
+    public TerminusCachePolicy getCachePolicy(Method method) {
+        return router.cachePolicies().get(method);
+    }
+
+    /**
+     * @return the response cache declared with {@link TerminusMemoize} on a handler method, or
+     * {@code null} if it declares none
+     */
+    public TerminusResponseCache getResponseCache(Method method) {
+        return router.responseCaches().get(method);
+    }
+
+    /**
+     * @return the response caches of all memoized handler methods
+     */
+    public Map<Method, TerminusResponseCache> getResponseCaches() {
+        return router.responseCaches();
+    }
+
+    /**
+     * @return the single flight of a handler method mapped with {@code singleFlight}, or
+     * {@code null} if it is not coalesced
+     */
+    public TerminusSingleFlight getSingleFlight(Method method) {
+        return router.singleFlights().get(method);
+    }
+
+    /**
+     * @return {@code true} if any handler method is mapped with {@code singleFlight}
+     */
+    public boolean hasSingleFlights() {
+        return !router.singleFlights().isEmpty();
+    }
+
+    /**
+     * @return the transform of the responses of a handler method for a version it is downgraded
+     * to with {@link TerminusDowngrade}, or {@code null}
+     */
+    public TerminusResponseTransform getResponseTransform(Method method, String version) {
+        return router.responseTransform(method, version);
+    }
+
+    /**
+     * @return {@code true} if any handler method is downgraded with {@link TerminusDowngrade}
+     */
+    public boolean hasResponseTransforms() {
+        return router.hasResponseTransforms();
+    }
+
+    /**
+     * @return {@code true} if versioned requests are timed into {@link TerminusLatencyHistogram}s
+     */
+    public boolean hasLatencyHistograms() {
+        return router.timesLatency();
+    }
+
+    /**
+     * Resolves a requested version against the versions declared by {@link Terminus} controllers.
+     * A version matches a declaration equal to it, a range containing it, or otherwise the
+     * highest declared version of the same major line below it.
+     *
+     * @param version the requested version, possibly {@code null}
+     * @return the canonical instance of the preferred declared version, or {@code null} if no
+     * declared version can serve it
+     */
+    public String resolveVersion(String version) {
+        return router.resolveVersion(version);
+    }
+
+    /**
+     * @return all versions declared by {@link Terminus} controllers
+     */
+    @Override
+    public Set<String> getVersions() {
+        return router.versions();
+    }
+
+    @Override
+    public TerminusVersionOverrides getVersionOverrides() {
+        return router.overrides();
+    }
+
+    @Override
+    public TerminusVersionOverrides updateVersionOverrides(UnaryOperator<TerminusVersionOverrides> update) {
+        return router.updateOverrides(update);
+    }
+
+    @Override
+    public TerminusTrafficSplits getTrafficSplits() {
+        return router.trafficSplits();
+    }
+
+    @Override
+    public TerminusTrafficSplits updateTrafficSplits(UnaryOperator<TerminusTrafficSplits> update) {
+        return router.updateTrafficSplits(update);
+    }
+
+    @Override
+    public boolean isVersionDisabled(String version) {
+        return router.isDisabled(version);
+    }
+
+    @Override
+    public TerminusRouteReport getRouteReport() {
+        return router.report();
+    }
+
+    @Override
+    public List<TerminusVersionDeprecation.Report> getDeprecationReport() {
+        return router.versionDeprecations().report();
+    }
+
+    /**
+     * Resolves the version requested by an exchange through the configured
+     * {@link TerminusVersionResolvers}. The resolution is cached as an exchange attribute, so
+     * the request is only read once however often this is called; a resolved version is also
+     * exposed under {@link TerminusConstants#TERMINUS_VERSION_ATTRIBUTE}.
+     * <p>
+     * Requests whose traffic is split by {@link TerminusTrafficSplits} resolve to the version
+     * they are assigned, and keep their split under {@link TerminusTrafficSplits#ATTRIBUTE}.
+     */
+    public TerminusVersionResolution resolveRequestVersion(ServerWebExchange exchange) {
+        if (exchange.getAttribute(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE)
+                instanceof TerminusVersionResolution resolution) {
+            return resolution;
+        }
+        TerminusVersionResolution resolution = router.resolve(exchange);
+        TerminusTrafficSplits.Split split = router.trafficSplit(resolution);
+        if (split != null) {
+            resolution = router.assign(split, resolution, exchange);
+            exchange.getAttributes().put(TerminusTrafficSplits.ATTRIBUTE, split);
+        }
+        exchange.getAttributes().put(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE, resolution);
+        if (resolution.isResolved()) {
+            exchange.getAttributes().put(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, resolution.version());
+        }
+        return resolution;
+    }
+
+    /**
+     * Counts the version requested by an exchange and decides whether it may proceed, before
+     * any handler is looked up, see {@link TerminusAdmission}.
+     */
+    public TerminusAdmission admit(ServerWebExchange exchange) {
+        return router.admit(resolveRequestVersion(exchange), true);
+    }
+
+    /**
+     * Counts an exchange resolved to a deprecated version and samples its client, once per
+     * exchange, from the version filter.
+     *
+     * @return the deprecation whose headers the response carries, or {@code null} if the version
+     * of the exchange is not deprecated
+     */
+    public TerminusVersionDeprecation deprecation(ServerWebExchange exchange) {
+        return router.deprecation(resolveRequestVersion(exchange), exchange);
+    }
+
+    @Override
+    protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
+        TerminusMapping terminusMapping = AnnotatedElementUtils.findMergedAnnotation(method, TerminusMapping.class);
+        if (terminusMapping == null) {
+            return super.getMappingForMethod(method, handlerType);
+        }
+        return router.detect(method, handlerType, terminusMapping,
+                resolveEmbeddedValuesInPatterns(TerminusRouter.terminusPaths(terminusMapping)));
+    }
+
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        RequestMappingInfo registered = router.register(mapping, () -> createHandlerMethod(handler, method));
+        if (registered != null) {
+            super.registerHandlerMethod(handler, method, registered);
+        }
+    }
+
+    private RequestMappingInfo.BuilderConfiguration builderConfiguration() {
+        if (config == null) {
+            config = new RequestMappingInfo.BuilderConfiguration();
+            config.setPatternParser(getPathPatternParser());
+            config.setContentTypeResolver(getContentTypeResolver());
+        }
+        return config;
+    }
+
+    /*
+     * Completes the exchange left with `304 Not Modified` by `ServerWebExchange#checkNotModified`.
+     */
+    private static final class NotModifiedHandler {
+
+        public void handle() {
+        }
+    }
+
+    private static final class MemoizedHandler {
+
+        @ResponseBody
+        public Object body(ServerWebExchange exchange) {
+            return exchange.getAttribute(TerminusResponseCache.BODY_ATTRIBUTE);
+        }
+    }
+
+    private final class MappingSupport implements TerminusMappingSupport<RequestMappingInfo, ServerWebExchange> {
+
+        @Override
+        public RequestMappingInfo createMapping(TerminusMapping mapping, String[] paths) {
+            return RequestMappingInfo
+                    .paths(paths)
+                    .methods(mapping.method())
+                    .params(mapping.params())
+                    .headers(mapping.headers())
+                    .consumes(mapping.consumes())
+                    .produces(mapping.produces())
+                    .options(builderConfiguration())
+                    .build();
+        }
+
+        @Override
+        public RequestMappingInfo getMatchingCondition(RequestMappingInfo mapping, ServerWebExchange exchange) {
+            return mapping.getMatchingCondition(exchange);
+        }
+
+        @Override
+        public int compareMatches(RequestMappingInfo first, RequestMappingInfo second, ServerWebExchange exchange) {
+            return first.compareTo(second, exchange);
+        }
+
+        @Override
+        public Set<String> getDirectPaths(RequestMappingInfo mapping) {
+            return mapping.getDirectPaths();
+        }
+
+        @Override
+        public Set<String> getPatterns(RequestMappingInfo mapping) {
+            Set<String> patterns = new TreeSet<>();
+            mapping.getPatternsCondition().getPatterns().forEach(pattern -> patterns.add(pattern.getPatternString()));
+            return patterns;
+        }
+
+        @Override
+        public Set<String> getMethods(RequestMappingInfo mapping) {
+            Set<String> methods = new TreeSet<>();
+            mapping.getMethodsCondition().getMethods().forEach(method -> methods.add(method.name()));
+            return methods;
+        }
+
+        @Override
+        public String describeConditions(RequestMappingInfo mapping) {
+            return TerminusMappingSupport.describeConditions(mapping.getParamsCondition(),
+                    mapping.getHeadersCondition(), mapping.getConsumesCondition(), mapping.getProducesCondition());
+        }
     }
 }
\ No newline at end of file
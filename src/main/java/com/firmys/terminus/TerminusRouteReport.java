@@ -0,0 +1,233 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+
+import org.apache.commons.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * TerminusRouteReport describes what the Terminus handler mappings registered: every versioned
+ * route with the handler it resolves to, and how the route table walks them.
+ * <pre>
+ * Contents:
+ * - `versions`: for each declared version, the declared versions tried in order for a request
+ *   naming it, aliases, redirects and fallbacks applied, and the literal paths and pattern
+ *   routes each of them holds. A request is matched against the candidates of each version in
+ *   turn, a walk of the version's {@link TerminusPathTrie} to its literal path and then to the
+ *   pattern routes along it, until one matches.
+ * - `routes`: each registered route, the versions declaring it and its handler, with the number
+ *   of requests it served and the mean match time sampled by {@link TerminusRouteStats}.
+ * - `collisions`: routes of one version mapped to the same method, path and conditions.
+ *   Requests to them fail as ambiguous.
+ * - `shadowed`: routes of a version that a request for another declared version would reach,
+ *   but that are hidden by a route of a version preferred ahead of it.
+ * </pre>
+ * A report is a snapshot: counters keep moving after it is taken.
+ *
+ * @param versions   the declared versions, in version string order
+ * @param routes     the registered routes, ordered by handler
+ * @param collisions routes of one version that cannot be told apart
+ * @param shadowed   routes hidden by a preferred version
+ */
+public record TerminusRouteReport(List<VersionEntry> versions, List<RouteEntry> routes,
+                                  List<Collision> collisions, List<Shadowed> shadowed) {
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a one line summary of the report, as logged at startup
+     */
+    public String summary() {
+        long patternRoutes = versions.stream().mapToLong(VersionEntry::patternRoutes).sum();
+        return "Terminus registered " + routes.size() + " routes across " + versions.size() + " versions ("
+                + patternRoutes + " pattern routes), " + collisions.size() + " collisions, "
+                + shadowed.size() + " shadowed routes";
+    }
+
+    /**
+     * Logs collisions as warnings, the summary at debug level and each route at trace level.
+     */
+    void log(Log logger) {
+        collisions.forEach(collision -> logger.warn("Colliding Terminus routes for version '"
+                + collision.version() + "' " + collision.methods() + " " + collision.path() + ": "
+                + collision.handlers()));
+        if (logger.isDebugEnabled()) {
+            logger.debug(summary());
+        }
+        if (logger.isTraceEnabled()) {
+            routes.forEach(route -> logger.trace(route.methods() + " " + route.paths() + " "
+                    + route.conditions() + " versions " + route.versions() + " -> " + route.handler()));
+            shadowed.forEach(entry -> logger.trace("Version '" + entry.version() + "' " + entry.path() + ": "
+                    + entry.handler() + " shadowed by " + entry.shadowedBy()
+                    + " of version '" + entry.servedByVersion() + "'"));
+        }
+    }
+
+    /**
+     * @param version       the declared version
+     * @param candidates    the declared versions tried for a request naming it, in order
+     * @param literalPaths  the literal paths of the version, each ending a walk of its path trie
+     * @param patternRoutes the routes of the version held at the end of their literal prefix,
+     *                      tried when no literal path matched
+     * @param disabled      whether the version is answered with `410 Gone`
+     */
+    public record VersionEntry(String version, List<String> candidates, int literalPaths, int patternRoutes,
+                               boolean disabled) {
+    }
+
+    /**
+     * @param versions          the versions declaring the route
+     * @param methods           the HTTP methods matched, all when empty
+     * @param paths             the unversioned paths and patterns matched
+     * @param conditions        the parameter, header and media type conditions, if any
+     * @param handler           the handler method, as {@code Controller#method}
+     * @param hits              the requests the route served
+     * @param sampledMatches    the matches timed, about one in {@value TerminusRouteStats#SAMPLE_RATE}
+     * @param meanMatchNanos    the mean time to match a request to the route, over the sampled matches
+     * @param meanVersionsTried the mean number of versions tried before the route matched
+     * @param latencies         the latency of the requests served, from the version filter to the
+     *                          end of the response, by the declared version serving them
+     */
+    public record RouteEntry(List<String> versions, Set<String> methods, Set<String> paths, String conditions,
+                             String handler, long hits, long sampledMatches, long meanMatchNanos,
+                             double meanVersionsTried, Map<String, TerminusLatencyHistogram.Snapshot> latencies) {
+    }
+
+    public record Collision(String version, Set<String> methods, String path, String conditions,
+                            List<String> handlers) {
+    }
+
+    /**
+     * @param version         the declared version requested
+     * @param path            the path both routes are mapped to
+     * @param handler         the handler hidden for the version
+     * @param shadowedBy      the handler serving the version instead
+     * @param servedByVersion the declared version of the serving handler
+     */
+    public record Shadowed(String version, Set<String> methods, String path, String conditions, String handler,
+                           String shadowedBy, String servedByVersion) {
+    }
+
+    /*
+     * The table of each handler mapping describes its routes through this builder, so both share
+     * how collisions and shadowed routes are found.
+     */
+    static final class Builder {
+
+        private final Map<Object, Descriptor> descriptors = new IdentityHashMap<>();
+        private final Map<String, List<Descriptor>> routesByVersion = new HashMap<>();
+        private final Map<String, List<String>> candidates = new HashMap<>();
+        private final Map<String, Boolean> disabled = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param route       the route, identifying it across the versions declaring it
+         * @param directPaths the paths of the route without patterns
+         */
+        Builder route(String version, Object route, Set<String> methods, Set<String> paths, Set<String> directPaths,
+                      String conditions, String handler, TerminusRouteStats stats) {
+            Descriptor descriptor = descriptors.computeIfAbsent(route, key ->
+                    new Descriptor(methods, paths, directPaths, conditions, handler, stats, new ArrayList<>()));
+            descriptor.versions().add(version);
+            routesByVersion.computeIfAbsent(version, key -> new ArrayList<>()).add(descriptor);
+            return this;
+        }
+
+        Builder version(String version, List<String> candidates, boolean disabled) {
+            this.candidates.put(version, candidates);
+            this.disabled.put(version, disabled);
+            return this;
+        }
+
+        TerminusRouteReport build() {
+            List<VersionEntry> versions = new ArrayList<>();
+            List<Collision> collisions = new ArrayList<>();
+            List<Shadowed> shadowed = new ArrayList<>();
+            new TreeMap<>(candidates).forEach((version, versionCandidates) -> {
+                List<Descriptor> routes = routesByVersion.getOrDefault(version, List.of());
+                versions.add(new VersionEntry(version, List.copyOf(versionCandidates),
+                        (int) routes.stream().flatMap(route -> route.directPaths().stream()).distinct().count(),
+                        (int) routes.stream().filter(Descriptor::hasPatterns).count(),
+                        disabled.get(version)));
+                collisions.addAll(collisions(version, routes));
+                shadowed.addAll(shadowed(version, versionCandidates));
+            });
+            List<RouteEntry> routes = new ArrayList<>();
+            descriptors.values().stream()
+                    .sorted((first, second) -> first.handler().compareTo(second.handler()))
+                    .forEach(route -> routes.add(new RouteEntry(List.copyOf(route.versions()), route.methods(),
+                            route.paths(), route.conditions(), route.handler(), route.stats().hits(),
+                            route.stats().samples(), route.stats().meanMatchNanos(),
+                            route.stats().meanVersionsTried(), route.stats().latencies())));
+            return new TerminusRouteReport(Collections.unmodifiableList(versions), Collections.unmodifiableList(routes),
+                    Collections.unmodifiableList(collisions), Collections.unmodifiableList(shadowed));
+        }
+
+        private static List<Collision> collisions(String version, List<Descriptor> routes) {
+            Map<String, List<Descriptor>> byKey = new LinkedHashMap<>();
+            routes.forEach(route -> route.paths().forEach(path ->
+                    byKey.computeIfAbsent(route.key(path), key -> new ArrayList<>()).add(route)));
+            List<Collision> result = new ArrayList<>();
+            byKey.values().stream().filter(colliding -> colliding.size() > 1).forEach(colliding -> {
+                Descriptor first = colliding.get(0);
+                String path = first.paths().stream()
+                        .filter(candidate -> colliding.stream().allMatch(route -> route.paths().contains(candidate)))
+                        .findFirst()
+                        .orElseThrow();
+                result.add(new Collision(version, first.methods(), path, first.conditions(),
+                        colliding.stream().map(Descriptor::handler).toList()));
+            });
+            return result;
+        }
+
+        /*
+         * Walks the candidates of the version in order. The first route found for a method, path
+         * and conditions serves it; routes of later candidates mapped the same way never will.
+         */
+        private List<Shadowed> shadowed(String version, List<String> versionCandidates) {
+            Map<String, Descriptor> served = new HashMap<>();
+            Map<String, String> servedBy = new HashMap<>();
+            List<Shadowed> result = new ArrayList<>();
+            for (String candidate : versionCandidates) {
+                for (Descriptor route : routesByVersion.getOrDefault(candidate, List.of())) {
+                    for (String path : route.paths()) {
+                        String key = route.key(path);
+                        Descriptor serving = served.putIfAbsent(key, route);
+                        if (serving == null) {
+                            servedBy.put(key, candidate);
+                        } else if (serving != route && !servedBy.get(key).equals(candidate)) {
+                            result.add(new Shadowed(version, route.methods(), path, route.conditions(),
+                                    route.handler(), serving.handler(), servedBy.get(key)));
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private record Descriptor(Set<String> methods, Set<String> paths, Set<String> directPaths, String conditions,
+                              String handler, TerminusRouteStats stats, List<String> versions) {
+
+        boolean hasPatterns() {
+            return directPaths.size() < paths.size();
+        }
+
+        String key(String path) {
+            return methods + " " + path + " " + conditions;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusRouteStats counts the requests a versioned route served and samples how long the
+ * route table took to match them.
+ * <pre>
+ * - every match is counted, a single uncontended `LongAdder` increment.
+ * - one match in {@value #SAMPLE_RATE} is timed, together with the number of declared versions
+ *   tried before one had a matching route.
+ * - the requests each declared version served through the route are timed end to end into a
+ *   {@link TerminusLatencyHistogram}, created by the router on the first request, see
+ *   {@link TerminusRouter#latency}.
+ * </pre>
+ * Sampling keeps the clock reads off the common path while still giving a stable mean for the
+ * routes that matter, the frequently hit ones.
+ */
+final class TerminusRouteStats {
+
+    static final int SAMPLE_RATE = 64;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final LongAdder sampledVersionsTried = new LongAdder();
+    private final Map<String, TerminusLatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * @return {@code true} if the match about to be made should be timed
+     */
+    static boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void sampled(long nanos, int versionsTried) {
+        samples.increment();
+        sampledNanos.add(nanos);
+        sampledVersionsTried.add(versionsTried);
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long samples() {
+        return samples.sum();
+    }
+
+    long meanMatchNanos() {
+        long count = samples.sum();
+        return count == 0 ? 0L : sampledNanos.sum() / count;
+    }
+
+    double meanVersionsTried() {
+        long count = samples.sum();
+        return count == 0 ? 0.0 : (double) sampledVersionsTried.sum() / count;
+    }
+
+    TerminusLatencyHistogram latency(String version) {
+        return latencies.get(version);
+    }
+
+    void addLatency(String version, TerminusLatencyHistogram histogram) {
+        latencies.put(version, histogram);
+    }
+
+    Map<String, TerminusLatencyHistogram.Snapshot> latencies() {
+        Map<String, TerminusLatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        latencies.forEach((version, histogram) -> snapshots.put(version, histogram.snapshot()));
+        return Collections.unmodifiableMap(snapshots);
+    }
+}
@@ -0,0 +1,351 @@
+package com.firmys.terminus;
+
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TerminusRouteTable is an immutable lookup table of versioned routes built once by
+ * {@link TerminusRouter} during initialization, for Spring MVC and WebFlux alike.
+ * <p>
+ * Routes are keyed first by version and then by the literal segments of their paths, in a
+ * {@link TerminusPathTrie} per declared version, so that resolving the handler for a versioned
+ * request is a hash lookup followed by a walk of the request path and a condition check on the
+ * few candidates held where it ends. Mappings containing path patterns are held at the end of
+ * their literal prefix and only consulted when no literal path matched.
+ * <pre>
+ * Structure:
+ * - version -> path segments -> candidate routes, pattern routes at the leaves
+ * - requested version -> declared versions able to serve it, see {@link TerminusVersionIndex}
+ * - version path prefix -> the declared version it names, see {@link #prefixed}
+ *
+ * Each route holds the unversioned request mapping declared by `TerminusMapping` together with
+ * the {@link HandlerMethod} it resolves to, so no request URI rewriting is needed to match it.
+ * Requests naming their version in the path, as in `/2/orders`, are matched against the same
+ * trie from the end of the prefix, by the mapping of the route prefixed with that version.
+ * Neither walks the routes of other versions, so lookup cost does not grow with the number of
+ * versions. Mappings are matched through the {@link TerminusMappingSupport} of the web stack.
+ *
+ * Overrides:
+ * - {@link #withOverrides} derives a table applying {@link TerminusVersionOverrides}, sharing
+ *   the routes and version index of this one. Aliases and redirects are resolved to their
+ *   candidates up front, so they cost one extra hash lookup per request when present.
+ *   Fallback chains are appended to the candidates of the version index itself, so they cost
+ *   nothing per request.
+ * - A handler declared for several versions is held by one route shared by all of them.
+ *
+ * Each route carries its {@link TerminusRouteStats}, and {@link #report} describes the table.
+ * </pre>
+ *
+ * @param <M> the request mapping type of the web stack
+ * @param <R> the request type of the web stack
+ */
+final class TerminusRouteTable<M, R> {
+
+    private final TerminusMappingSupport<M, R> support;
+    private final Map<String, VersionRoutes<M, R>> routesByVersion;
+    private final Map<String, List<VersionRoutes<M, R>>> prefixedRoutes;
+    private final TerminusVersionIndex<VersionRoutes<M, R>> versionIndex;
+    private final TerminusVersionIndex<VersionRoutes<M, R>> routingIndex;
+    private final TerminusVersionOverrides overrides;
+    private final Map<String, List<VersionRoutes<M, R>>> aliasRoutes;
+    private final Map<String, List<VersionRoutes<M, R>>> redirectRoutes;
+
+    private TerminusRouteTable(TerminusMappingSupport<M, R> support, Map<String, VersionRoutes<M, R>> routesByVersion) {
+        this(support, routesByVersion, TerminusVersionIndex.build(routesByVersion), TerminusVersionOverrides.NONE);
+    }
+
+    private TerminusRouteTable(TerminusMappingSupport<M, R> support,
+                               Map<String, VersionRoutes<M, R>> routesByVersion,
+                               TerminusVersionIndex<VersionRoutes<M, R>> versionIndex,
+                               TerminusVersionOverrides overrides) {
+        this.support = support;
+        this.routesByVersion = routesByVersion;
+        this.prefixedRoutes = prefixedRoutes(routesByVersion);
+        this.versionIndex = versionIndex;
+        this.overrides = overrides;
+        this.routingIndex = overrides.fallbacks().isEmpty()
+                ? versionIndex
+                : versionIndex.transform(candidates -> withFallbacks(versionIndex, candidates, overrides.fallbacks()));
+        this.aliasRoutes = resolveTargets(routingIndex, overrides.aliases(), overrides.redirects());
+        this.redirectRoutes = resolveTargets(routingIndex, overrides.redirects(), overrides.redirects());
+    }
+
+    static <M, R> TerminusRouteTable<M, R> empty(TerminusMappingSupport<M, R> support) {
+        return new TerminusRouteTable<>(support, Map.of());
+    }
+
+    static <M, R> Builder<M, R> builder(TerminusMappingSupport<M, R> support) {
+        return new Builder<>(support);
+    }
+
+    /**
+     * Returns the routes of every declared version able to serve the requested version, most
+     * preferred first, or an empty list when no {@code Terminus} controller can serve it.
+     *
+     * @see TerminusVersionIndex
+     */
+    List<VersionRoutes<M, R>> resolve(String version) {
+        if (!aliasRoutes.isEmpty() && version != null) {
+            List<VersionRoutes<M, R>> aliased = aliasRoutes.get(version);
+            if (aliased != null) {
+                return aliased;
+            }
+        }
+        List<VersionRoutes<M, R>> candidates = routingIndex.resolve(version);
+        if (!redirectRoutes.isEmpty() && !candidates.isEmpty()) {
+            List<VersionRoutes<M, R>> redirected = redirectRoutes.get(candidates.get(0).version);
+            if (redirected != null) {
+                return redirected;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the routes of the declared version a version path prefix names exactly, as a
+     * single candidate, or {@code null} when it names none. Like the prefixed mappings
+     * registered for it, a prefix is served by that version alone.
+     */
+    List<VersionRoutes<M, R>> prefixed(String version) {
+        return prefixedRoutes.get(version);
+    }
+
+    /**
+     * Derives a table applying the given overrides in place of the current ones.
+     *
+     * @throws IllegalArgumentException if the overrides name undeclared versions
+     */
+    TerminusRouteTable<M, R> withOverrides(TerminusVersionOverrides overrides) {
+        overrides.validate(versions());
+        return new TerminusRouteTable<>(support, routesByVersion, versionIndex, overrides);
+    }
+
+    TerminusVersionOverrides overrides() {
+        return overrides;
+    }
+
+    boolean isDisabled(String version) {
+        return !overrides.disabled().isEmpty() && version != null && overrides.disabled().contains(version);
+    }
+
+    /**
+     * Returns the canonical, interned instance of the declared version preferred for the
+     * requested version, or {@code null} when no {@code Terminus} controller can serve it.
+     */
+    String canonicalVersion(String version) {
+        List<VersionRoutes<M, R>> candidates = resolve(version);
+        return candidates.isEmpty() ? null : candidates.get(0).version;
+    }
+
+    Set<String> versions() {
+        return routesByVersion.keySet();
+    }
+
+    /**
+     * Describes the routes of this table, the versions tried for each declared version and the
+     * match statistics recorded so far.
+     */
+    TerminusRouteReport report() {
+        TerminusRouteReport.Builder report = TerminusRouteReport.builder();
+        routesByVersion.forEach((version, routes) -> {
+            report.version(version, resolve(version).stream().map(VersionRoutes::version).toList(), isDisabled(version));
+            routes.routes().forEach(route -> report.route(version, route, support.getMethods(route.mapping()),
+                    support.getPatterns(route.mapping()), support.getDirectPaths(route.mapping()),
+                    support.describeConditions(route.mapping()), route.endpoint(), route.stats()));
+        });
+        return report.build();
+    }
+
+    /*
+     * Appends the fallback chain of the preferred version, and the candidates of each version
+     * in it, to the candidates of that version.
+     */
+    private static <M, R> List<VersionRoutes<M, R>> withFallbacks(TerminusVersionIndex<VersionRoutes<M, R>> versionIndex,
+                                                                  List<VersionRoutes<M, R>> candidates,
+                                                                  Map<String, List<String>> fallbacks) {
+        List<String> chain = candidates.isEmpty() ? null : fallbacks.get(candidates.get(0).version);
+        if (chain == null) {
+            return candidates;
+        }
+        Set<VersionRoutes<M, R>> result = new LinkedHashSet<>(candidates);
+        chain.forEach(fallback -> result.addAll(versionIndex.resolve(fallback)));
+        return List.copyOf(result);
+    }
+
+    private static <M, R> Map<String, List<VersionRoutes<M, R>>> prefixedRoutes(
+            Map<String, VersionRoutes<M, R>> routesByVersion) {
+        Map<String, List<VersionRoutes<M, R>>> result = new HashMap<>();
+        routesByVersion.forEach((version, routes) -> {
+            if (!TerminusVersionIndex.isRange(version)) {
+                result.put(version, List.of(routes));
+            }
+        });
+        return Map.copyOf(result);
+    }
+
+    /*
+     * Aliases of a redirected version follow the redirect, so every name resolves in one lookup.
+     */
+    private static <M, R> Map<String, List<VersionRoutes<M, R>>> resolveTargets(
+            TerminusVersionIndex<VersionRoutes<M, R>> versionIndex,
+            Map<String, String> targets,
+            Map<String, String> redirects) {
+        Map<String, List<VersionRoutes<M, R>>> result = new HashMap<>();
+        targets.forEach((name, target) ->
+                result.put(name, versionIndex.resolve(redirects.getOrDefault(target, target))));
+        return Map.copyOf(result);
+    }
+
+    /*
+     * The endpoint name identifies the handler method in metrics. It is computed once here so
+     * that recording a resolution never builds strings.
+     */
+    record Route<M>(M mapping, HandlerMethod handlerMethod, String endpoint, TerminusRouteStats stats) {
+
+        Route(M mapping, HandlerMethod handlerMethod) {
+            this(mapping, handlerMethod,
+                    handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName(),
+                    new TerminusRouteStats());
+        }
+    }
+
+    record Match<M>(M mapping, Route<M> route, String version) {
+
+        HandlerMethod handlerMethod() {
+            return route.handlerMethod();
+        }
+    }
+
+    /*
+     * A route as declared for one version, with the mapping matching its paths prefixed with
+     * that version, or `null` for version ranges, which have no prefixed paths.
+     */
+    private record Entry<M>(Route<M> route, M prefixedMapping) {
+    }
+
+    static final class VersionRoutes<M, R> {
+
+        private final TerminusMappingSupport<M, R> support;
+        private final String version;
+        private final TerminusPathTrie<Entry<M>> paths;
+        private final Set<Route<M>> routes;
+
+        private VersionRoutes(TerminusMappingSupport<M, R> support, String version,
+                              TerminusPathTrie<Entry<M>> paths, Set<Route<M>> routes) {
+            this.support = support;
+            this.version = version;
+            this.paths = paths;
+            this.routes = routes;
+        }
+
+        String version() {
+            return version;
+        }
+
+        /**
+         * @return every route of the version, literal and pattern routes alike
+         */
+        Set<Route<M>> routes() {
+            return routes;
+        }
+
+        /**
+         * Finds the best matching route for the lookup path, preferring literal paths and
+         * falling back to the pattern routes along the path. Returns {@code null} when nothing
+         * matches.
+         *
+         * @param prefixed whether the lookup path starts with this version, as in
+         *                 {@code /2/orders}, in which case the routes are matched by their
+         *                 prefixed mappings
+         */
+        Match<M> match(String lookupPath, boolean prefixed, R request) {
+            int offset = prefixed ? version.length() + 1 : 0;
+            Match<M> best = bestMatch(paths.literal(lookupPath, offset), prefixed, lookupPath, request);
+            return best != null ? best : bestMatch(paths.patterns(lookupPath, offset), prefixed, lookupPath, request);
+        }
+
+        private Match<M> bestMatch(List<Entry<M>> entries, boolean prefixed, String lookupPath, R request) {
+            M bestMapping = null;
+            Route<M> bestRoute = null;
+            boolean ambiguous = false;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry<M> entry = entries.get(i);
+                Route<M> route = entry.route();
+                M mapping = prefixed ? entry.prefixedMapping() : route.mapping();
+                M matched = mapping != null ? support.getMatchingCondition(mapping, request) : null;
+                if (matched == null) {
+                    continue;
+                }
+                if (bestMapping == null) {
+                    bestMapping = matched;
+                    bestRoute = route;
+                    continue;
+                }
+                int comparison = support.compareMatches(matched, bestMapping, request);
+                if (comparison < 0) {
+                    bestMapping = matched;
+                    bestRoute = route;
+                    ambiguous = false;
+                } else if (comparison == 0) {
+                    ambiguous = true;
+                }
+            }
+            if (ambiguous) {
+                throw new IllegalStateException(
+                        "Ambiguous versioned handler methods mapped for '" + lookupPath + "': {"
+                                + bestRoute.handlerMethod() + "}");
+            }
+            return bestMapping != null ? new Match<>(bestMapping, bestRoute, version) : null;
+        }
+    }
+
+    static final class Builder<M, R> {
+
+        private final TerminusMappingSupport<M, R> support;
+        private final Map<String, List<Entry<M>>> entries = new LinkedHashMap<>();
+        private final Map<M, Route<M>> routes = new IdentityHashMap<>();
+
+        private Builder(TerminusMappingSupport<M, R> support) {
+            this.support = support;
+        }
+
+        /**
+         * Versions are interned so that every request resolved through the table shares one
+         * canonical instance per version, with its hash code computed only once.
+         *
+         * @param mapping         the unversioned mapping, shared by every version declaring it
+         * @param prefixedMapping the mapping of the paths prefixed with this version, or
+         *                        {@code null} for a version range
+         */
+        Builder<M, R> route(String version, M mapping, M prefixedMapping, HandlerMethod handlerMethod) {
+            String canonical = version.intern();
+            Route<M> route = routes.computeIfAbsent(mapping, info -> new Route<>(info, handlerMethod));
+            entries.computeIfAbsent(canonical, ver -> new ArrayList<>()).add(new Entry<>(route, prefixedMapping));
+            return this;
+        }
+
+        TerminusRouteTable<M, R> build() {
+            Map<String, VersionRoutes<M, R>> routesByVersion = new HashMap<>();
+            entries.forEach((version, versionEntries) -> {
+                TerminusPathTrie.Builder<Entry<M>> paths = TerminusPathTrie.builder();
+                Set<Route<M>> versionRoutes = Collections.newSetFromMap(new IdentityHashMap<>());
+                versionEntries.forEach(entry -> {
+                    support.getPatterns(entry.route().mapping()).forEach(path -> paths.add(path, entry));
+                    versionRoutes.add(entry.route());
+                });
+                routesByVersion.put(version, new VersionRoutes<>(support, version, paths.build(),
+                        Collections.unmodifiableSet(versionRoutes)));
+            });
+            return new TerminusRouteTable<>(support, Collections.unmodifiableMap(routesByVersion));
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDowngrade;
+import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusMemoize;
+import com.firmys.terminus.annotations.TerminusVirtualThreads;
+import com.firmys.terminus.cache.TerminusCachePolicy;
+import com.firmys.terminus.cache.TerminusResponseCache;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecations;
+import com.firmys.terminus.execution.TerminusBulkhead;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+import com.firmys.terminus.limits.TerminusVersionLimit;
+import com.firmys.terminus.limits.TerminusVersionLimits;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+import com.firmys.terminus.metrics.TerminusMetrics;
+import com.firmys.terminus.resolvers.TerminusRequestAccessor;
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionResolvers;
+import com.firmys.terminus.resolvers.TerminusVersionSource;
+import com.firmys.terminus.transform.TerminusResponseTransform;
+
+import org.apache.commons.logging.Log;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * TerminusRouter is the framework-neutral routing engine behind {@link TerminusMvcHandlerMapping}
+ * and {@link TerminusReactiveHandlerMapping}, so that both stacks register, resolve and admit
+ * versioned requests through the same code.
+ * <pre>
+ * Owned here, once for both stacks:
+ * - reading `Terminus`, `TerminusMapping` and the annotations refining them while handler
+ *   methods are detected, see {@link #detect} and {@link #register}, including the versions
+ *   served through a `TerminusDowngrade` and their {@link TerminusResponseTransform}.
+ * - the {@link TerminusRouteTable} snapshot, with its version index, overrides and route
+ *   statistics, and the {@link TerminusVersionRegistry} operations on it.
+ * - matching a versioned request against the candidates of its version, or the version named
+ *   by its path prefix, see {@link #match}.
+ * - resolving requested versions through the {@link TerminusVersionResolvers}, and assigning
+ *   the traffic of split aliases and unversioned requests to their arm, see {@link #assign}.
+ * - the {@link TerminusAdmission} of requests by the version filters, and the
+ *   {@link TerminusVersionDeprecation} of deprecated versions they announce, see {@link #deprecation}.
+ * - the {@link TerminusLatencyHistogram} of each declared version and route, within a budget
+ *   of histograms, see {@link #latency}.
+ *
+ * Left to the handler mappings:
+ * - a {@link TerminusMappingSupport} creating and matching their `RequestMappingInfo` type.
+ * - where resolutions are kept on the request, and how cached and coalesced bodies are served,
+ *   blocking on Servlet threads and without blocking on WebFlux.
+ * </pre>
+ * The route table and the traffic splits are replaced as a whole when they change and read once
+ * per request without locking; every other field is fixed once the handler methods are detected.
+ *
+ * @param <M> the request mapping type of the web stack
+ * @param <R> the request type of the web stack
+ */
+final class TerminusRouter<M, R> {
+
+    static final int DEFAULT_MAX_LATENCY_HISTOGRAMS = 256;
+
+    private final TerminusMappingSupport<M, R> support;
+
+    private final TerminusRequestAccessor<R> accessor;
+
+    private final UnaryOperator<String> declaredVersion = this::resolveVersion;
+
+    private volatile TerminusRouteTable<M, R> routeTable;
+
+    private volatile TerminusTrafficSplits trafficSplits = TerminusTrafficSplits.NONE;
+
+    private TerminusMetrics metrics = TerminusMetrics.NOOP;
+
+    private TerminusVersionResolvers versionResolvers = TerminusVersionResolvers.DEFAULT;
+
+    private Map<Method, TerminusCachePolicy> cachePolicies = new HashMap<>();
+
+    private Map<Method, TerminusResponseCache> responseCaches = new HashMap<>();
+
+    private Map<Method, TerminusSingleFlight> singleFlights = new HashMap<>();
+
+    private Map<Class<?>, Map<String, TerminusBulkhead>> bulkheads = new HashMap<>();
+
+    private Map<Method, Map<String, TerminusResponseTransform>> responseTransforms = new HashMap<>();
+
+    private TerminusVersionLimits versionLimits = TerminusVersionLimits.NONE;
+
+    private Map<String, TerminusVersionLimits.Limit> configuredLimits = Map.of();
+
+    private TerminusVersionDeprecations versionDeprecations = TerminusVersionDeprecations.NONE;
+
+    private String deprecationClientKey = HttpHeaders.USER_AGENT;
+
+    private TerminusVersionOverrides initialOverrides = TerminusVersionOverrides.NONE;
+
+    private TerminusTrafficSplits initialTrafficSplits = TerminusTrafficSplits.NONE;
+
+    private String etagSeed = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private int maxLatencyHistograms = DEFAULT_MAX_LATENCY_HISTOGRAMS;
+
+    // Written under the router's lock, read without it to skip the lock once the budget is spent
+    private volatile int latencyHistograms;
+
+    /*
+     * Startup-only state, filled while handler methods are detected and released once the
+     * route table is built. Pending routes are keyed by identity, as the same mapping instance
+     * is handed from `detect` to `register`.
+     */
+    private final Map<Class<?>, String[]> versionsByType = new HashMap<>();
+
+    private final Map<Class<?>, Map<String, TerminusResponseTransform>> downgradesByType = new HashMap<>();
+
+    private final Map<M, PendingRoute> pendingRoutes = new IdentityHashMap<>();
+
+    private TerminusRouteTable.Builder<M, R> routeBuilder;
+
+    private TerminusVersionLimits.Builder limitsBuilder;
+
+    private TerminusVersionDeprecations.Builder deprecationsBuilder;
+
+    TerminusRouter(TerminusMappingSupport<M, R> support, TerminusRequestAccessor<R> accessor) {
+        this.support = support;
+        this.accessor = accessor;
+        this.routeTable = TerminusRouteTable.empty(support);
+    }
+
+    /**
+     * Detects handler methods through {@code detection}, the handler mapping's own
+     * initialization, and builds the route table from the versioned ones it registered.
+     */
+    void initialize(Runnable detection, Log logger) {
+        routeBuilder = TerminusRouteTable.builder(support);
+        limitsBuilder = TerminusVersionLimits.builder().configure(configuredLimits);
+        deprecationsBuilder = TerminusVersionDeprecations.builder();
+        try {
+            detection.run();
+            routeTable = routeBuilder.build().withOverrides(initialOverrides);
+            routeTable.report().log(logger);
+            initialTrafficSplits.validate(routeTable.versions());
+            trafficSplits = initialTrafficSplits;
+            versionLimits = limitsBuilder.build(routeTable.versions());
+            versionDeprecations = deprecationsBuilder.build(routeTable.versions());
+            cachePolicies = Map.copyOf(cachePolicies);
+            responseCaches = Map.copyOf(responseCaches);
+            singleFlights = Map.copyOf(singleFlights);
+            responseTransforms = Map.copyOf(responseTransforms);
+            bulkheads.values().removeIf(Map::isEmpty);
+            bulkheads = Map.copyOf(bulkheads);
+        } finally {
+            routeBuilder = null;
+            limitsBuilder = null;
+            deprecationsBuilder = null;
+            versionsByType.clear();
+            downgradesByType.clear();
+            pendingRoutes.clear();
+        }
+    }
+
+    /**
+     * Builds the mapping of a handler method declared with {@link TerminusMapping} directly from
+     * the annotation, and reads the caching, coalescing, execution and limit annotations of the
+     * method and its controller. For versioned controllers the returned mapping is remembered
+     * together with the declared versions and expanded by {@link #register}, which keeps
+     * registration to a single pass.
+     *
+     * @param paths the paths declared by the annotation, with placeholders resolved
+     */
+    M detect(Method method, Class<?> handlerType, TerminusMapping terminusMapping, String[] paths) {
+        // The route table matches the request path as received, so the version is not part of it
+        M mapping = support.createMapping(terminusMapping, paths.length > 0 ? paths : new String[]{"/"});
+        String[] versions = terminusVersions(handlerType);
+        bulkheads.computeIfAbsent(handlerType, type -> terminusBulkheads(type, versions));
+        if (limitsBuilder != null) {
+            limitsBuilder.declare(handlerType, versions);
+        }
+        if (deprecationsBuilder != null) {
+            deprecationsBuilder.declare(handlerType, versions);
+        }
+        TerminusCache cache = AnnotatedElementUtils.findMergedAnnotation(method, TerminusCache.class);
+        if (cache != null) {
+            cachePolicies.put(method, TerminusCachePolicy.of(cache, etagSeed));
+        }
+        TerminusMemoize memoize = AnnotatedElementUtils.findMergedAnnotation(method, TerminusMemoize.class);
+        if (memoize != null) {
+            responseCaches.put(method, TerminusResponseCache.of(memoize, handlerType, method));
+        }
+        if (terminusMapping.singleFlight()) {
+            singleFlights.put(method, TerminusSingleFlight.of(handlerType, method));
+        }
+        Map<String, TerminusResponseTransform> downgrades = terminusDowngrades(method, handlerType, versions);
+        if (!downgrades.isEmpty()) {
+            responseTransforms.put(method, downgrades);
+        }
+        if (versions.length > 0) {
+            pendingRoutes.put(mapping, new PendingRoute(terminusMapping, paths, versions,
+                    downgrades.keySet().toArray(String[]::new)));
+        }
+        return mapping;
+    }
+
+    /**
+     * Records the handler of a mapping returned by {@link #detect} under each declared version,
+     * and each version it is downgraded to, in the route table being built.
+     *
+     * @return the mapping to register with the handler mapping: the given one for unversioned
+     * mappings, a single mapping carrying the paths prefixed with each declared version for
+     * versioned ones, or {@code null} when all declared versions are ranges. Ranges and
+     * downgraded versions are only served through the route table.
+     */
+    M register(M mapping, Supplier<HandlerMethod> handlerMethod) {
+        PendingRoute pending = pendingRoutes.remove(mapping);
+        if (pending == null) {
+            return mapping;
+        }
+        HandlerMethod created = handlerMethod.get();
+        List<String> prefixedPaths = new ArrayList<>();
+        for (String version : pending.versions()) {
+            M prefixed = null;
+            if (!TerminusVersionIndex.isRange(version)) {
+                String[] versioned = versionedPaths(pending.paths(), version);
+                prefixedPaths.addAll(Arrays.asList(versioned));
+                prefixed = routeBuilder != null ? support.createMapping(pending.mapping(), versioned) : null;
+            }
+            if (routeBuilder != null) {
+                routeBuilder.route(version, mapping, prefixed, created);
+            }
+        }
+        if (routeBuilder != null) {
+            for (String version : pending.downgrades()) {
+                M prefixed = TerminusVersionIndex.isRange(version)
+                        ? null
+                        : support.createMapping(pending.mapping(), versionedPaths(pending.paths(), version));
+                routeBuilder.route(version, mapping, prefixed, created);
+            }
+        }
+        return prefixedPaths.isEmpty()
+                ? null
+                : support.createMapping(pending.mapping(), prefixedPaths.toArray(String[]::new));
+    }
+
+    /**
+     * Matches a request carrying a declared version against the route table snapshot, before
+     * the handler mapping's own lookup is consulted.
+     * <pre>
+     * - a version read from the path prefix is matched against the routes of the version it
+     *   names, as the prefixed mappings registered for it would be.
+     * - any other version is matched against the routes of each declared version able to serve
+     *   it in turn, most preferred first.
+     * </pre>
+     * The match is counted on the route found and its cost sampled, see {@link TerminusRouteStats}.
+     *
+     * @return the match, or {@code null} when no versioned route matched, in which case the
+     * request is left to the handler mapping's own lookup
+     */
+    TerminusRouteTable.Match<M> match(TerminusVersionResolution resolution, String lookupPath, R request) {
+        TerminusRouteTable<M, R> table = routeTable;
+        if (resolution.source() == TerminusVersionSource.PATH) {
+            List<TerminusRouteTable.VersionRoutes<M, R>> prefixed = table.prefixed(resolution.requested());
+            return prefixed != null && hasPrefix(lookupPath, resolution.requested())
+                    ? match(prefixed, true, lookupPath, request)
+                    : null;
+        }
+        List<TerminusRouteTable.VersionRoutes<M, R>> candidates = table.resolve(resolution.version());
+        return candidates.isEmpty() ? null : match(candidates, false, lookupPath, request);
+    }
+
+    private TerminusRouteTable.Match<M> match(List<TerminusRouteTable.VersionRoutes<M, R>> candidates,
+                                              boolean prefixed, String lookupPath, R request) {
+        boolean sampled = TerminusRouteStats.sample();
+        boolean timed = sampled || metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0L;
+        for (int i = 0; i < candidates.size(); i++) {
+            TerminusRouteTable.Match<M> match = candidates.get(i).match(lookupPath, prefixed, request);
+            if (match != null) {
+                TerminusRouteStats stats = match.route().stats();
+                stats.hit();
+                if (timed) {
+                    long elapsed = System.nanoTime() - start;
+                    if (sampled) {
+                        stats.sampled(elapsed, i + 1);
+                    }
+                    metrics.resolved(match.version(), match.route().endpoint(), elapsed);
+                }
+                return match;
+            }
+        }
+        metrics.fallback(candidates.get(0).version());
+        return null;
+    }
+
+    /**
+     * Looks up the latency histogram of the declared version and route of a match, creating it
+     * on the first request. At most {@code terminus.latency.max-histograms} histograms are
+     * created, so their memory stays bounded however many versions and routes are declared;
+     * the requests of further pairs are not timed.
+     *
+     * @return the histogram, or {@code null} if the pair is not timed
+     */
+    TerminusLatencyHistogram latency(TerminusRouteTable.Match<M> match) {
+        TerminusLatencyHistogram histogram = match.route().stats().latency(match.version());
+        return histogram != null || latencyHistograms >= maxLatencyHistograms ? histogram : addLatency(match);
+    }
+
+    private synchronized TerminusLatencyHistogram addLatency(TerminusRouteTable.Match<M> match) {
+        TerminusRouteStats stats = match.route().stats();
+        TerminusLatencyHistogram histogram = stats.latency(match.version());
+        if (histogram == null && latencyHistograms < maxLatencyHistograms) {
+            histogram = new TerminusLatencyHistogram();
+            stats.addLatency(match.version(), histogram);
+            latencyHistograms++;
+            metrics.latency(match.version(), match.route().endpoint(), histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Reads the version requested by a request through the configured resolvers.
+     */
+    TerminusVersionResolution resolve(R request) {
+        return versionResolvers.resolve(request, accessor, declaredVersion);
+    }
+
+    /**
+     * @return the traffic split the traffic of a resolution belongs to, or {@code null} if it is
+     * not split
+     */
+    TerminusTrafficSplits.Split trafficSplit(TerminusVersionResolution resolution) {
+        TerminusTrafficSplits splits = trafficSplits;
+        return splits.isEmpty() ? null : splits.get(resolution);
+    }
+
+    /**
+     * Assigns a request to an arm of its traffic split, by the hash of its client key.
+     *
+     * @return the resolution to route the request with: the given one for the baseline, or one
+     * resolving to the version assigned
+     */
+    TerminusVersionResolution assign(TerminusTrafficSplits.Split split, TerminusVersionResolution resolution,
+                                     R request) {
+        String key = split.clientKey() != null ? accessor.header(request, split.clientKey()) : null;
+        String version = split.assign(key);
+        if (version == null || version.equals(resolution.version()) || routeTable.isDisabled(version)) {
+            return resolution;
+        }
+        return new TerminusVersionResolution(version, resolution.requested(), resolution.source());
+    }
+
+    /**
+     * Counts the requested version, then decides whether the request may proceed: disabled
+     * versions are gone, and limited versions need to be admitted by their limit.
+     *
+     * @param limited whether the limits of the version apply to this request
+     */
+    TerminusAdmission admit(TerminusVersionResolution resolution, boolean limited) {
+        if (resolution.isResolved()) {
+            metrics.versionRequested(resolution.version());
+        } else if (resolution.isUnknown()) {
+            metrics.unknownVersion();
+        }
+        if (resolution.isResolved() && routeTable.isDisabled(resolution.version())) {
+            return TerminusAdmission.GONE;
+        }
+        TerminusVersionLimit limit = limited ? versionLimits.get(resolution.version()) : null;
+        if (limit == null) {
+            return TerminusAdmission.ADMITTED;
+        }
+        TerminusVersionLimit.Admission admission = limit.tryAcquire();
+        if (admission != TerminusVersionLimit.Admission.ADMITTED) {
+            metrics.rejected(limit.version(), admission == TerminusVersionLimit.Admission.RATE_LIMITED);
+            return new TerminusAdmission(admission.status(), null);
+        }
+        return limit.limitsConcurrency() ? new TerminusAdmission(null, limit) : TerminusAdmission.ADMITTED;
+    }
+
+    /**
+     * Counts a request resolved to a deprecated version, and samples its client, read from the
+     * {@code terminus.deprecation.client-key} header, into the sketch of the version.
+     *
+     * @return the deprecation the response announces, or {@code null} if the version is not
+     * deprecated
+     */
+    TerminusVersionDeprecation deprecation(TerminusVersionResolution resolution, R request) {
+        TerminusVersionDeprecation deprecation = versionDeprecations.get(resolution.version());
+        if (deprecation != null) {
+            deprecation.requested();
+            metrics.deprecated(deprecation.version());
+            if (TerminusVersionDeprecation.sample()) {
+                deprecation.sampled(accessor.header(request, deprecationClientKey));
+            }
+        }
+        return deprecation;
+    }
+
+    String resolveVersion(String version) {
+        return routeTable.canonicalVersion(version);
+    }
+
+    Set<String> versions() {
+        return routeTable.versions();
+    }
+
+    TerminusVersionOverrides overrides() {
+        return routeTable.overrides();
+    }
+
+    synchronized TerminusVersionOverrides updateOverrides(UnaryOperator<TerminusVersionOverrides> update) {
+        TerminusVersionOverrides overrides = update.apply(routeTable.overrides());
+        routeTable = routeTable.withOverrides(overrides);
+        return overrides;
+    }
+
+    TerminusTrafficSplits trafficSplits() {
+        return trafficSplits;
+    }
+
+    synchronized TerminusTrafficSplits updateTrafficSplits(UnaryOperator<TerminusTrafficSplits> update) {
+        TerminusTrafficSplits splits = update.apply(trafficSplits);
+        splits.validate(routeTable.versions());
+        trafficSplits = splits;
+        return splits;
+    }
+
+    boolean isDisabled(String version) {
+        return routeTable.isDisabled(version);
+    }
+
+    TerminusRouteReport report() {
+        return routeTable.report();
+    }
+
+    TerminusMetrics metrics() {
+        return metrics;
+    }
+
+    void setMetrics(TerminusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    TerminusVersionResolvers versionResolvers() {
+        return versionResolvers;
+    }
+
+    void setVersionResolvers(TerminusVersionResolvers versionResolvers) {
+        this.versionResolvers = versionResolvers;
+    }
+
+    void setEtagSeed(String etagSeed) {
+        this.etagSeed = etagSeed;
+    }
+
+    boolean timesLatency() {
+        return maxLatencyHistograms > 0;
+    }
+
+    void setMaxLatencyHistograms(int maxLatencyHistograms) {
+        if (maxLatencyHistograms < 0) {
+            throw new IllegalArgumentException("terminus.latency.max-histograms must not be negative");
+        }
+        this.maxLatencyHistograms = maxLatencyHistograms;
+    }
+
+    void setInitialOverrides(TerminusVersionOverrides initialOverrides) {
+        this.initialOverrides = initialOverrides;
+    }
+
+    void setInitialTrafficSplits(TerminusTrafficSplits initialTrafficSplits) {
+        this.initialTrafficSplits = initialTrafficSplits;
+    }
+
+    void setConfiguredLimits(Map<String, TerminusVersionLimits.Limit> configuredLimits) {
+        this.configuredLimits = configuredLimits;
+    }
+
+    TerminusVersionDeprecations versionDeprecations() {
+        return versionDeprecations;
+    }
+
+    void setDeprecationClientKey(String deprecationClientKey) {
+        this.deprecationClientKey = deprecationClientKey;
+    }
+
+    TerminusVersionLimits versionLimits() {
+        return versionLimits;
+    }
+
+    Map<Method, TerminusCachePolicy> cachePolicies() {
+        return cachePolicies;
+    }
+
+    Map<Method, TerminusResponseCache> responseCaches() {
+        return responseCaches;
+    }
+
+    Map<Method, TerminusSingleFlight> singleFlights() {
+        return singleFlights;
+    }
+
+    Map<Class<?>, Map<String, TerminusBulkhead>> bulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * @return the transform of the responses of a handler method for a version it is
+     * downgraded to, or {@code null}
+     */
+    TerminusResponseTransform responseTransform(Method method, String version) {
+        if (responseTransforms.isEmpty() || version == null) {
+            return null;
+        }
+        Map<String, TerminusResponseTransform> transforms = responseTransforms.get(method);
+        return transforms != null ? transforms.get(version) : null;
+    }
+
+    boolean hasResponseTransforms() {
+        return !responseTransforms.isEmpty();
+    }
+
+    private String[] terminusVersions(Class<?> handlerType) {
+        return versionsByType.computeIfAbsent(handlerType, type -> {
+            Terminus terminus = AnnotatedElementUtils.findMergedAnnotation(type, Terminus.class);
+            return terminus != null
+                    ? Arrays.stream(terminus.versions()).distinct().toArray(String[]::new)
+                    : new String[0];
+        });
+    }
+
+    /*
+     * One bulkhead per version dispatched on virtual threads. Without an explicit selection,
+     * requests reaching the controller without a version are isolated under the empty version.
+     */
+    private static Map<String, TerminusBulkhead> terminusBulkheads(Class<?> handlerType, String[] versions) {
+        TerminusVirtualThreads virtualThreads =
+                AnnotatedElementUtils.findMergedAnnotation(handlerType, TerminusVirtualThreads.class);
+        if (virtualThreads == null) {
+            return Map.of();
+        }
+        String[] isolated = virtualThreads.versions().length > 0 ? virtualThreads.versions() : versions;
+        Map<String, TerminusBulkhead> result = new HashMap<>();
+        for (String version : isolated) {
+            if (!Arrays.asList(versions).contains(version)) {
+                throw new IllegalStateException("TerminusVirtualThreads on " + handlerType.getName()
+                        + " names version '" + version + "', which the controller does not declare");
+            }
+            result.put(version, new TerminusBulkhead(version, virtualThreads.maxConcurrency()));
+        }
+        if (virtualThreads.versions().length == 0) {
+            result.put("", new TerminusBulkhead("", virtualThreads.maxConcurrency()));
+        }
+        return Map.copyOf(result);
+    }
+
+    private static boolean hasPrefix(String lookupPath, String version) {
+        int end = version.length() + 1;
+        return lookupPath.startsWith(version, 1) && lookupPath.charAt(0) == '/'
+                && (lookupPath.length() == end || lookupPath.charAt(end) == '/');
+    }
+
+    /*
+     * Downgrades declared on the method replace those declared on its controller for the same
+     * version. A controller cannot be downgraded to a version it declares, which would leave
+     * two routes for one version and path.
+     */
+    private Map<String, TerminusResponseTransform> terminusDowngrades(Method method, Class<?> handlerType,
+                                                                      String[] versions) {
+        Map<String, TerminusResponseTransform> typeDowngrades = downgradesByType.computeIfAbsent(handlerType,
+                type -> transforms(AnnotatedElementUtils.findMergedRepeatableAnnotations(type, TerminusDowngrade.class),
+                        type, versions));
+        Map<String, TerminusResponseTransform> methodDowngrades = transforms(
+                AnnotatedElementUtils.findMergedRepeatableAnnotations(method, TerminusDowngrade.class),
+                handlerType, versions);
+        if (methodDowngrades.isEmpty()) {
+            return typeDowngrades;
+        }
+        Map<String, TerminusResponseTransform> result = new LinkedHashMap<>(typeDowngrades);
+        result.putAll(methodDowngrades);
+        return result;
+    }
+
+    private static Map<String, TerminusResponseTransform> transforms(Set<TerminusDowngrade> downgrades,
+                                                                     Class<?> handlerType, String[] versions) {
+        if (downgrades.isEmpty()) {
+            return Map.of();
+        }
+        if (versions.length == 0) {
+            throw new IllegalStateException("TerminusDowngrade on " + handlerType.getName()
+                    + " requires a Terminus controller");
+        }
+        Map<String, TerminusResponseTransform> result = new LinkedHashMap<>();
+        for (TerminusDowngrade downgrade : downgrades) {
+            if (Arrays.asList(versions).contains(downgrade.version())) {
+                throw new IllegalStateException("TerminusDowngrade on " + handlerType.getName()
+                        + " names version '" + downgrade.version() + "', which the controller declares");
+            }
+            result.put(downgrade.version(), TerminusResponseTransform.of(downgrade));
+        }
+        return result;
+    }
+
+    static String[] terminusPaths(TerminusMapping mapping) {
+        return mapping.value().length > 0 ? mapping.value() : mapping.path();
+    }
+
+    /*
+     * Prefixes each path declared with `TerminusMapping` with the given version, or maps the
+     * version itself when no path is declared.
+     */
+    private static String[] versionedPaths(String[] paths, String version) {
+        if (paths.length == 0) {
+            return new String[]{"/" + version};
+        }
+        return Arrays.stream(paths)
+                .map(path -> "/" + version + (path.startsWith("/") ? path : "/" + path))
+                .toArray(String[]::new);
+    }
+
+    private record PendingRoute(TerminusMapping mapping, String[] paths, String[] versions, String[] downgrades) {
+    }
+}
@@ -0,0 +1,275 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionSource;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TerminusTrafficSplits moves a share of the traffic of an alias, such as `latest`, or of the
+ * requests carrying no version at all, to other declared versions, typically the canary of a new
+ * release. Instances are immutable; each change returns a new instance, applied through
+ * {@link TerminusVersionRegistry#updateTrafficSplits}.
+ * <pre>
+ * Splits:
+ * - keyed by the alias whose traffic they split, or {@link #UNVERSIONED} for requests carrying
+ *   no version.
+ * - each gives declared versions a share of that traffic, in percent. The remaining traffic, the
+ *   baseline, is served as it would be without the split.
+ * - requests naming a declared version, in a header, media type, query or path, are never moved.
+ *
+ * Assignment:
+ * - each split is compiled into a table of 10,000 buckets holding the arm of each bucket, so
+ *   assigning a request is one hash and one array read, without locking.
+ * - a request's bucket is a hash of its `client-key` header, so a client stays on its arm as
+ *   long as the shares do not change. Raising the share of the first version of a split only
+ *   moves further clients to it. Requests without the header are assigned at random.
+ * - a version disabled through {@link TerminusVersionOverrides} receives no traffic; its share is
+ *   served by the baseline.
+ * </pre>
+ * Splits are configured as, with bracket notation for versions containing dots:
+ * <pre>
+ * terminus.traffic.client-key=X-Client-Id
+ * terminus.traffic.splits.latest[2.0]=10
+ * terminus.traffic.splits.unversioned[2.0]=5
+ * </pre>
+ */
+public final class TerminusTrafficSplits {
+
+    public static final String CLIENT_KEY_PROPERTY = "terminus.traffic.client-key";
+
+    public static final String SPLITS_PROPERTY = "terminus.traffic.splits";
+
+    /**
+     * The name of the split applying to requests carrying no version.
+     */
+    public static final String UNVERSIONED = "unversioned";
+
+    /**
+     * Request attribute holding the {@link Split} a request was assigned by.
+     */
+    public static final String ATTRIBUTE = TerminusTrafficSplits.class.getName() + ".split";
+
+    public static final TerminusTrafficSplits NONE = new TerminusTrafficSplits(null, Map.of());
+
+    static final int BUCKETS = 10_000;
+
+    private final String clientKey;
+
+    private final Map<String, Split> splits;
+
+    private final Split unversioned;
+
+    /**
+     * @param clientKey the request header assignments stick to, or {@code null} to assign every
+     *                  request at random
+     * @param shares    split name to the share of each version, in percent
+     * @throws IllegalArgumentException if a share is negative or the shares of a split exceed 100
+     */
+    public TerminusTrafficSplits(String clientKey, Map<String, Map<String, Double>> shares) {
+        this.clientKey = clientKey != null && !clientKey.isBlank() ? clientKey : null;
+        Map<String, Split> compiled = new HashMap<>();
+        shares.forEach((name, versions) -> {
+            if (!versions.isEmpty()) {
+                compiled.put(name, new Split(name, this.clientKey, versions));
+            }
+        });
+        this.splits = Map.copyOf(compiled);
+        this.unversioned = splits.get(UNVERSIONED);
+    }
+
+    /**
+     * Reads the splits configured under {@link #SPLITS_PROPERTY} and {@link #CLIENT_KEY_PROPERTY}.
+     */
+    public static TerminusTrafficSplits bind(Environment environment) {
+        Binder binder = Binder.get(environment);
+        Bindable<Map<String, Map<String, Double>>> splits = Bindable.of(ResolvableType.forClassWithGenerics(
+                Map.class, ResolvableType.forClass(String.class),
+                ResolvableType.forClassWithGenerics(Map.class, String.class, Double.class)));
+        return new TerminusTrafficSplits(
+                binder.bind(CLIENT_KEY_PROPERTY, String.class).orElse(null),
+                binder.bind(SPLITS_PROPERTY, splits).orElse(Map.of()));
+    }
+
+    public String clientKey() {
+        return clientKey;
+    }
+
+    /**
+     * @param resolverHeaders the headers the version resolvers read, as listed in {@code Vary},
+     *                        or {@code null}
+     * @return the headers responses vary by, the client key included, or {@code null} if none
+     */
+    public String varyHeader(String resolverHeaders) {
+        if (clientKey == null) {
+            return resolverHeaders;
+        }
+        return resolverHeaders != null ? resolverHeaders + ", " + clientKey : clientKey;
+    }
+
+    /**
+     * @return split name to the share of each version, in percent
+     */
+    public Map<String, Map<String, Double>> shares() {
+        Map<String, Map<String, Double>> result = new HashMap<>();
+        splits.forEach((name, split) -> result.put(name, split.shares()));
+        return result;
+    }
+
+    public Split get(String name) {
+        return splits.get(name);
+    }
+
+    public boolean isEmpty() {
+        return splits.isEmpty();
+    }
+
+    /**
+     * @param share the share of the traffic of the split served by the version, in percent;
+     *              zero removes the version from the split
+     */
+    public TerminusTrafficSplits share(String name, String version, double share) {
+        Map<String, Map<String, Double>> result = shares();
+        Map<String, Double> versions = new LinkedHashMap<>(result.getOrDefault(name, Map.of()));
+        if (share != 0) {
+            versions.put(version, share);
+        } else {
+            versions.remove(version);
+        }
+        result.put(name, versions);
+        return new TerminusTrafficSplits(clientKey, result);
+    }
+
+    public TerminusTrafficSplits remove(String name) {
+        Map<String, Map<String, Double>> result = shares();
+        result.remove(name);
+        return new TerminusTrafficSplits(clientKey, result);
+    }
+
+    /**
+     * @return the split the traffic of a resolution belongs to, or {@code null} if it is not split
+     */
+    Split get(TerminusVersionResolution resolution) {
+        if (resolution.requested() == null) {
+            return unversioned;
+        }
+        return resolution.isResolved() && resolution.source() != TerminusVersionSource.PATH
+                ? splits.get(resolution.requested())
+                : null;
+    }
+
+    /**
+     * Checks these splits against the declared versions.
+     *
+     * @throws IllegalArgumentException if a split names an undeclared version, or is named after
+     *                                  a declared version, whose requests are never moved
+     */
+    void validate(Set<String> versions) {
+        splits.forEach((name, split) -> {
+            if (versions.contains(name)) {
+                throw new IllegalArgumentException("Split '" + name + "' names a declared version");
+            }
+            split.shares().keySet().forEach(version -> {
+                if (!versions.contains(version)) {
+                    throw new IllegalArgumentException("Version '" + version + "' of split '" + name
+                            + "' is not declared");
+                }
+            });
+        });
+    }
+
+    /**
+     * The finalizer of MurmurHash3, spreading hash codes differing in a few bits over all bits,
+     * so that keys hashed into a table land apart whatever its size.
+     */
+    public static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The weight table of one split.
+     */
+    public static final class Split {
+
+        private final String name;
+
+        private final String clientKey;
+
+        private final Map<String, Double> shares;
+
+        // Index 0 is the baseline, served as without the split
+        private final String[] versions;
+
+        private final byte[] table = new byte[BUCKETS];
+
+        private final int seed;
+
+        private Split(String name, String clientKey, Map<String, Double> shares) {
+            this.name = name;
+            this.clientKey = clientKey;
+            this.shares = Collections.unmodifiableMap(new LinkedHashMap<>(shares));
+            this.versions = new String[shares.size() + 1];
+            this.seed = name.hashCode();
+            int bucket = 0;
+            int arm = 1;
+            for (Map.Entry<String, Double> share : shares.entrySet()) {
+                if (share.getValue() < 0 || share.getValue().isNaN()) {
+                    throw new IllegalArgumentException("Version '" + share.getKey() + "' of split '" + name
+                            + "' has a negative share");
+                }
+                int end = bucket + (int) Math.round(share.getValue() * BUCKETS / 100);
+                if (end > BUCKETS || arm > Byte.MAX_VALUE) {
+                    throw new IllegalArgumentException("Split '" + name + "' shares more than 100% of its traffic");
+                }
+                versions[arm] = share.getKey();
+                for (; bucket < end; bucket++) {
+                    table[bucket] = (byte) arm;
+                }
+                arm++;
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the share of each version, in percent
+         */
+        public Map<String, Double> shares() {
+            return shares;
+        }
+
+        /**
+         * @return the request header assignments stick to, or {@code null}
+         */
+        String clientKey() {
+            return clientKey;
+        }
+
+        /**
+         * @param key the client key of the request, or {@code null} to assign it at random
+         * @return the version assigned, or {@code null} for the baseline
+         */
+        String assign(String key) {
+            int bucket = key != null
+                    ? Math.floorMod(mix(key.hashCode() ^ seed), BUCKETS)
+                    : ThreadLocalRandom.current().nextInt(BUCKETS);
+            return versions[table[bucket]];
+        }
+    }
+}
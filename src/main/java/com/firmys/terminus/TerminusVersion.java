@@ -0,0 +1,109 @@
+package com.firmys.terminus;
+
+import java.util.Arrays;
+
+/**
+ * TerminusVersion is a parsed numeric version such as {@code 1}, {@code 1.2} or {@code 1.2.5},
+ * ordered component by component.
+ * <p>
+ * Trailing zero components are ignored, so {@code 1}, {@code 1.0} and {@code 1.0.0} are equal.
+ * Versions that are not made of dot separated numbers are not parsed and are only ever
+ * matched by their exact string.
+ */
+final class TerminusVersion implements Comparable<TerminusVersion> {
+
+    static final TerminusVersion ZERO = new TerminusVersion(new int[0]);
+
+    private final int[] components;
+
+    private TerminusVersion(int[] components) {
+        this.components = components;
+    }
+
+    /**
+     * Parses a dotted numeric version.
+     *
+     * @return the parsed version, or {@code null} if the value is not a numeric version
+     */
+    static TerminusVersion parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '.') {
+                count++;
+            } else if (ch < '0' || ch > '9') {
+                return null;
+            }
+        }
+        int[] components = new int[count];
+        int component = 0;
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == '.') {
+                if (i == start || i - start > 9) {
+                    return null;
+                }
+                components[component++] = Integer.parseInt(value, start, i, 10);
+                start = i + 1;
+            }
+        }
+        int length = components.length;
+        while (length > 0 && components[length - 1] == 0) {
+            length--;
+        }
+        return new TerminusVersion(length == components.length ? components : Arrays.copyOf(components, length));
+    }
+
+    int major() {
+        return components.length > 0 ? components[0] : 0;
+    }
+
+    /**
+     * @return the first version of the next major line, the exclusive end of the versions
+     * compatible with this one
+     */
+    TerminusVersion nextMajor() {
+        return new TerminusVersion(new int[]{major() + 1});
+    }
+
+    @Override
+    public int compareTo(TerminusVersion other) {
+        int length = Math.max(components.length, other.components.length);
+        for (int i = 0; i < length; i++) {
+            int comparison = Integer.compare(component(i), other.component(i));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private int component(int index) {
+        return index < components.length ? components[index] : 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TerminusVersion version && Arrays.equals(components, version.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        if (components.length == 0) {
+            return "0";
+        }
+        StringBuilder builder = new StringBuilder().append(components[0]);
+        for (int i = 1; i < components.length; i++) {
+            builder.append('.').append(components[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,236 @@
+package com.firmys.terminus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TerminusVersionIndex resolves a requested version to the declared versions able to serve it,
+ * in order of preference. It is built once at startup from the versions declared by
+ * {@code Terminus} controllers.
+ * <pre>
+ * Declarations:
+ * - `1.2`: an exact numeric version. It also serves later versions of the same major line
+ *   that no other declaration covers, so `1.2.5` and `1.4` fall back to `1.2` when it is the
+ *   highest compatible version.
+ * - `[1.2,2.0)`, `(1.0,1.5]`, `[1.2,)`: a range, serving every version within its bounds.
+ * - anything else, such as `beta`: an opaque version, matched by its exact string only.
+ *
+ * Preference, for a requested version:
+ * 1. declarations covering it, exact versions and ranges, highest lower bound first.
+ * 2. compatible exact versions of the same major line, highest first.
+ * </pre>
+ * The declarations are flattened into disjoint segments of the version line, keyed by their
+ * lower bound in a {@link NavigableMap}. Each segment holds the precomputed candidates, so
+ * resolving a version is one exact lookup or one floor lookup and never a scan over the
+ * declared versions.
+ *
+ * @param <T> the value held for each declared version
+ */
+final class TerminusVersionIndex<T> {
+
+    private static final Pattern RANGE = Pattern.compile("([\\[(])\\s*([^,]*?)\\s*,\\s*([^,]*?)\\s*([\\])])");
+
+    private final Map<String, List<T>> exact;
+    private final NavigableMap<Bound, List<T>> segments;
+
+    private TerminusVersionIndex(Map<String, List<T>> exact, NavigableMap<Bound, List<T>> segments) {
+        this.exact = exact;
+        this.segments = segments;
+    }
+
+    /**
+     * @return {@code true} if the declared version is a range rather than a single version
+     */
+    static boolean isRange(String declaration) {
+        return !declaration.isEmpty()
+                && (declaration.charAt(0) == '[' || declaration.charAt(0) == '(');
+    }
+
+    /**
+     * Builds the index for the given declared versions.
+     *
+     * @throws IllegalArgumentException if a range declaration is malformed or empty
+     */
+    static <T> TerminusVersionIndex<T> build(Map<String, T> declarations) {
+        List<Declaration<T>> parsed = new ArrayList<>();
+        declarations.forEach((declaration, value) -> {
+            Declaration<T> parsedDeclaration = Declaration.parse(declaration, value);
+            if (parsedDeclaration != null) {
+                parsed.add(parsedDeclaration);
+            }
+        });
+
+        TreeSet<Bound> boundaries = new TreeSet<>();
+        boundaries.add(new Bound(TerminusVersion.ZERO, false));
+        for (Declaration<T> declaration : parsed) {
+            boundaries.add(declaration.lower());
+            if (declaration.upper() != null) {
+                boundaries.add(declaration.upper());
+            }
+            if (declaration.compatibleUpper() != null) {
+                boundaries.add(declaration.compatibleUpper());
+            }
+        }
+        NavigableMap<Bound, List<T>> segments = new TreeMap<>();
+        boundaries.forEach(boundary -> segments.put(boundary, candidates(parsed, boundary)));
+
+        Map<String, List<T>> exact = new HashMap<>();
+        declarations.forEach((declaration, value) -> {
+            Declaration<T> parsedDeclaration = Declaration.parse(declaration, value);
+            List<T> candidates = parsedDeclaration != null
+                    ? segments.floorEntry(parsedDeclaration.lower()).getValue()
+                    : List.of();
+            exact.put(declaration, candidates.isEmpty() || candidates.get(0) != value
+                    ? prepend(value, candidates)
+                    : candidates);
+        });
+        return new TerminusVersionIndex<>(Map.copyOf(exact), segments);
+    }
+
+    /**
+     * Returns the declared versions able to serve the requested version, most preferred first,
+     * or an empty list when none can.
+     */
+    List<T> resolve(String version) {
+        if (version == null) {
+            return List.of();
+        }
+        List<T> candidates = exact.get(version);
+        if (candidates != null) {
+            return candidates;
+        }
+        TerminusVersion parsed = TerminusVersion.parse(version);
+        if (parsed == null) {
+            return List.of();
+        }
+        Map.Entry<Bound, List<T>> segment = segments.floorEntry(new Bound(parsed, false));
+        return segment != null ? segment.getValue() : List.of();
+    }
+
+    /**
+     * Derives an index resolving every version to the candidates given by {@code transform} for
+     * the candidates of this index. Each distinct candidate list is transformed once and the
+     * results are shared, so resolving stays a single lookup.
+     */
+    TerminusVersionIndex<T> transform(UnaryOperator<List<T>> transform) {
+        Map<List<T>, List<T>> transformed = new IdentityHashMap<>();
+        Map<String, List<T>> transformedExact = new HashMap<>();
+        exact.forEach((version, candidates) ->
+                transformedExact.put(version, transformed.computeIfAbsent(candidates, transform)));
+        NavigableMap<Bound, List<T>> transformedSegments = new TreeMap<>();
+        segments.forEach((bound, candidates) ->
+                transformedSegments.put(bound, transformed.computeIfAbsent(candidates, transform)));
+        return new TerminusVersionIndex<>(Map.copyOf(transformedExact), transformedSegments);
+    }
+
+    private static <T> List<T> candidates(List<Declaration<T>> declarations, Bound boundary) {
+        List<Declaration<T>> covering = new ArrayList<>();
+        List<Declaration<T>> compatible = new ArrayList<>();
+        for (Declaration<T> declaration : declarations) {
+            if (declaration.covers(boundary)) {
+                covering.add(declaration);
+            } else if (declaration.isCompatibleWith(boundary)) {
+                compatible.add(declaration);
+            }
+        }
+        covering.sort(Comparator.<Declaration<T>, Bound>comparing(Declaration::lower)
+                .thenComparing(Declaration::exact)
+                .reversed());
+        compatible.sort(Comparator.<Declaration<T>, Bound>comparing(Declaration::lower).reversed());
+        Map<T, Boolean> values = new LinkedHashMap<>();
+        covering.forEach(declaration -> values.putIfAbsent(declaration.value(), Boolean.TRUE));
+        compatible.forEach(declaration -> values.putIfAbsent(declaration.value(), Boolean.TRUE));
+        return List.copyOf(values.keySet());
+    }
+
+    private static <T> List<T> prepend(T value, List<T> candidates) {
+        List<T> result = new ArrayList<>(candidates.size() + 1);
+        result.add(value);
+        candidates.stream().filter(candidate -> candidate != value).forEach(result::add);
+        return List.copyOf(result);
+    }
+
+    /*
+     * A position on the version line: either exactly at `version`, or just after it. This lets
+     * inclusive and exclusive range bounds share one ordering.
+     */
+    private record Bound(TerminusVersion version, boolean after) implements Comparable<Bound> {
+
+        @Override
+        public int compareTo(Bound other) {
+            int comparison = version.compareTo(other.version);
+            return comparison != 0 ? comparison : Boolean.compare(after, other.after);
+        }
+    }
+
+    /*
+     * A parsed declaration covering [lower, upper). An unbounded range has no upper bound.
+     * Exact versions additionally serve [upper, compatibleUpper) when nothing else covers it.
+     */
+    private record Declaration<T>(T value, Bound lower, Bound upper, Bound compatibleUpper, boolean exact) {
+
+        static <T> Declaration<T> parse(String declaration, T value) {
+            if (isRange(declaration)) {
+                return parseRange(declaration, value);
+            }
+            TerminusVersion version = TerminusVersion.parse(declaration);
+            if (version == null) {
+                return null;
+            }
+            return new Declaration<>(value,
+                    new Bound(version, false),
+                    new Bound(version, true),
+                    new Bound(version.nextMajor(), false),
+                    true);
+        }
+
+        private static <T> Declaration<T> parseRange(String declaration, T value) {
+            Matcher matcher = RANGE.matcher(declaration);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid version range '" + declaration + "'");
+            }
+            Bound lower = new Bound(TerminusVersion.ZERO, false);
+            if (!matcher.group(2).isEmpty()) {
+                lower = new Bound(version(declaration, matcher.group(2)), matcher.group(1).equals("("));
+            }
+            Bound upper = null;
+            if (!matcher.group(3).isEmpty()) {
+                upper = new Bound(version(declaration, matcher.group(3)), matcher.group(4).equals("]"));
+                if (upper.compareTo(lower) <= 0) {
+                    throw new IllegalArgumentException("Empty version range '" + declaration + "'");
+                }
+            }
+            return new Declaration<>(value, lower, upper, null, false);
+        }
+
+        private static TerminusVersion version(String declaration, String value) {
+            TerminusVersion version = TerminusVersion.parse(value);
+            if (version == null) {
+                throw new IllegalArgumentException(
+                        "Invalid version '" + value + "' in version range '" + declaration + "'");
+            }
+            return version;
+        }
+
+        boolean covers(Bound bound) {
+            return lower.compareTo(bound) <= 0 && (upper == null || bound.compareTo(upper) < 0);
+        }
+
+        boolean isCompatibleWith(Bound bound) {
+            return compatibleUpper != null
+                    && upper.compareTo(bound) <= 0
+                    && bound.compareTo(compatibleUpper) < 0;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.firmys.terminus;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TerminusVersionOverrides changes how requested versions are served at runtime, without
+ * touching the handlers registered for them. Instances are immutable; each change returns a new
+ * instance, applied through {@link TerminusVersionRegistry#updateVersionOverrides}.
+ * <pre>
+ * Overrides:
+ * - `disabled`: declared versions retired from service. Requests resolving to them are answered
+ *   with `410 Gone` by the Terminus filters.
+ * - `aliases`: names that are not declared versions, such as `latest`, resolving to a declared
+ *   version.
+ * - `redirects`: declared versions whose traffic is served by another declared version, such as
+ *   `1.0` served by `1.1`. Requests resolving to the redirected version, compatible ones
+ *   included, are routed to the target instead.
+ * - `fallbacks`: declared versions tried, in order, when no route of a version matches the
+ *   request path, before the unversioned controllers. For example `2.0` falling back to `1.3`
+ *   and `1.2` serves the endpoints `2.0` did not redeclare from the `1.x` controllers.
+ * </pre>
+ * Redirects are a single hop: a redirect target cannot itself be redirected.
+ * <p>
+ * Aliases and fallbacks can also be configured, applied when the handler mappings start:
+ * <pre>
+ * terminus.version.aliases.latest=2.0
+ * terminus.version.aliases.stable=1.3
+ * terminus.version.fallbacks[2.0]=1.3,1.2
+ * </pre>
+ *
+ * @param disabled  declared versions answered with `410 Gone`
+ * @param aliases   alias name to declared version
+ * @param redirects redirected declared version to the declared version serving it
+ * @param fallbacks declared version to the declared versions tried after it, in order
+ */
+public record TerminusVersionOverrides(Set<String> disabled, Map<String, String> aliases,
+                                       Map<String, String> redirects, Map<String, List<String>> fallbacks) {
+
+    public static final String ALIASES_PROPERTY = "terminus.version.aliases";
+
+    public static final String FALLBACKS_PROPERTY = "terminus.version.fallbacks";
+
+    public static final TerminusVersionOverrides NONE =
+            new TerminusVersionOverrides(Set.of(), Map.of(), Map.of(), Map.of());
+
+    public TerminusVersionOverrides {
+        disabled = Set.copyOf(disabled);
+        aliases = Map.copyOf(aliases);
+        redirects = Map.copyOf(redirects);
+        Map<String, List<String>> copied = new HashMap<>();
+        fallbacks.forEach((version, chain) -> copied.put(version, List.copyOf(chain)));
+        fallbacks = Map.copyOf(copied);
+    }
+
+    /**
+     * Reads the aliases and fallbacks configured under {@link #ALIASES_PROPERTY} and
+     * {@link #FALLBACKS_PROPERTY}.
+     */
+    public static TerminusVersionOverrides bind(Environment environment) {
+        Binder binder = Binder.get(environment);
+        return new TerminusVersionOverrides(Set.of(),
+                binder.bind(ALIASES_PROPERTY, Bindable.mapOf(String.class, String.class)).orElse(Map.of()),
+                Map.of(),
+                binder.bind(FALLBACKS_PROPERTY, Bindable.mapOf(String.class, String[].class))
+                        .map(TerminusVersionOverrides::chains)
+                        .orElse(Map.of()));
+    }
+
+    public boolean isEmpty() {
+        return disabled.isEmpty() && aliases.isEmpty() && redirects.isEmpty() && fallbacks.isEmpty();
+    }
+
+    public TerminusVersionOverrides disable(String version) {
+        Set<String> result = new HashSet<>(disabled);
+        result.add(version);
+        return new TerminusVersionOverrides(result, aliases, redirects, fallbacks);
+    }
+
+    public TerminusVersionOverrides enable(String version) {
+        Set<String> result = new HashSet<>(disabled);
+        result.remove(version);
+        return new TerminusVersionOverrides(result, aliases, redirects, fallbacks);
+    }
+
+    public TerminusVersionOverrides alias(String alias, String version) {
+        return new TerminusVersionOverrides(disabled, with(aliases, alias, version), redirects, fallbacks);
+    }
+
+    public TerminusVersionOverrides removeAlias(String alias) {
+        return new TerminusVersionOverrides(disabled, with(aliases, alias, null), redirects, fallbacks);
+    }
+
+    public TerminusVersionOverrides redirect(String version, String target) {
+        return new TerminusVersionOverrides(disabled, aliases, with(redirects, version, target), fallbacks);
+    }
+
+    public TerminusVersionOverrides removeRedirect(String version) {
+        return new TerminusVersionOverrides(disabled, aliases, with(redirects, version, null), fallbacks);
+    }
+
+    public TerminusVersionOverrides fallback(String version, List<String> chain) {
+        return new TerminusVersionOverrides(disabled, aliases, redirects, with(fallbacks, version, chain));
+    }
+
+    public TerminusVersionOverrides removeFallback(String version) {
+        return new TerminusVersionOverrides(disabled, aliases, redirects, with(fallbacks, version, null));
+    }
+
+    /**
+     * Combines these overrides with others, whose entries win for the same version or alias.
+     */
+    public TerminusVersionOverrides merge(TerminusVersionOverrides other) {
+        Set<String> mergedDisabled = new HashSet<>(disabled);
+        mergedDisabled.addAll(other.disabled);
+        Map<String, String> mergedAliases = new HashMap<>(aliases);
+        mergedAliases.putAll(other.aliases);
+        Map<String, String> mergedRedirects = new HashMap<>(redirects);
+        mergedRedirects.putAll(other.redirects);
+        Map<String, List<String>> mergedFallbacks = new HashMap<>(fallbacks);
+        mergedFallbacks.putAll(other.fallbacks);
+        return new TerminusVersionOverrides(mergedDisabled, mergedAliases, mergedRedirects, mergedFallbacks);
+    }
+
+    /**
+     * Checks these overrides against the declared versions.
+     *
+     * @throws IllegalArgumentException if an override names an undeclared version, an alias
+     *                                  shadows a declared version, or redirects are chained
+     */
+    void validate(Set<String> versions) {
+        disabled.forEach(version -> requireDeclared(versions, version, "Disabled"));
+        aliases.forEach((alias, version) -> {
+            if (versions.contains(alias)) {
+                throw new IllegalArgumentException("Alias '" + alias + "' shadows a declared version");
+            }
+            requireDeclared(versions, version, "Alias target");
+        });
+        redirects.forEach((version, target) -> {
+            requireDeclared(versions, version, "Redirected");
+            requireDeclared(versions, target, "Redirect target");
+            if (redirects.containsKey(target)) {
+                throw new IllegalArgumentException("Redirect target '" + target + "' of version '"
+                        + version + "' is redirected itself");
+            }
+        });
+        fallbacks.forEach((version, chain) -> {
+            requireDeclared(versions, version, "Falling back");
+            chain.forEach(target -> requireDeclared(versions, target, "Fallback"));
+            if (chain.contains(version)) {
+                throw new IllegalArgumentException("Version '" + version + "' falls back to itself");
+            }
+        });
+    }
+
+    private static void requireDeclared(Set<String> versions, String version, String role) {
+        if (!versions.contains(version)) {
+            throw new IllegalArgumentException(role + " version '" + version + "' is not declared");
+        }
+    }
+
+    private static Map<String, List<String>> chains(Map<String, String[]> configured) {
+        Map<String, List<String>> result = new HashMap<>();
+        configured.forEach((version, chain) -> result.put(version, List.of(chain)));
+        return result;
+    }
+
+    private static <V> Map<String, V> with(Map<String, V> map, String key, V value) {
+        Map<String, V> result = new HashMap<>(map);
+        if (value != null) {
+            result.put(key, value);
+        } else {
+            result.remove(key);
+        }
+        return result;
+    }
+}
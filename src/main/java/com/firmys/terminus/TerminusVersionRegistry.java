@@ -0,0 +1,70 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * TerminusVersionRegistry exposes the versions served by a Terminus handler mapping and lets
+ * them be retired, aliased, redirected or given a share of split traffic while the application
+ * runs.
+ * <p>
+ * The handler mappings keep their routes in an immutable snapshot. An update builds a new
+ * snapshot carrying the new {@link TerminusVersionOverrides} and publishes it with a single
+ * volatile write, so request threads never lock and always resolve against one consistent
+ * table. Traffic splits are published the same way. Updates themselves are serialized.
+ */
+public interface TerminusVersionRegistry {
+
+    /**
+     * @return all versions declared by {@code Terminus} controllers
+     */
+    Set<String> getVersions();
+
+    /**
+     * @return the overrides currently applied
+     */
+    TerminusVersionOverrides getVersionOverrides();
+
+    /**
+     * Applies a change to the current overrides and publishes the resulting route snapshot.
+     *
+     * @return the overrides now applied
+     * @throws IllegalArgumentException if the resulting overrides name undeclared versions, see
+     *                                  {@link TerminusVersionOverrides}
+     */
+    TerminusVersionOverrides updateVersionOverrides(UnaryOperator<TerminusVersionOverrides> update);
+
+    /**
+     * @return the traffic splits currently applied
+     */
+    TerminusTrafficSplits getTrafficSplits();
+
+    /**
+     * Applies a change to the current traffic splits and publishes the resulting weight tables.
+     *
+     * @return the traffic splits now applied
+     * @throws IllegalArgumentException if the resulting splits name undeclared versions or share
+     *                                  more than all of their traffic, see {@link TerminusTrafficSplits}
+     */
+    TerminusTrafficSplits updateTrafficSplits(UnaryOperator<TerminusTrafficSplits> update);
+
+    /**
+     * @return {@code true} if the declared version is disabled and answered with `410 Gone`
+     */
+    boolean isVersionDisabled(String version);
+
+    /**
+     * @return the versioned routes registered, with their collisions, shadowed routes and the
+     * match statistics recorded so far
+     */
+    TerminusRouteReport getRouteReport();
+
+    /**
+     * @return each deprecated version, with the requests it still served and the clients
+     * calling it most
+     */
+    List<TerminusVersionDeprecation.Report> getDeprecationReport();
+}
@@ -22,6 +22,12 @@ import java.lang.annotation.Target;
  * Features:
  *   - `versions`: Defines the API versions supported by the annotated controller. Controllers
  *     can specify one or more versions.
+ *     - Numeric versions such as `1.2` also serve later versions of the same major line, e.g.
+ *       `1.4`, unless another declared version covers them.
+ *     - Ranges such as `[1.2,2.0)`, `(1.0,1.5]` or `[2.0,)` serve every version within bounds.
+ *     - Any other value is matched by its exact string only.
+ *   - `deprecated`: Declared versions announced as deprecated, with their sunset, see
+ *     {@link TerminusDeprecated}.
  *   - `value`: An alias for `@RestController` that can be used to define a specific name for
  *     the controller bean.
  *
@@ -46,6 +52,8 @@ public @interface Terminus {
 
     String[] versions() default {};
 
+    TerminusDeprecated[] deprecated() default {};
+
     @AliasFor(annotation = RestController.class)
     String value() default "";
 }
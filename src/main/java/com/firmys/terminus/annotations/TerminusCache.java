@@ -0,0 +1,35 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusCache declares the HTTP caching policy of a {@link TerminusMapping} handler method.
+ * <p>
+ * The response of a cacheable handler is treated as fixed for a given version and deployment,
+ * which lets conditional requests be answered without invoking the handler at all.
+ * <pre>
+ * Supported properties:
+ * - `maxAge`: `max-age` of the `Cache-Control` header in seconds. Negative values omit it.
+ * - `cachePrivate`: marks the response `private` instead of `public`.
+ * - `etag`: emits a version-scoped weak `ETag`. Matching `If-None-Match` requests are answered
+ *   with `304 Not Modified` before the handler method is invoked.
+ *
+ * Behavior:
+ * - Only applies to GET and HEAD requests.
+ * - The ETag combines the resolved version with `terminus.cache.etag-seed`, which defaults to
+ *   the start time of the application, so a new deployment invalidates cached responses.
+ * </pre>
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TerminusCache {
+
+    long maxAge() default -1;
+
+    boolean cachePrivate() default false;
+
+    boolean etag() default true;
+}
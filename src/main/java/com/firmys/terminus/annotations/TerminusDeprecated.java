@@ -0,0 +1,38 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusDeprecated marks a version declared by a {@link Terminus} controller as deprecated,
+ * listed under {@link Terminus#deprecated()}.
+ * <pre>
+ * Supported properties:
+ * - `version`: the declared version deprecated.
+ * - `since`: when the version was deprecated, as an ISO date such as `2025-06-01`, taken at
+ *   midnight UTC, or an ISO instant such as `2025-06-01T12:00:00Z`.
+ * - `sunset`: when the version is expected to stop being served, in the same formats, if known.
+ * - `link`: a page describing the deprecation and how to migrate, if any.
+ *
+ * Behavior:
+ * - Responses to requests resolved to the version carry a `Deprecation` header, and `Sunset`
+ *   and `Link` headers when a sunset or link is given, formatted once at startup.
+ * - The clients still calling the version are sampled into a bounded sketch, by the header
+ *   configured under `terminus.deprecation.client-key`, `User-Agent` by default.
+ * - A deprecation applies to the version as a whole, across every controller declaring it.
+ *   Passing the sunset changes nothing by itself; the version is retired by disabling it.
+ * </pre>
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TerminusDeprecated {
+
+    String version();
+
+    String since();
+
+    String sunset() default "";
+
+    String link() default "";
+}
@@ -0,0 +1,50 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusDowngrade serves an older version from the handler methods of a newer {@link Terminus}
+ * controller, reshaping their JSON responses to what clients of that version expect, instead of
+ * keeping a full controller for it.
+ * <pre>
+ * Supported properties:
+ * - `version`: the older version served. It must not be one the controller declares.
+ * - `remove`: fields left out of the response, as dotted paths such as `address.zip`. Arrays
+ *   are transparent, so `items.sku` names the `sku` field of every element of `items`.
+ * - `rename`: fields renamed, as `path=name`, such as `fullName=name` or `items.sku=code`.
+ *
+ * Behavior:
+ * - The handler method runs once, as for its own versions; only the response is rewritten.
+ * - Responses are rewritten token by token while they are written, never materialized as a
+ *   tree, and only when their content type is JSON.
+ * - Declared on a controller, a downgrade applies to each of its `TerminusMapping` methods;
+ *   declared on a method, it replaces one for the same version on the controller.
+ * - Downgraded versions are routed through the Terminus route table only, from any version
+ *   source including the path prefix, and get no prefixed mapping of their own.
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(TerminusDowngrade.List.class)
+public @interface TerminusDowngrade {
+
+    String version();
+
+    String[] remove() default {};
+
+    String[] rename() default {};
+
+    /**
+     * Holds the downgrades declared on one element.
+     */
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+
+        TerminusDowngrade[] value();
+    }
+}
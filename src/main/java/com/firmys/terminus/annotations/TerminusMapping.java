@@ -1,5 +1,8 @@
 package com.firmys.terminus.annotations;
 
+import com.firmys.terminus.aot.TerminusMappingReflectiveProcessor;
+
+import org.springframework.aot.hint.annotation.Reflective;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -10,8 +13,8 @@ import java.lang.annotation.Target;
 
 /**
  * TerminusMapping is a custom annotation used to define request mapping metadata
- * for versioned API endpoints. It extends Spring's {@link RequestMapping} functionality
- * and supports dynamic placeholder resolution for its path definitions.
+ * for versioned API endpoints. It mirrors Spring's {@link RequestMapping} attributes and
+ * supports placeholder resolution for its path definitions.
  * <p>
  * This annotation is primarily designed for use in conjunction with {@link Terminus},
  * enabling endpoints to be associated with specific API versions.
@@ -27,20 +30,28 @@ import java.lang.annotation.Target;
  * - `headers`: Allows specifying required HTTP headers for the mapping.
  * - `consumes`: Specifies acceptable media types for request bodies. Useful for Content-Type negotiation.
  * - `produces`: Specifies media types for response bodies. Useful for Accept header negotiation.
+ * - `singleFlight`: Coalesces concurrent identical GET requests, those resolving to the same
+ * version, path and query, into a single invocation whose body they all receive. Off by default;
+ * the handler method must return a single body, directly or as a `Mono`.
  *
  * Target and retention policy:
  * - Target: Method-level annotation. Can only be applied to individual handler methods.
  * - Retention: Available at runtime for dynamic request mapping processing.
  *
  * Integration:
- * - Alongside {@link Terminus}, this annotation's properties are dynamically resolved and processed
- * with placeholders like `${terminus.placeholder}` being replaced at runtime. This allows for
- * flexible endpoint definitions based on configuration or runtime contexts.
+ * - Alongside {@link Terminus}, the Terminus handler mappings build the versioned mappings
+ * for this annotation directly while handler methods are detected. It is deliberately not
+ * meta-annotated with `@RequestMapping`, so no default mapping is registered for it.
+ * - Paths may contain placeholders such as `${api.base}`, resolved against the environment.
+ *
+ * Native images:
+ * - Like `@RequestMapping`, annotated methods are registered for reflection during AOT
+ * processing, together with the types bound from their parameters and return values.
  * </pre>
  */
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
-@RequestMapping("${terminus.placeholder}")
+@Reflective(TerminusMappingReflectiveProcessor.class)
 public @interface TerminusMapping {
 
     String[] value() default {};
@@ -56,4 +67,6 @@ public @interface TerminusMapping {
     String[] consumes() default {};
 
     String[] produces() default {};
+
+    boolean singleFlight() default false;
 }
@@ -0,0 +1,39 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusMemoize keeps the responses of an idempotent {@link TerminusMapping} handler method in
+ * an in-process cache, so repeated GET requests are answered without invoking it.
+ * <p>
+ * Meant for versions serving near-static data, which old clients keep requesting long after
+ * they stopped changing.
+ * <pre>
+ * Supported properties:
+ * - `ttl`: seconds a response is served from the cache, 60 by default.
+ * - `maxEntries`: responses kept at most, 1000 by default. Beyond that, rarely requested
+ *   responses are evicted first.
+ * - `params`: query parameters the response depends on. Responses are keyed by version, path
+ *   and the values of these parameters; any other parameter is ignored.
+ *
+ * Behavior:
+ * - Only GET requests answered with `200 OK` are cached.
+ * - The returned body is cached, before it is written. Cached bodies are written again for each
+ *   request, through the content negotiation of the handler method.
+ * - Handler methods must return the body itself or, in WebFlux, a `Mono` of it. Methods
+ *   returning `ResponseEntity`, `Flux` or nothing are rejected at startup.
+ * </pre>
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TerminusMemoize {
+
+    long ttl() default 60;
+
+    int maxEntries() default 1000;
+
+    String[] params() default {};
+}
@@ -0,0 +1,39 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusRateLimit bounds the traffic admitted for versions declared by a {@link Terminus}
+ * controller, so a surge on one version cannot compete with the traffic of the others.
+ * <pre>
+ * Supported properties:
+ * - `versions`: declared versions of the controller to limit, all of them by default.
+ * - `permitsPerSecond`: sustained request rate of each version. Zero or less means unlimited.
+ * - `burst`: requests admitted at once on top of the sustained rate, one second worth of
+ *   `permitsPerSecond` by default.
+ * - `maxConcurrency`: requests of each version in progress at once. Zero or less means unlimited.
+ *
+ * Behavior:
+ * - Limits are enforced by the Terminus filters as soon as the version of a request is resolved,
+ *   before any handler lookup.
+ * - Requests over the rate are rejected with `429 Too Many Requests`, requests over the
+ *   concurrency limit with `503 Service Unavailable`. Both carry a `Retry-After` header.
+ * - A limit applies to the version as a whole, across every controller declaring it.
+ *   Limits configured under `terminus.limits.versions` take precedence.
+ * </pre>
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TerminusRateLimit {
+
+    String[] versions() default {};
+
+    double permitsPerSecond() default 0;
+
+    int burst() default 0;
+
+    int maxConcurrency() default 0;
+}
@@ -0,0 +1,35 @@
+package com.firmys.terminus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TerminusVirtualThreads runs the handler methods of a {@link Terminus} controller on virtual
+ * threads, isolating each of its versions behind its own concurrency limit.
+ * <p>
+ * Meant for Spring MVC controllers of legacy versions doing blocking I/O, which would otherwise
+ * hold servlet container threads for as long as they block.
+ * <pre>
+ * Supported properties:
+ * - `versions`: declared versions of the controller dispatched on virtual threads. All of them
+ *   by default, including requests reaching the controller without a version.
+ * - `maxConcurrency`: requests of one version running at once, 100 by default. Further requests
+ *   of that version are rejected with `503 Service Unavailable` rather than queued, so a slow
+ *   version cannot take capacity from the others.
+ *
+ * Behavior:
+ * - Arguments are resolved on the container thread; only the handler method runs on a virtual
+ *   thread, as Spring MVC async processing. The response is written on the async dispatch.
+ * - Spring MVC only. WebFlux handlers do not block container threads to begin with.
+ * </pre>
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TerminusVirtualThreads {
+
+    String[] versions() default {};
+
+    int maxConcurrency() default 100;
+}
@@ -0,0 +1,56 @@
+package com.firmys.terminus.aot;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.annotation.ReflectiveProcessor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * Registers reflection hints for handler methods declared with {@code TerminusMapping}, the
+ * equivalent of what Spring registers for {@code @RequestMapping} methods.
+ * <pre>
+ * For each annotated method:
+ * - the method itself is registered for invocation.
+ * - `@RequestBody` and `@ModelAttribute` parameters have their types registered for binding.
+ * - the return type is registered for binding, as Terminus controllers are REST controllers.
+ * - `HttpEntity` parameters and return values have their body type registered for binding.
+ * </pre>
+ */
+public class TerminusMappingReflectiveProcessor implements ReflectiveProcessor {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerReflectionHints(ReflectionHints hints, AnnotatedElement element) {
+        if (element instanceof Method method) {
+            hints.registerMethod(method, ExecutableMode.INVOKE);
+            for (int i = 0; i < method.getParameterCount(); i++) {
+                registerParameterHints(hints, MethodParameter.forExecutable(method, i));
+            }
+            registerBindingHints(hints, MethodParameter.forExecutable(method, -1));
+        }
+    }
+
+    private void registerParameterHints(ReflectionHints hints, MethodParameter parameter) {
+        if (parameter.hasParameterAnnotation(RequestBody.class)
+                || parameter.hasParameterAnnotation(ModelAttribute.class)
+                || HttpEntity.class.isAssignableFrom(parameter.getParameterType())) {
+            registerBindingHints(hints, parameter);
+        }
+    }
+
+    private void registerBindingHints(ReflectionHints hints, MethodParameter parameter) {
+        Type type = HttpEntity.class.isAssignableFrom(parameter.getParameterType())
+                ? parameter.nested().getNestedGenericParameterType()
+                : parameter.getGenericParameterType();
+        bindingRegistrar.registerReflectionHints(hints, type);
+    }
+}
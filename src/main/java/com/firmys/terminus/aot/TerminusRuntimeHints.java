@@ -0,0 +1,61 @@
+package com.firmys.terminus.aot;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+import com.firmys.terminus.annotations.TerminusMemoize;
+import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusRateLimit;
+import com.firmys.terminus.annotations.TerminusVirtualThreads;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Registers the runtime hints a native image needs to read Terminus annotations.
+ * <pre>
+ * The Terminus handler mappings resolve {@link Terminus}, {@link TerminusMapping},
+ * {@link TerminusCache}, {@link TerminusMemoize}, {@link TerminusVirtualThreads} and
+ * {@link TerminusRateLimit} as merged annotations while detecting handler methods:
+ * - all annotation types need their attribute methods available reflectively.
+ * - {@link Terminus} declares an `@AliasFor` attribute, so it is synthesized as a JDK proxy.
+ *
+ * The stand-in handlers answering `304 Not Modified` and writing memoized bodies are invoked
+ * reflectively as well.
+ *
+ * Handler methods themselves are covered by {@link TerminusMappingReflectiveProcessor},
+ * declared through `@Reflective` on {@link TerminusMapping}.
+ * </pre>
+ */
+public class TerminusRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] STAND_IN_HANDLERS = {
+            "com.firmys.terminus.TerminusMvcHandlerMapping$MemoizedHandler",
+            "com.firmys.terminus.TerminusReactiveHandlerMapping$NotModifiedHandler",
+            "com.firmys.terminus.TerminusReactiveHandlerMapping$MemoizedHandler"};
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(Terminus.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusDeprecated.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusMapping.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusCache.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusMemoize.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusVirtualThreads.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(TerminusRateLimit.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        for (String handler : STAND_IN_HANDLERS) {
+            hints.reflection().registerType(TypeReference.of(handler), MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.proxies()
+                .registerJdkProxy(Terminus.class)
+                .registerJdkProxy(TerminusDeprecated.class)
+                .registerJdkProxy(TerminusMapping.class)
+                .registerJdkProxy(TerminusCache.class)
+                .registerJdkProxy(TerminusMemoize.class)
+                .registerJdkProxy(TerminusVirtualThreads.class)
+                .registerJdkProxy(TerminusRateLimit.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.firmys.terminus.cache;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the {@link TerminusCachePolicy} of the resolved handler method before it is invoked.
+ * <p>
+ * GET and HEAD requests to cacheable handlers receive the `Cache-Control` and `ETag` headers of
+ * the policy. A request whose `If-None-Match` matches the ETag is answered with
+ * `304 Not Modified` here, and the handler method is never invoked.
+ * <p>
+ * {@link TerminusMvcHandlerMapping} registers this interceptor for its own handlers.
+ */
+public class TerminusCacheInterceptor implements HandlerInterceptor {
+
+    private final TerminusMvcHandlerMapping handlerMapping;
+
+    public TerminusCacheInterceptor(TerminusMvcHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    /*
+     * The policy is looked up for the matched handler method rather than the resolved handler,
+     * which is a stand-in when a memoized response is served.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        TerminusCachePolicy policy = handlerMapping.getCachePolicy(handlerMethod.getMethod());
+        if (policy == null || !isCacheableMethod(request.getMethod())) {
+            return true;
+        }
+        if (policy.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, policy.cacheControl());
+        }
+        String etag = policy.etag(handlerMapping.resolveRequestVersion(request).version());
+        return etag == null || !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    private static boolean isCacheableMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+}
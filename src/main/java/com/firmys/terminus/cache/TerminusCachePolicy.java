@@ -0,0 +1,66 @@
+package com.firmys.terminus.cache;
+
+import com.firmys.terminus.annotations.TerminusCache;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TerminusCachePolicy is the resolved {@link TerminusCache} policy of one handler method,
+ * created once at startup by the Terminus handler mappings.
+ * <p>
+ * The `Cache-Control` value is rendered up front and ETags are computed once per version, so
+ * applying the policy to a request creates no strings.
+ */
+public final class TerminusCachePolicy {
+
+    private final String cacheControl;
+    private final boolean etag;
+    private final String seed;
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    private TerminusCachePolicy(String cacheControl, boolean etag, String seed) {
+        this.cacheControl = cacheControl;
+        this.etag = etag;
+        this.seed = seed;
+    }
+
+    /**
+     * @param cache the declared policy
+     * @param seed  distinguishes deployments, so their ETags never match each other
+     */
+    public static TerminusCachePolicy of(TerminusCache cache, String seed) {
+        CacheControl cacheControl = cache.maxAge() >= 0
+                ? CacheControl.maxAge(Duration.ofSeconds(cache.maxAge()))
+                : CacheControl.empty();
+        cacheControl = cache.cachePrivate() ? cacheControl.cachePrivate() : cacheControl.cachePublic();
+        return new TerminusCachePolicy(cacheControl.getHeaderValue(), cache.etag(), seed);
+    }
+
+    /**
+     * @return the `Cache-Control` header value, or {@code null} if none applies
+     */
+    public String cacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * @param version the resolved version of the request, {@code null} for an unversioned request
+     * @return the weak ETag of responses for the version, or {@code null} when ETags are disabled
+     */
+    public String etag(String version) {
+        if (!etag) {
+            return null;
+        }
+        String key = version != null ? version : "";
+        String value = etags.get(key);
+        if (value == null) {
+            value = "W/\"" + key.replace('"', '_') + "-" + seed + "\"";
+            etags.putIfAbsent(key, value);
+        }
+        return value;
+    }
+}
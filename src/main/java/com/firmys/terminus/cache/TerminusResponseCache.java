@@ -0,0 +1,214 @@
+package com.firmys.terminus.cache;
+
+import com.firmys.terminus.annotations.TerminusMemoize;
+import com.firmys.terminus.resolvers.TerminusRequestAccessor;
+
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusResponseCache holds the memoized responses of one handler method annotated with
+ * {@link TerminusMemoize}. It is created once at startup by the Terminus handler mappings.
+ * <pre>
+ * Structure:
+ * - responses are held in a `ConcurrentHashMap` keyed by version, path and the selected query
+ *   parameters, so lookups never lock.
+ * - every entry carries its expiry and a reference count, bumped on each hit up to a cap.
+ *
+ * Eviction, once `maxEntries` is exceeded, follows the generalized clock algorithm (GCLOCK):
+ * - a clock hand sweeps the entries, carried over from one eviction to the next.
+ * - an entry that is expired or has a count of zero is evicted.
+ * - any other entry has its count decremented as the hand passes it, so entries popular in the
+ *   past age out once they stop being requested.
+ * </pre>
+ * Like W-TinyLFU, this keeps frequently requested responses over a burst of one-off requests,
+ * without a dependency beyond the JDK. Expired entries are also dropped when they are next
+ * looked up.
+ */
+public final class TerminusResponseCache {
+
+    /**
+     * Request attribute holding the key under which the response of a cache miss is stored.
+     */
+    public static final String KEY_ATTRIBUTE = TerminusResponseCache.class.getName() + ".key";
+
+    /**
+     * Request attribute holding the cached body of a cache hit, written in place of invoking the
+     * handler method.
+     */
+    public static final String BODY_ATTRIBUTE = TerminusResponseCache.class.getName() + ".body";
+
+    private static final int MAX_REFERENCES = 15;
+
+    private final String endpoint;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final String[] params;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Iterator<Map.Entry<String, Entry>> hand;
+
+    TerminusResponseCache(String endpoint, long ttlNanos, int maxEntries, String[] params) {
+        this.endpoint = endpoint;
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.params = params;
+    }
+
+    /**
+     * @param memoize     the declared cache
+     * @param handlerType the controller type declaring the handler method
+     * @param method      the handler method
+     * @throws IllegalStateException if the bounds are not positive, or the method returns no
+     *                               single body
+     */
+    public static TerminusResponseCache of(TerminusMemoize memoize, Class<?> handlerType, Method method) {
+        String endpoint = handlerType.getSimpleName() + "#" + method.getName();
+        if (memoize.ttl() <= 0 || memoize.maxEntries() <= 0) {
+            throw new IllegalStateException(
+                    "TerminusMemoize on " + endpoint + " needs a positive ttl and maxEntries");
+        }
+        if (!returnsSingleBody(method)) {
+            throw new IllegalStateException("TerminusMemoize on " + endpoint
+                    + " needs a handler method returning a body or a Mono of it, not " + method.getGenericReturnType());
+        }
+        return new TerminusResponseCache(endpoint,
+                TimeUnit.SECONDS.toNanos(memoize.ttl()), memoize.maxEntries(), memoize.params().clone());
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Builds the key of a request from its resolved version, its path and the values of the
+     * selected query parameters.
+     */
+    public <R> String key(String version, R request, TerminusRequestAccessor<R> accessor) {
+        StringBuilder key = new StringBuilder(64)
+                .append(version != null ? version : "")
+                .append(' ')
+                .append(accessor.path(request));
+        for (String param : params) {
+            String value = accessor.queryParameter(request, param);
+            key.append('\n').append(param);
+            if (value != null) {
+                key.append('=').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the cached body, or {@code null} when none is cached or it has expired
+     */
+    public Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        if (entry.references < MAX_REFERENCES) {
+            entry.references++;
+        }
+        hits.increment();
+        return entry.body;
+    }
+
+    /**
+     * Caches a body, evicting other entries if the cache grows beyond its bounds.
+     */
+    public void put(String key, Object body) {
+        entries.put(key, new Entry(body, System.nanoTime() + ttlNanos));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * @return the current statistics of this cache
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private synchronized void evict() {
+        long now = System.nanoTime();
+        while (entries.size() > maxEntries) {
+            if (hand == null || !hand.hasNext()) {
+                hand = entries.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    return;
+                }
+            }
+            Map.Entry<String, Entry> candidate = hand.next();
+            Entry entry = candidate.getValue();
+            if (entry.references > 0 && !entry.isExpired(now)) {
+                entry.references--;
+            } else if (entries.remove(candidate.getKey(), entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if a handler method returns a single body that can be held and written
+     * again, directly or as a {@code Mono}, rather than an {@link HttpEntity}, a stream or nothing
+     */
+    public static boolean returnsSingleBody(Method method) {
+        ResolvableType type = ResolvableType.forMethodReturnType(method);
+        ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(type.resolve());
+        if (adapter != null) {
+            if (adapter.isMultiValue() || adapter.isNoValue()) {
+                return false;
+            }
+            type = type.getGeneric();
+        }
+        Class<?> body = type.resolve(Object.class);
+        return body != void.class && body != Void.class && !HttpEntity.class.isAssignableFrom(body);
+    }
+
+    /**
+     * Statistics of one cache, as counted since startup.
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    /*
+     * Reference counts are updated without synchronization. A lost update only makes eviction a
+     * little less accurate, which is cheaper than contending on every hit.
+     */
+    private static final class Entry {
+
+        private final Object body;
+        private final long expiresAt;
+        private int references;
+
+        private Entry(Object body, long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.firmys.terminus.cache;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Stores the bodies returned by handler methods annotated with {@code TerminusMemoize} in their
+ * {@link TerminusResponseCache}, right before they are written, and shares the bodies of
+ * requests leading a {@link TerminusSingleFlight} call with the requests waiting for them.
+ * <p>
+ * Only requests that missed the cache carry a key, see
+ * {@link TerminusMvcHandlerMapping#getResponseCache}, and only `200 OK` responses are stored
+ * or shared. Bodies are taken ahead of any response transform, so they are stored as the
+ * handler method returned them.
+ */
+@ControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnClass(WebMvcConfigurer.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TerminusResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    private final TerminusMvcHandlerMapping handlerMapping;
+
+    public TerminusResponseCacheAdvice(TerminusMvcHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getMethod() != null
+                && (handlerMapping.getResponseCache(returnType.getMethod()) != null
+                || handlerMapping.getSingleFlight(returnType.getMethod()) != null);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)
+                || servletResponse.getServletResponse().getStatus() != HttpStatus.OK.value()) {
+            return body;
+        }
+        if (servletRequest.getServletRequest().getAttribute(TerminusResponseCache.KEY_ATTRIBUTE) instanceof String key) {
+            handlerMapping.getResponseCache(returnType.getMethod()).put(key, body);
+        }
+        if (servletRequest.getServletRequest().getAttribute(TerminusSingleFlight.CALL_ATTRIBUTE)
+                instanceof TerminusSingleFlight.Call call) {
+            call.share(body);
+        }
+        return body;
+    }
+}
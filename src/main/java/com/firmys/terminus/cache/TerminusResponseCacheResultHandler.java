@@ -0,0 +1,90 @@
+package com.firmys.terminus.cache;
+
+import com.firmys.terminus.TerminusReactiveHandlerMapping;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.HandlerResultHandler;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ResponseBodyResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores the bodies returned by handler methods annotated with {@code TerminusMemoize} in their
+ * {@link TerminusResponseCache} and shares those of requests leading a {@link TerminusSingleFlight}
+ * call, the WebFlux counterpart of {@link TerminusResponseCacheAdvice}.
+ * <p>
+ * WebFlux offers no advice on response bodies, so this handler takes the results of memoized
+ * handler methods ahead of {@link ResponseBodyResultHandler}, taps the body as it is emitted and
+ * hands the result on to it.
+ */
+@Component
+@ConditionalOnClass(WebFluxConfigurer.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TerminusResponseCacheResultHandler implements HandlerResultHandler, Ordered {
+
+    private final TerminusReactiveHandlerMapping handlerMapping;
+
+    private final ResponseBodyResultHandler responseBodyResultHandler;
+
+    public TerminusResponseCacheResultHandler(TerminusReactiveHandlerMapping handlerMapping,
+                                              ResponseBodyResultHandler responseBodyResultHandler) {
+        this.handlerMapping = handlerMapping;
+        this.responseBodyResultHandler = responseBodyResultHandler;
+    }
+
+    @Override
+    public int getOrder() {
+        return responseBodyResultHandler.getOrder() - 1;
+    }
+
+    @Override
+    public boolean supports(HandlerResult result) {
+        return result.getHandler() instanceof HandlerMethod handlerMethod
+                && (handlerMapping.getResponseCache(handlerMethod.getMethod()) != null
+                || handlerMapping.getSingleFlight(handlerMethod.getMethod()) != null);
+    }
+
+    @Override
+    public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+        String key = exchange.getAttribute(TerminusResponseCache.KEY_ATTRIBUTE);
+        TerminusSingleFlight.Call call = exchange.getAttribute(TerminusSingleFlight.CALL_ATTRIBUTE);
+        if (key == null && call == null) {
+            return responseBodyResultHandler.handleResult(exchange, result);
+        }
+        TerminusResponseCache cache = key != null
+                ? handlerMapping.getResponseCache(((HandlerMethod) result.getHandler()).getMethod())
+                : null;
+        Object returnValue = result.getReturnValue();
+        if (returnValue instanceof Mono<?> mono) {
+            returnValue = mono.doOnNext(body -> store(cache, key, call, body, exchange));
+        } else if (returnValue != null) {
+            store(cache, key, call, returnValue, exchange);
+        }
+        return responseBodyResultHandler.handleResult(exchange, new HandlerResult(
+                result.getHandler(), returnValue, result.getReturnTypeSource(), result.getBindingContext()));
+    }
+
+    private static void store(TerminusResponseCache cache, String key, TerminusSingleFlight.Call call,
+                              Object body, ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && !status.isSameCodeAs(HttpStatus.OK)) {
+            return;
+        }
+        if (cache != null) {
+            cache.put(key, body);
+        }
+        if (call != null) {
+            call.share(body);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.firmys.terminus.deprecation;
+
+import com.firmys.terminus.TerminusTrafficSplits;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TerminusClientSketch estimates how often each client called a deprecated version, and keeps
+ * the clients calling it most, in memory bounded whatever the number of clients.
+ * <pre>
+ * - a count-min sketch of {@value #DEPTH} rows of {@value #WIDTH} counters, about 32 KB, each
+ *   row indexed by its own hash of the client. A client's estimate is its lowest counter, never
+ *   below its actual count and above it only by the collisions of its least crowded row.
+ * - the {@value #TOP} clients with the highest estimates, held with their estimate. A client
+ *   only takes a place by outgrowing the lowest estimate held, so the lock guarding them is
+ *   rarely taken once they are filled.
+ * </pre>
+ * Client identifiers longer than {@value #MAX_CLIENT_LENGTH} characters are truncated.
+ */
+final class TerminusClientSketch {
+
+    static final int DEPTH = 4;
+
+    static final int WIDTH = 1024;
+
+    static final int TOP = 16;
+
+    static final int MAX_CLIENT_LENGTH = 128;
+
+    private static final int[] SEEDS = {0x9e3779b9, 0x85ebca6b, 0xc2b2ae35, 0x27d4eb2f};
+
+    private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+
+    // Guarded by this
+    private final String[] topClients = new String[TOP];
+
+    private final long[] topEstimates = new long[TOP];
+
+    private int topSize;
+
+    // Zero until the top clients are filled, then the lowest estimate held
+    private volatile long topMinimum;
+
+    void add(String client) {
+        if (client.length() > MAX_CLIENT_LENGTH) {
+            client = client.substring(0, MAX_CLIENT_LENGTH);
+        }
+        int hash = client.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+        }
+        if (estimate > topMinimum) {
+            offer(client, estimate);
+        }
+    }
+
+    long estimate(String client) {
+        if (client.length() > MAX_CLIENT_LENGTH) {
+            client = client.substring(0, MAX_CLIENT_LENGTH);
+        }
+        int hash = client.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the clients calling most, with their estimated count, highest first
+     */
+    synchronized List<Client> top() {
+        List<Client> clients = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            clients.add(new Client(topClients[i], topEstimates[i]));
+        }
+        clients.sort(Comparator.comparingLong(Client::count).reversed().thenComparing(Client::client));
+        return clients;
+    }
+
+    private synchronized void offer(String client, long estimate) {
+        int lowest = 0;
+        for (int i = 0; i < topSize; i++) {
+            if (topClients[i].equals(client)) {
+                topEstimates[i] = Math.max(topEstimates[i], estimate);
+                updateMinimum();
+                return;
+            }
+            if (topEstimates[i] < topEstimates[lowest]) {
+                lowest = i;
+            }
+        }
+        if (topSize < TOP) {
+            topClients[topSize] = client;
+            topEstimates[topSize++] = estimate;
+        } else if (estimate > topEstimates[lowest]) {
+            topClients[lowest] = client;
+            topEstimates[lowest] = estimate;
+        }
+        updateMinimum();
+    }
+
+    private void updateMinimum() {
+        if (topSize < TOP) {
+            return;
+        }
+        long minimum = Long.MAX_VALUE;
+        for (long topEstimate : topEstimates) {
+            minimum = Math.min(minimum, topEstimate);
+        }
+        topMinimum = minimum;
+    }
+
+    private static int index(int row, int hash) {
+        return row * WIDTH + (TerminusTrafficSplits.mix(hash ^ SEEDS[row]) & (WIDTH - 1));
+    }
+
+    /**
+     * @param count the estimated number of samples of the client
+     */
+    record Client(String client, long count) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.firmys.terminus.deprecation;
+
+import com.firmys.terminus.annotations.TerminusDeprecated;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusVersionDeprecation announces that a declared version is deprecated, and tracks the
+ * clients still calling it.
+ * <pre>
+ * - the `Deprecation` header, as `@` followed by the epoch seconds of `since` (RFC 9745), the
+ *   `Sunset` header, as an HTTP date (RFC 8594), and the `Link` header, with the relation
+ *   `deprecation`, are formatted once, when the deprecation is declared.
+ * - every request is counted, a single `LongAdder` increment. One request in
+ *   {@value #SAMPLE_RATE} has its client added to a {@link TerminusClientSketch}, so estimated
+ *   calls are the sampled ones scaled back by the same factor.
+ * </pre>
+ */
+public final class TerminusVersionDeprecation {
+
+    public static final String DEPRECATION_HEADER = "Deprecation";
+
+    public static final String SUNSET_HEADER = "Sunset";
+
+    public static final String LINK_HEADER = "Link";
+
+    static final int SAMPLE_RATE = 16;
+
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final String version;
+
+    private final Instant since;
+
+    private final Instant sunset;
+
+    private final String link;
+
+    private final String deprecationHeader;
+
+    private final String sunsetHeader;
+
+    private final String linkHeader;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final TerminusClientSketch clients = new TerminusClientSketch();
+
+    /**
+     * @param sunset when the version stops being served, or {@code null} if not known
+     * @param link   a page describing the deprecation, or {@code null}
+     */
+    public TerminusVersionDeprecation(String version, Instant since, Instant sunset, String link) {
+        this.version = version;
+        this.since = since;
+        this.sunset = sunset;
+        this.link = link;
+        this.deprecationHeader = "@" + since.getEpochSecond();
+        this.sunsetHeader = sunset != null ? HTTP_DATE.format(sunset) : null;
+        this.linkHeader = link != null ? "<" + link + ">; rel=\"deprecation\"; type=\"text/html\"" : null;
+    }
+
+    /**
+     * @throws IllegalStateException if `since` or `sunset` is not an ISO date or instant
+     */
+    static TerminusVersionDeprecation of(TerminusDeprecated deprecated, String version) {
+        return new TerminusVersionDeprecation(version, instant(deprecated.since(), "since"),
+                deprecated.sunset().isBlank() ? null : instant(deprecated.sunset(), "sunset"),
+                deprecated.link().isBlank() ? null : deprecated.link());
+    }
+
+    private static Instant instant(String value, String property) {
+        try {
+            return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    : Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalStateException("TerminusDeprecated " + property + " '" + value
+                    + "' is neither an ISO date nor an ISO instant", ex);
+        }
+    }
+
+    /**
+     * @return {@code true} if the client of the request about to be counted should be sampled
+     */
+    public static boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    public void requested() {
+        requests.increment();
+    }
+
+    /**
+     * Adds the client of a sampled request to the sketch.
+     *
+     * @param client the client identifier, or {@code null} if the request carries none
+     */
+    public void sampled(String client) {
+        if (client != null && !client.isBlank()) {
+            clients.add(client);
+        }
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * @return the value of the `Deprecation` header
+     */
+    public String deprecationHeader() {
+        return deprecationHeader;
+    }
+
+    /**
+     * @return the value of the `Sunset` header, or {@code null} if no sunset is known
+     */
+    public String sunsetHeader() {
+        return sunsetHeader;
+    }
+
+    /**
+     * @return the value of the `Link` header, or {@code null} if no link is given
+     */
+    public String linkHeader() {
+        return linkHeader;
+    }
+
+    /**
+     * @return {@code true} if both announce the same dates and link, whatever they counted
+     */
+    boolean announcesSame(TerminusVersionDeprecation other) {
+        return since.equals(other.since) && Objects.equals(sunset, other.sunset) && Objects.equals(link, other.link);
+    }
+
+    /**
+     * @return the requests counted so far and the clients calling most
+     */
+    public Report report() {
+        return new Report(version, since, sunset, link, requests.sum(), clients.top().stream()
+                .map(client -> new Client(client.client(), client.count() * SAMPLE_RATE))
+                .toList());
+    }
+
+    /**
+     * @param requests the requests resolved to the version
+     * @param clients  the clients calling the version most, highest first
+     */
+    public record Report(String version, Instant since, Instant sunset, String link, long requests,
+                         List<Client> clients) {
+    }
+
+    /**
+     * @param estimatedRequests the requests of the client, estimated from the sampled ones
+     */
+    public record Client(String client, long estimatedRequests) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.firmys.terminus.deprecation;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TerminusVersionDeprecations holds the {@link TerminusVersionDeprecation} of each deprecated
+ * version, keyed by the canonical version string the filters resolve requests to, as declared
+ * with {@link TerminusDeprecated} under {@link Terminus#deprecated()}.
+ */
+public final class TerminusVersionDeprecations {
+
+    public static final TerminusVersionDeprecations NONE = new TerminusVersionDeprecations(Map.of());
+
+    private final Map<String, TerminusVersionDeprecation> deprecations;
+
+    private TerminusVersionDeprecations(Map<String, TerminusVersionDeprecation> deprecations) {
+        this.deprecations = deprecations;
+    }
+
+    /**
+     * @return the deprecation of a canonical version, or {@code null} if it is not deprecated
+     */
+    public TerminusVersionDeprecation get(String version) {
+        return version != null && !deprecations.isEmpty() ? deprecations.get(version) : null;
+    }
+
+    public boolean isEmpty() {
+        return deprecations.isEmpty();
+    }
+
+    /**
+     * @return the report of each deprecated version, in version order
+     */
+    public List<TerminusVersionDeprecation.Report> report() {
+        return deprecations.values().stream()
+                .map(TerminusVersionDeprecation::report)
+                .sorted((first, second) -> first.version().compareTo(second.version()))
+                .toList();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects deprecations while handler methods are detected. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Set<Class<?>> types = new HashSet<>();
+        private final Map<String, TerminusVersionDeprecation> declared = new HashMap<>();
+        private final Map<String, Class<?>> declaredBy = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Reads the deprecated versions of a controller, once per controller type.
+         *
+         * @param versions the versions the controller declares
+         * @throws IllegalStateException if a deprecation names a version the controller does not
+         *                               declare, one another controller deprecates differently,
+         *                               or carries dates that cannot be read
+         */
+        public Builder declare(Class<?> handlerType, String[] versions) {
+            if (!types.add(handlerType)) {
+                return this;
+            }
+            Terminus terminus = AnnotatedElementUtils.findMergedAnnotation(handlerType, Terminus.class);
+            if (terminus == null) {
+                return this;
+            }
+            for (TerminusDeprecated deprecated : terminus.deprecated()) {
+                String version = deprecated.version();
+                if (!Arrays.asList(versions).contains(version)) {
+                    throw new IllegalStateException("TerminusDeprecated on " + handlerType.getName()
+                            + " names version '" + version + "', which the controller does not declare");
+                }
+                TerminusVersionDeprecation deprecation = TerminusVersionDeprecation.of(deprecated, version);
+                TerminusVersionDeprecation previous = declared.putIfAbsent(version, deprecation);
+                if (previous != null && !previous.announcesSame(deprecation)) {
+                    throw new IllegalStateException("TerminusDeprecated on " + handlerType.getName()
+                            + " conflicts with the deprecation " + declaredBy.get(version).getName()
+                            + " declares for version '" + version + "'");
+                }
+                declaredBy.putIfAbsent(version, handlerType);
+            }
+            return this;
+        }
+
+        /**
+         * @param versions all declared versions, canonical instances
+         */
+        public TerminusVersionDeprecations build(Set<String> versions) {
+            Map<String, TerminusVersionDeprecation> deprecations = new HashMap<>();
+            for (String version : versions) {
+                TerminusVersionDeprecation deprecation = declared.get(version);
+                if (deprecation != null) {
+                    deprecations.put(version, deprecation);
+                }
+            }
+            return deprecations.isEmpty() ? NONE : new TerminusVersionDeprecations(Map.copyOf(deprecations));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.firmys.terminus.execution;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusBulkhead limits how many requests of one version of a controller run at once.
+ * <p>
+ * Permits are taken without waiting: a request finding none left is rejected straight away, so
+ * the requests of one version never queue up behind each other while holding resources.
+ */
+public final class TerminusBulkhead {
+
+    /**
+     * Request attribute holding the bulkhead a request is dispatched through.
+     */
+    public static final String ATTRIBUTE = TerminusBulkhead.class.getName();
+
+    private final String version;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param version        the version isolated by this bulkhead, empty for unversioned requests
+     * @param maxConcurrency requests running at once at most
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public TerminusBulkhead(String version, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency limit of version '" + version + "' must be positive");
+        }
+        this.version = version;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return {@code true} if a permit was taken, which must be handed back with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * @return requests currently running
+     */
+    public int active() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return requests rejected since startup
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,191 @@
+package com.firmys.terminus.execution;
+
+import com.firmys.terminus.cache.TerminusResponseCache;
+import com.firmys.terminus.resolvers.TerminusRequestAccessor;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusSingleFlight coalesces concurrent identical requests to one handler method declared
+ * with {@code TerminusMapping(singleFlight = true)}, so that they share a single invocation.
+ * <pre>
+ * Calls:
+ * - requests are identical when they resolve to the same version, path and query, the query
+ *   parameters being compared regardless of their order.
+ * - the first request leads a {@link Call}, registered under its key until the request completes.
+ * - identical requests arriving meanwhile join the call and wait for its body instead of invoking
+ *   the handler method. The Servlet stack blocks on it, WebFlux subscribes to it.
+ * - the leader shares its body once the handler method returns it with `200 OK`. If it fails or
+ *   answers with another status, the waiting requests invoke the handler method themselves.
+ * - a call not finished within its timeout, 10 seconds by default, releases the requests waiting
+ *   for it and is unregistered, so a lost leader never stalls its key nor keeps it registered.
+ * </pre>
+ * Unlike {@link TerminusResponseCache}, nothing outlives the leading request: a call is only
+ * joined while it is in flight.
+ */
+public final class TerminusSingleFlight {
+
+    /**
+     * Request attribute holding the call led by a request, completed once the request is.
+     */
+    public static final String CALL_ATTRIBUTE = TerminusSingleFlight.class.getName() + ".call";
+
+    private static final long DEFAULT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String endpoint;
+    private final long timeoutNanos;
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    TerminusSingleFlight(String endpoint, long timeoutNanos) {
+        this.endpoint = endpoint;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * @param handlerType the controller type declaring the handler method
+     * @param method      the handler method
+     * @throws IllegalStateException if the method returns no single body to share
+     */
+    public static TerminusSingleFlight of(Class<?> handlerType, Method method) {
+        String endpoint = handlerType.getSimpleName() + "#" + method.getName();
+        if (!TerminusResponseCache.returnsSingleBody(method)) {
+            throw new IllegalStateException("Single flight on " + endpoint
+                    + " needs a handler method returning a body or a Mono of it, not " + method.getGenericReturnType());
+        }
+        return new TerminusSingleFlight(endpoint, DEFAULT_TIMEOUT_NANOS);
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Builds the key of a request from its resolved version, its path and its query parameters
+     * in sorted order.
+     */
+    public <R> String key(String version, R request, TerminusRequestAccessor<R> accessor) {
+        StringBuilder key = new StringBuilder(64)
+                .append(version != null ? version : "")
+                .append(' ')
+                .append(accessor.path(request));
+        String query = accessor.rawQuery(request);
+        if (query != null && !query.isEmpty()) {
+            key.append('?');
+            if (query.indexOf('&') < 0) {
+                key.append(query);
+            } else {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                key.append(String.join("&", params));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Joins the call in flight for the key of a new call, or leads the new call if there is none.
+     *
+     * @return the call in flight, or {@code null} if the caller leads {@code call} and must
+     * {@link Call#finish() finish} it
+     */
+    public Call join(Call call) {
+        while (true) {
+            Call inFlight = calls.putIfAbsent(call.key, call);
+            if (inFlight == null || (inFlight.result.isCompletedExceptionally()
+                    && calls.replace(call.key, inFlight, call))) {
+                call.result.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).whenComplete((body, ex) -> {
+                    if (ex != null) {
+                        calls.remove(call.key, call);
+                    }
+                });
+                return null;
+            }
+            if (!inFlight.result.isCompletedExceptionally()) {
+                coalesced.increment();
+                return inFlight;
+            }
+        }
+    }
+
+    public Call newCall(String key) {
+        return new Call(this, key);
+    }
+
+    /**
+     * @return calls currently in flight
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    /**
+     * @return requests served by another request's invocation since startup
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * One invocation shared by identical requests.
+     */
+    public static final class Call {
+
+        private final TerminusSingleFlight singleFlight;
+        private final String key;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Call(TerminusSingleFlight singleFlight, String key) {
+            this.singleFlight = singleFlight;
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Hands the body returned by the leading request to the requests waiting for it.
+         */
+        public void share(Object body) {
+            result.complete(body);
+        }
+
+        /**
+         * Ends the call once the leading request completes. Requests still waiting without a
+         * shared body are released to invoke the handler method themselves.
+         */
+        public void finish() {
+            result.complete(null);
+            singleFlight.calls.remove(key, this);
+        }
+
+        /**
+         * @return the shared body, completed with {@code null} if the leading request shared none,
+         * or exceptionally once the call times out
+         */
+        public CompletableFuture<Object> result() {
+            return result;
+        }
+
+        /**
+         * Blocks until the leading request shares its body or finishes.
+         *
+         * @return the shared body, or {@code null} if the leading request shared none
+         */
+        public Object await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.firmys.terminus.execution;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Finishes the {@link TerminusSingleFlight.Call} led by a request once the request completes,
+ * asynchronous requests included, releasing any request still waiting for a shared body.
+ * <p>
+ * {@link TerminusMvcHandlerMapping} registers this interceptor ahead of its other interceptors,
+ * so it completes even when one of them ends the request early.
+ */
+public class TerminusSingleFlightInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(TerminusSingleFlight.CALL_ATTRIBUTE) instanceof TerminusSingleFlight.Call call) {
+            request.removeAttribute(TerminusSingleFlight.CALL_ATTRIBUTE);
+            call.finish();
+        }
+    }
+}
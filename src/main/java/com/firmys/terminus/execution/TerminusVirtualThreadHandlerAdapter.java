@@ -0,0 +1,159 @@
+package com.firmys.terminus.execution;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.metrics.TerminusMetrics;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * TerminusVirtualThreadHandlerAdapter invokes the handler methods of controllers annotated with
+ * {@code TerminusVirtualThreads}, running them on virtual threads whenever
+ * {@link TerminusMvcHandlerMapping} has dispatched the request through a {@link TerminusBulkhead}.
+ * <pre>
+ * For such requests:
+ * 1. A permit of the bulkhead is taken, or the request is rejected with `503 Service Unavailable`.
+ * 2. Handler method arguments are resolved on the container thread, which still owns the request.
+ * 3. The handler method is invoked on a new virtual thread as Spring MVC async processing, and
+ *    the container thread is released.
+ * 4. The permit is handed back once the handler method returns, and the result is handled on
+ *    the async dispatch like the result of a {@code Callable}.
+ *
+ * Setup:
+ * - The adapter is ordered ahead of the regular {@link RequestMappingHandlerAdapter} and only
+ *   supports handler methods of isolated controllers, so any other handler is unaffected.
+ * - Invocation is delegated to a {@link RequestMappingHandlerAdapter} sharing the argument
+ *   resolvers, return value handlers and message converters of the regular one, so handlers
+ *   behave the same whichever adapter invokes them. This works with `@EnableWebMvc` as well as
+ *   with Spring Boot's MVC configuration.
+ * </pre>
+ */
+public class TerminusVirtualThreadHandlerAdapter implements HandlerAdapter, Ordered, SmartInitializingSingleton {
+
+    private final TerminusMvcHandlerMapping handlerMapping;
+
+    private final RequestMappingHandlerAdapter regularAdapter;
+
+    private final VirtualThreadRequestMappingHandlerAdapter adapter = new VirtualThreadRequestMappingHandlerAdapter();
+
+    private final AsyncTaskExecutor executor;
+
+    private TerminusMetrics metrics = TerminusMetrics.NOOP;
+
+    public TerminusVirtualThreadHandlerAdapter(TerminusMvcHandlerMapping handlerMapping,
+                                               RequestMappingHandlerAdapter regularAdapter,
+                                               ApplicationContext applicationContext) {
+        this.handlerMapping = handlerMapping;
+        this.regularAdapter = regularAdapter;
+        this.adapter.setApplicationContext(applicationContext);
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("terminus-");
+        virtualThreads.setVirtualThreads(true);
+        this.executor = virtualThreads;
+    }
+
+    /**
+     * @param metrics recorder for rejected requests, {@link TerminusMetrics#NOOP} by default
+     */
+    public void setMetrics(TerminusMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /*
+     * The regular adapter has completed its own initialization by now, so its resolvers and
+     * handlers include the defaults and every configured customization.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        adapter.setMessageConverters(regularAdapter.getMessageConverters());
+        adapter.setArgumentResolvers(regularAdapter.getArgumentResolvers());
+        adapter.setInitBinderArgumentResolvers(regularAdapter.getInitBinderArgumentResolvers());
+        adapter.setReturnValueHandlers(regularAdapter.getReturnValueHandlers());
+        adapter.setWebBindingInitializer(regularAdapter.getWebBindingInitializer());
+        adapter.afterPropertiesSet();
+    }
+
+    @Override
+    public int getOrder() {
+        return regularAdapter.getOrder() - 1;
+    }
+
+    @Override
+    public boolean supports(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod
+                && handlerMapping.getBulkheads().containsKey(handlerMethod.getBeanType());
+    }
+
+    @Override
+    public ModelAndView handle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        return adapter.handle(request, response, handler);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public long getLastModified(HttpServletRequest request, Object handler) {
+        return -1;
+    }
+
+    private class VirtualThreadRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+        @Override
+        protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            return new VirtualThreadInvocableHandlerMethod(handlerMethod);
+        }
+    }
+
+    private class VirtualThreadInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        VirtualThreadInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer,
+                                    Object... providedArgs) throws Exception {
+            HttpServletRequest request = webRequest.getRequest();
+            if (!(request.getAttribute(TerminusBulkhead.ATTRIBUTE) instanceof TerminusBulkhead bulkhead)) {
+                super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+                return;
+            }
+            request.removeAttribute(TerminusBulkhead.ATTRIBUTE);
+            if (!bulkhead.tryAcquire()) {
+                metrics.bulkheadRejected(bulkhead.version());
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Concurrency limit of version '" + bulkhead.version() + "' reached");
+            }
+            try {
+                Object[] args = getMethodArgumentValues(webRequest, mavContainer, providedArgs);
+                WebAsyncUtils.getAsyncManager(request).startCallableProcessing(
+                        new WebAsyncTask<>(null, executor, () -> {
+                            try {
+                                return doInvoke(args);
+                            } finally {
+                                bulkhead.release();
+                            }
+                        }), mavContainer);
+            } catch (Exception | Error ex) {
+                bulkhead.release();
+                throw ex;
+            }
+        }
+    }
+}
@@ -1,112 +1,262 @@
 package com.firmys.terminus.filters;
 
-import com.firmys.terminus.TerminusConstants;
+import com.firmys.terminus.TerminusAdmission;
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.TerminusTrafficSplits;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.limits.TerminusVersionLimit;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+import com.firmys.terminus.metrics.TerminusMetrics;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.io.IOException;
-import java.util.Optional;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * TerminusVersionFilter is a web filter component that modifies incoming HTTP requests based on
- * a custom version header. It intercepts requests, checks for the presence of a specific header,
- * and dynamically alters the request URI and request path if the header is found.
+ * TerminusVersionFilter is a web filter component that prepares incoming HTTP requests for
+ * versioned routing based on the version they request.
  * <p>
- * This filter helps route versioned API requests by appending the version specified in the
- * "X-Terminus-Version" header to the request URI.
+ * This filter helps route versioned API requests by reading the requested version through the
+ * {@code TerminusVersionResolvers} chain of {@link TerminusMvcHandlerMapping} (the
+ * "X-Terminus-Version" header and the `version` parameter of an `Accept` media type by default),
+ * matching it against the versions declared by {@code Terminus} controllers and exposing the
+ * matched version as a request attribute, which the handler mapping uses to resolve the handler
+ * from its precompiled version route table.
  * <p>
  * An example scenario includes handling requests to differentiate API versions and route them
  * appropriately without altering the top-level server-side configurations.
  * <pre>
  * The filter operates as follows:
- * 1. Checks if the incoming request contains the "X-Terminus-Version" header.
- * 2. If present, constructs a new URI by appending the specified version and the original request path.
- * 3. Wraps and modifies the request to use the newly constructed versioned URI.
- * 4. Passes the modified request along the filter chain.
- * 5. If the header is not found, passes the original request as-is along the filter chain.
+ * 1. Resolves the requested version once, through the handler mapping's resolver chain, and
+ *    has the handler mapping decide its `TerminusAdmission`, the same way for WebFlux.
+ * 2. Unknown versions are ignored and the request continues as an unversioned request.
+ * 3. For a declared version, stores the canonical (interned) version string under
+ *    `TerminusConstants.TERMINUS_VERSION_ATTRIBUTE`. The full resolution is cached under
+ *    `TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE`, so the handler mapping does not
+ *    read the request again.
+ * 4. Adds the request headers the resolvers read, such as `X-Terminus-Version` and `Accept`,
+ *    to the `Vary` header of the response, so shared caches never serve one version's response
+ *    for another. Set `terminus.cache.vary=false` to turn this off.
+ * 5. Answers requests resolving to a version disabled through `TerminusVersionRegistry` with
+ *    `410 Gone`, and enforces the `TerminusVersionLimits` of the resolved version, both before
+ *    any handler lookup.
+ *    Requests over its rate limit are answered with `429 Too Many Requests`, requests over its
+ *    concurrency limit with `503 Service Unavailable`, both with a `Retry-After` header. The
+ *    concurrency permit of an asynchronous request is held until the request completes.
+ * 6. Moves the share of unversioned or aliased traffic given to other versions by the
+ *    `TerminusTrafficSplits` of the handler mapping, as part of resolving the version. With a
+ *    client key configured, its header is listed in the `Vary` header as well.
+ * 7. Announces versions deprecated with `TerminusDeprecated` through the `Deprecation`,
+ *    `Sunset` and `Link` headers formatted for them at startup, and samples the clients still
+ *    calling them, see `TerminusVersionDeprecation`.
+ * 8. Passes the original request along the filter chain. The request URI is never rewritten
+ *    and the request is never wrapped.
+ *
+ * Metrics:
+ * - Declared and unknown versions are counted through the handler mapping's `TerminusMetrics`,
+ *   which is a no-op unless Micrometer is available.
+ * - Requests of split traffic are timed until they complete, by split and version served, and
+ *   counted as failed on an exception or a `5xx` status, so the arms of a canary compare under
+ *   the same load.
+ * - Versioned requests are timed until they complete into the `TerminusLatencyHistogram` of
+ *   the declared version and route serving them, reported with the routes of the handler
+ *   mapping. Synchronous requests are recorded without allocating.
+ *
+ * Allocation:
+ * - Resolvers read the request through a stateless accessor, so no per-request views,
+ *   optionals or wrappers are created.
+ * - Versioned requests reuse the canonical version instance held by the route table; the only
+ *   allocation is the cached resolution record.
  *
  * This filter is automatically included when the application is running in a servlet-based
  * web environment. It is made conditional on the presence of WebMvcConfigurer and servlet-based
  * web applications.
- *
- * Dependencies:
- * - The component requires the use of `TerminusConstants.TERMINUS_VERSION_HEADER`, which defines
- * the header key ("X-Terminus-Version") that the filter checks for version information.
  * </pre>
  * An important design consideration for this class is ensuring that non-versioned requests are
- * unaffected and routed normally. Versioned requests are transparently modified to include the
- * version information in their URI.
+ * unaffected and routed normally.
  */
 @Component
 @ConditionalOnClass(WebMvcConfigurer.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TerminusVersionFilter implements Filter {
 
+    private final TerminusMvcHandlerMapping handlerMapping;
+
+    private final TerminusMetrics metrics;
+
+    private final boolean timesLatency;
+
+    private final boolean deprecations;
+
+    private final String varyHeader;
+
+    public TerminusVersionFilter(TerminusMvcHandlerMapping handlerMapping,
+                                 @Value("${terminus.cache.vary:true}") boolean vary) {
+        this.handlerMapping = handlerMapping;
+        this.metrics = handlerMapping.getMetrics();
+        this.timesLatency = handlerMapping.hasLatencyHistograms();
+        this.deprecations = handlerMapping.hasDeprecations();
+        this.varyHeader = vary
+                ? handlerMapping.getTrafficSplits().varyHeader(handlerMapping.getVersionResolvers().getVaryHeader())
+                : null;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
 
-        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        boolean initial = request.getDispatcherType() == DispatcherType.REQUEST;
+        TerminusAdmission admission = handlerMapping.admit((HttpServletRequest) request, initial);
+        // Every response varies, including unversioned ones, as a versioned request to the same URI may differ
+        if (varyHeader != null) {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, varyHeader);
+        }
+        if (initial && deprecations) {
+            deprecate(handlerMapping.deprecation((HttpServletRequest) request), (HttpServletResponse) response);
+        }
 
-        if (shouldUseVersionedUri(httpRequest)) {
-            String newPath = buildVersionedUri(httpRequest);
-
-            // Create a wrapped request with the new URI
-            HttpServletRequest wrappedRequest = new HttpServletRequestWrapper(httpRequest) {
-                @Override
-                public String getRequestURI() {
-                    return newPath;
-                }
-
-                @Override
-                public String getServletPath() {
-                    return newPath;
-                }
-
-                @Override
-                public StringBuffer getRequestURL() {
-                    StringBuffer url = new StringBuffer();
-                    String scheme = getScheme();
-                    int port = getServerPort();
-
-                    url.append(scheme).append("://").append(getServerName());
-
-                    if (port > 0 && ((scheme.equals("http") && port != 80)
-                            || (scheme.equals("https") && port != 443))) {
-                        url.append(':').append(port);
-                    }
-
-                    url.append(newPath);
-                    return url;
-                }
-            };
-            chain.doFilter(wrappedRequest, response);
+        if (admission.isRejected()) {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(admission.status().value());
+            if (admission.retryAfter() != null) {
+                httpResponse.setHeader(HttpHeaders.RETRY_AFTER, admission.retryAfter());
+            }
+            return;
+        }
+        TerminusVersionLimit limit = admission.permit();
+        TerminusTrafficSplits.Split split = initial && metrics.isEnabled()
+                ? (TerminusTrafficSplits.Split) request.getAttribute(TerminusTrafficSplits.ATTRIBUTE)
+                : null;
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        boolean timed = split != null || (initial && timesLatency
+                && handlerMapping.resolveRequestVersion(httpRequest).isResolved());
+        if (limit == null && !timed) {
+            chain.doFilter(request, response);
             return;
         }
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        long start = timed ? System.nanoTime() : 0L;
+        boolean async = false;
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(
+                        new Completion(limit, split, timed, start, httpRequest, httpResponse));
+            }
+        } finally {
+            if (!async) {
+                complete(limit, split, timed, start, httpRequest, httpResponse, failed);
+            }
+        }
+    }
 
-        // Continue with the filter chain if no redirect is needed
-        chain.doFilter(request, response);
+    /*
+     * Announces the deprecation of the version of a request through the headers precomputed
+     * for it.
+     */
+    private static void deprecate(TerminusVersionDeprecation deprecation, HttpServletResponse response) {
+        if (deprecation == null) {
+            return;
+        }
+        response.setHeader(TerminusVersionDeprecation.DEPRECATION_HEADER, deprecation.deprecationHeader());
+        if (deprecation.sunsetHeader() != null) {
+            response.setHeader(TerminusVersionDeprecation.SUNSET_HEADER, deprecation.sunsetHeader());
+        }
+        if (deprecation.linkHeader() != null) {
+            response.addHeader(TerminusVersionDeprecation.LINK_HEADER, deprecation.linkHeader());
+        }
     }
 
-    private boolean shouldUseVersionedUri(HttpServletRequest request) {
-        return request.getHeader(TerminusConstants.TERMINUS_VERSION_HEADER) != null;
+    /*
+     * Hands the concurrency permit back once a request completes, then records its latency into
+     * the histogram of the version and route that served it and the split arm it was assigned.
+     */
+    private void complete(TerminusVersionLimit limit, TerminusTrafficSplits.Split split, boolean timed,
+                          long start, HttpServletRequest request, HttpServletResponse response,
+                          boolean failed) {
+        if (limit != null) {
+            limit.release();
+        }
+        if (!timed) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (request.getAttribute(TerminusLatencyHistogram.ATTRIBUTE) instanceof TerminusLatencyHistogram latency) {
+            latency.record(elapsed);
+        }
+        if (split != null) {
+            String version = handlerMapping.resolveRequestVersion(request).version();
+            metrics.split(split.name(), version != null ? version : TerminusTrafficSplits.UNVERSIONED,
+                    elapsed, failed || response.getStatus() >= 500);
+        }
     }
 
-    private String buildVersionedUri(HttpServletRequest request) {
-        String endpointVersion = Optional.ofNullable(
-                        request.getHeader(TerminusConstants.TERMINUS_VERSION_HEADER))
-                .orElse("");
-        return "/" + endpointVersion + request.getRequestURI();
+    /*
+     * Completes an asynchronous request once completion is signalled, which happens after
+     * timeouts and errors as well. Synchronous requests complete without this listener.
+     */
+    private final class Completion implements AsyncListener {
+
+        private final TerminusVersionLimit limit;
+
+        private final TerminusTrafficSplits.Split split;
+
+        private final boolean timed;
+
+        private final long start;
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private boolean failed;
+
+        private Completion(TerminusVersionLimit limit, TerminusTrafficSplits.Split split, boolean timed,
+                           long start, HttpServletRequest request, HttpServletResponse response) {
+            this.limit = limit;
+            this.split = split;
+            this.timed = timed;
+            this.start = start;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(limit, split, timed, start, request, response, failed);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
     }
 }
\ No newline at end of file
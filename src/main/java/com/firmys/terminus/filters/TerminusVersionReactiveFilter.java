@@ -1,10 +1,20 @@
 package com.firmys.terminus.filters;
 
-import com.firmys.terminus.TerminusConstants;
+import com.firmys.terminus.TerminusAdmission;
+import com.firmys.terminus.TerminusReactiveHandlerMapping;
+import com.firmys.terminus.TerminusTrafficSplits;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+import com.firmys.terminus.limits.TerminusVersionLimit;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+import com.firmys.terminus.metrics.TerminusMetrics;
+import com.firmys.terminus.transform.TerminusTransformingResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
@@ -13,32 +23,57 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 /**
- * TerminusVersionReactiveFilter is a reactive web filter that modifies the request path based
- * on the presence of a specific versioning header, "X-Terminus-Version". This filter sits
- * in the WebFlux processing chain and dynamically updates the request URI to include the version
- * for routing purposes.
+ * TerminusVersionReactiveFilter is a reactive web filter that prepares requests for versioned
+ * routing based on the version they request, read through the {@code TerminusVersionResolvers}
+ * chain of {@link TerminusReactiveHandlerMapping} ("X-Terminus-Version" header and the `version`
+ * parameter of an `Accept` media type by default). This filter sits in the WebFlux processing
+ * chain and exposes the requested version to the handler mapping, which resolves the versioned
+ * handler directly from its route table.
  * <p>
  * This filter is specifically designed for reactive web applications using Spring WebFlux
  * and is conditionally activated for applications running in a reactive environment.
  * <pre>
  * Core functionality includes:
  * - Intercepting incoming requests in a reactive environment.
- * - Detecting the presence of the "X-Terminus-Version" header in the request.
- * - Dynamically constructing and applying a versioned URI based on the header value.
- * - Passing the modified (or unmodified) request along the reactive filter chain.
- *
- * Primary methods:
- * - The `filter` method is the entry point for request processing, where the detection and modification of
- *   request URIs occur.
- * - Private helper methods `shouldUseVersionedUri` and `buildVersionedUri` assist in determining whether
- *   the request needs to be versioned and constructing the altered URI respectively.
+ * - Resolving the requested version once against the declared versions, storing the canonical
+ *   version under `TerminusConstants.TERMINUS_VERSION_ATTRIBUTE` and the full resolution under
+ *   `TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE`.
+ * - Listing the request headers the resolvers read, and the client key of traffic splits, in
+ *   the `Vary` header of every response, unless `terminus.cache.vary=false`.
+ * - Finishing the `TerminusSingleFlight` call a request leads once its response completes.
+ * - Rewriting the JSON bodies of versions served through a `TerminusDowngrade`, as they are
+ *   written, with a `TerminusTransformingResponse`.
+ * - Moving the share of unversioned or aliased traffic given to other versions by the
+ *   `TerminusTrafficSplits` of the handler mapping, as part of resolving the version, and
+ *   timing those requests by split and version served, counting errors and `5xx` responses
+ *   as failures.
+ * - Timing versioned requests until their response completes into the
+ *   `TerminusLatencyHistogram` of the declared version and route serving them.
+ * - Announcing versions deprecated with `TerminusDeprecated` through the `Deprecation`,
+ *   `Sunset` and `Link` headers formatted for them at startup, and sampling the clients still
+ *   calling them.
+ * - Answering requests resolving to a disabled version with `410 Gone`.
+ * - Enforcing the `TerminusVersionLimits` of the resolved version before any handler lookup,
+ *   answering `429 Too Many Requests` or `503 Service Unavailable` with a `Retry-After` header.
+ * - Passing the original exchange along the reactive filter chain.
  *
  * Key considerations:
- * - Requests without a versioning header are passed along the filter chain unmodified.
+ * - The request and exchange are never mutated, so no decorators are created and the request
+ *   path is not parsed again. The only exception is the response decorator rewriting bodies,
+ *   created only when some handler method is downgraded.
+ * - Nothing is done per element of a streamed body, and nothing of it is buffered: versions are
+ *   resolved, counted and admitted before the handler runs, and bodies of downgraded versions
+ *   are rewritten buffer by buffer as the server requests them, so `Flux` responses, NDJSON
+ *   and server-sent events keep their backpressure. The concurrency permit of a version is held
+ *   until its response completes, fails or is cancelled by the client.
+ * - Requests without a version, or with an unknown version, are passed along the filter
+ *   chain as unversioned requests.
+ * - Declared and unknown versions are counted through the handler mapping's `TerminusMetrics`,
+ *   which is a no-op unless Micrometer is available.
  * - The filter leverages Spring's `WebFilter` interface for reactive environments.
- * - The header key for detecting version information is defined in `TerminusConstants.TERMINUS_VERSION_HEADER`.
  * </pre>
  * This filter plays a crucial role in enabling versioned routing for APIs in a Spring WebFlux-powered
  * reactive environment while maintaining compatibility with existing non-versioned requests.
@@ -48,38 +83,113 @@ import reactor.core.publisher.Mono;
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class TerminusVersionReactiveFilter implements WebFilter {
 
-    @NonNull
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, @NonNull WebFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
+    private final TerminusReactiveHandlerMapping handlerMapping;
+
+    private final TerminusMetrics metrics;
 
-        if (shouldUseVersionedUri(request)) {
-            String newPath = buildVersionedUri(request);
+    private final boolean timesLatency;
 
-            // Create new request with a modified path
-            ServerHttpRequest newRequest = request.mutate()
-                    .path(newPath)
-                    .build();
+    private final boolean deprecations;
 
-            // Create new exchange with modified request
-            ServerWebExchange newExchange = exchange.mutate()
-                    .request(newRequest)
-                    .build();
+    private final String varyHeader;
 
-            return chain.filter(newExchange);
+    public TerminusVersionReactiveFilter(TerminusReactiveHandlerMapping handlerMapping,
+                                         @Value("${terminus.cache.vary:true}") boolean vary) {
+        this.handlerMapping = handlerMapping;
+        this.metrics = handlerMapping.getMetrics();
+        this.timesLatency = handlerMapping.hasLatencyHistograms();
+        this.deprecations = handlerMapping.hasDeprecations();
+        this.varyHeader = vary
+                ? handlerMapping.getTrafficSplits().varyHeader(handlerMapping.getVersionResolvers().getVaryHeader())
+                : null;
+    }
+
+    @NonNull
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        TerminusAdmission admission = handlerMapping.admit(exchange);
+        if (varyHeader != null) {
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, varyHeader);
+        }
+        if (deprecations) {
+            deprecate(handlerMapping.deprecation(exchange), exchange.getResponse().getHeaders());
         }
 
-        return chain.filter(exchange);
+        if (admission.isRejected()) {
+            exchange.getResponse().setStatusCode(admission.status());
+            if (admission.retryAfter() != null) {
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, admission.retryAfter());
+            }
+            return exchange.getResponse().setComplete();
+        }
+        TerminusVersionLimit limit = admission.permit();
+        Mono<Void> filtered = limit != null
+                ? proceed(exchange, chain).doFinally(signal -> limit.release())
+                : proceed(exchange, chain);
+        TerminusTrafficSplits.Split split = metrics.isEnabled()
+                ? exchange.getAttribute(TerminusTrafficSplits.ATTRIBUTE)
+                : null;
+        boolean timed = split != null
+                || (timesLatency && handlerMapping.resolveRequestVersion(exchange).isResolved());
+        return timed ? timed(filtered, split, exchange) : filtered;
     }
 
-    private boolean shouldUseVersionedUri(ServerHttpRequest request) {
-        return request.getHeaders().containsKey(TerminusConstants.TERMINUS_VERSION_HEADER);
+    /*
+     * Records the latency of a request once its response completes, fails or is cancelled, into
+     * the histogram of the version and route that served it and, if its traffic is split, its
+     * split arm. The clock starts on subscription, when the exchange actually proceeds.
+     */
+    private Mono<Void> timed(Mono<Void> filtered, TerminusTrafficSplits.Split split, ServerWebExchange exchange) {
+        String version = handlerMapping.resolveRequestVersion(exchange).version();
+        String arm = version != null ? version : TerminusTrafficSplits.UNVERSIONED;
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return filtered.doFinally(signal -> {
+                long elapsed = System.nanoTime() - start;
+                TerminusLatencyHistogram latency = exchange.getAttribute(TerminusLatencyHistogram.ATTRIBUTE);
+                if (latency != null) {
+                    latency.record(elapsed);
+                }
+                if (split != null) {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    metrics.split(split.name(), arm, elapsed,
+                            signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError()));
+                }
+            });
+        });
     }
 
-    private String buildVersionedUri(ServerHttpRequest request) {
-        String endpointVersion = request.getHeaders()
-                .getFirst(TerminusConstants.TERMINUS_VERSION_HEADER);
-        return "/" + (endpointVersion != null ? endpointVersion : "") + request.getPath().value();
+    /*
+     * Announces the deprecation of the version of an exchange through the headers precomputed
+     * for it.
+     */
+    private static void deprecate(TerminusVersionDeprecation deprecation, HttpHeaders headers) {
+        if (deprecation == null) {
+            return;
+        }
+        headers.set(TerminusVersionDeprecation.DEPRECATION_HEADER, deprecation.deprecationHeader());
+        if (deprecation.sunsetHeader() != null) {
+            headers.set(TerminusVersionDeprecation.SUNSET_HEADER, deprecation.sunsetHeader());
+        }
+        if (deprecation.linkHeader() != null) {
+            headers.add(TerminusVersionDeprecation.LINK_HEADER, deprecation.linkHeader());
+        }
+    }
+
+    private Mono<Void> proceed(ServerWebExchange exchange, WebFilterChain chain) {
+        if (handlerMapping.hasResponseTransforms()) {
+            exchange = exchange.mutate().response(new TerminusTransformingResponse(exchange)).build();
+        }
+        if (!handlerMapping.hasSingleFlights()) {
+            return chain.filter(exchange);
+        }
+        ServerWebExchange filtered = exchange;
+        return chain.filter(exchange).doFinally(signal -> {
+            TerminusSingleFlight.Call call = filtered.getAttribute(TerminusSingleFlight.CALL_ATTRIBUTE);
+            if (call != null) {
+                call.finish();
+            }
+        });
     }
 
 }
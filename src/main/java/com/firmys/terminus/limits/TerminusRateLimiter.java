@@ -0,0 +1,140 @@
+package com.firmys.terminus.limits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TerminusRateLimiter is a lock-free token bucket, implemented as the generic cell rate
+ * algorithm (GCRA) over striped counters.
+ * <pre>
+ * Algorithm:
+ * - Each stripe holds a single theoretical arrival time. A request is admitted when that time
+ *   is no further ahead of now than the burst tolerance, and pushes it one emission interval on
+ *   with a single CAS. There is no separate refill step and no lock.
+ * - The rate is split evenly over the stripes, and so is the burst, the lowest stripes taking
+ *   one request more each when it does not divide evenly. Requests start at the stripe picked
+ *   by their thread and move on to the next stripes only once it is exhausted, so threads
+ *   rarely compete for the same counter while the full burst stays available to each of them.
+ * - A request is only rejected once every stripe is exhausted. The rejecting request then
+ *   records when the first stripe admits again, and the requests arriving before that time are
+ *   rejected on that single read, so the stripes are not scanned on every request under
+ *   overload. Arrival times only move forward, so no request is rejected while a stripe could
+ *   still admit it.
+ * - Stripes are spaced a cache line pair apart, so neighbouring counters never share a line.
+ *
+ * Sizing:
+ * - One stripe per available processor, rounded to a power of two, but never more stripes than
+ *   the burst allows, so every stripe admits at least one request at once.
+ * </pre>
+ */
+public final class TerminusRateLimiter {
+
+    // 16 longs: 128 bytes between two stripes, enough to rule out false sharing and adjacent line prefetching
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int extendedStripes;
+    private final double permitsPerSecond;
+    private final int burst;
+
+    // No stripe admits a request before this time
+    private volatile long exhaustedUntil;
+
+    /**
+     * @param permitsPerSecond sustained rate of admitted requests
+     * @param burst            requests admitted at once on top of the sustained rate
+     * @throws IllegalArgumentException if the rate or burst are not positive
+     */
+    public TerminusRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Runtime.getRuntime().availableProcessors());
+    }
+
+    TerminusRateLimiter(double permitsPerSecond, int burst, int parallelism) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and burst");
+        }
+        int stripes = Math.min(ceilingPowerOfTwo(parallelism), Integer.highestOneBit(burst));
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.mask = stripes - 1;
+        this.intervalNanos = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) * stripes / permitsPerSecond));
+        this.toleranceNanos = (burst / stripes - 1) * intervalNanos;
+        this.extendedStripes = burst % stripes;
+        this.arrivals = new AtomicLongArray(stripes * PADDING);
+        long now = System.nanoTime();
+        for (int i = 0; i < stripes; i++) {
+            arrivals.set(i * PADDING, now);
+        }
+        this.exhaustedUntil = now;
+    }
+
+    public double permitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int burst() {
+        return burst;
+    }
+
+    /**
+     * @return {@code true} if the request is admitted
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (now - exhaustedUntil < 0) {
+            return false;
+        }
+        int start = stripe();
+        for (int i = 0; i <= mask; i++) {
+            if (tryAcquire((start + i) & mask, now)) {
+                return true;
+            }
+        }
+        exhaustedUntil = nextAdmission();
+        return false;
+    }
+
+    private boolean tryAcquire(int stripe, long now) {
+        int index = stripe * PADDING;
+        long tolerance = tolerance(stripe);
+        while (true) {
+            long arrival = arrivals.get(index);
+            long base = arrival - now > 0 ? arrival : now;
+            if (base - now > tolerance) {
+                return false;
+            }
+            if (arrivals.compareAndSet(index, arrival, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /*
+     * The earliest time a stripe admits a request again, read after they all rejected one.
+     */
+    private long nextAdmission() {
+        long earliest = arrivals.get(0) - tolerance(0);
+        for (int stripe = 1; stripe <= mask; stripe++) {
+            long admission = arrivals.get(stripe * PADDING) - tolerance(stripe);
+            if (admission - earliest < 0) {
+                earliest = admission;
+            }
+        }
+        return earliest;
+    }
+
+    private long tolerance(int stripe) {
+        return stripe < extendedStripes ? toleranceNanos + intervalNanos : toleranceNanos;
+    }
+
+    private int stripe() {
+        return (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,108 @@
+package com.firmys.terminus.limits;
+
+import com.firmys.terminus.execution.TerminusBulkhead;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TerminusVersionLimit is the admission control of one declared version: a
+ * {@link TerminusRateLimiter} bounding its request rate, a {@link TerminusBulkhead} bounding its
+ * requests in progress, or both.
+ * <p>
+ * Admission never waits. The concurrency limit is checked first, so requests shed for lack of
+ * capacity do not use up the rate budget of the requests that follow.
+ */
+public final class TerminusVersionLimit {
+
+    /**
+     * Outcome of {@link #tryAcquire()}, with the status a rejected request is answered with.
+     */
+    public enum Admission {
+        ADMITTED(HttpStatus.OK),
+        RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS),
+        OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE);
+
+        private final HttpStatus status;
+
+        Admission(HttpStatus status) {
+            this.status = status;
+        }
+
+        public HttpStatus status() {
+            return status;
+        }
+    }
+
+    private final String version;
+    private final TerminusRateLimiter rateLimiter;
+    private final TerminusBulkhead bulkhead;
+    private final LongAdder rateLimited = new LongAdder();
+
+    /**
+     * @param version     the declared version limited
+     * @param rateLimiter bounds the request rate, or {@code null} for no rate limit
+     * @param bulkhead    bounds the requests in progress, or {@code null} for no concurrency limit
+     */
+    public TerminusVersionLimit(String version, TerminusRateLimiter rateLimiter, TerminusBulkhead bulkhead) {
+        this.version = version;
+        this.rateLimiter = rateLimiter;
+        this.bulkhead = bulkhead;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public TerminusRateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    public TerminusBulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @return {@link Admission#ADMITTED} if the request may proceed, in which case a request to a
+     * version with a concurrency limit must be handed back with {@link #release()} once complete
+     */
+    public Admission tryAcquire() {
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            return Admission.OVERLOADED;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            rateLimited.increment();
+            release();
+            return Admission.RATE_LIMITED;
+        }
+        return Admission.ADMITTED;
+    }
+
+    public void release() {
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * @return {@code true} if admitted requests hold a permit until {@link #release()}
+     */
+    public boolean limitsConcurrency() {
+        return bulkhead != null;
+    }
+
+    /**
+     * @return requests rejected by the rate limit since startup
+     */
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * @return requests rejected by the concurrency limit since startup
+     */
+    public long overloaded() {
+        return bulkhead != null ? bulkhead.rejected() : 0L;
+    }
+}
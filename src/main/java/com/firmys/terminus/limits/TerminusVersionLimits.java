@@ -0,0 +1,167 @@
+package com.firmys.terminus.limits;
+
+import com.firmys.terminus.annotations.TerminusRateLimit;
+import com.firmys.terminus.execution.TerminusBulkhead;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TerminusVersionLimits holds the {@link TerminusVersionLimit} of each declared version, keyed
+ * by the canonical version string the filters resolve requests to.
+ * <pre>
+ * Sources, later ones taking precedence for a version:
+ * 1. {@link TerminusRateLimit} on {@code Terminus} controllers.
+ * 2. `terminus.limits.versions` in the application configuration, for example
+ *    `terminus.limits.versions[1.0].permits-per-second=500`. Versions containing dots need the
+ *    bracket notation to be read as a single key.
+ * </pre>
+ */
+public final class TerminusVersionLimits {
+
+    public static final String PROPERTY = "terminus.limits.versions";
+
+    public static final TerminusVersionLimits NONE = new TerminusVersionLimits(Map.of());
+
+    private final Map<String, TerminusVersionLimit> limits;
+
+    private TerminusVersionLimits(Map<String, TerminusVersionLimit> limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @return the limit of a canonical version, or {@code null} if it is not limited
+     */
+    public TerminusVersionLimit get(String version) {
+        return version != null && !limits.isEmpty() ? limits.get(version) : null;
+    }
+
+    public Map<String, TerminusVersionLimit> getLimits() {
+        return limits;
+    }
+
+    public boolean isEmpty() {
+        return limits.isEmpty();
+    }
+
+    /**
+     * Reads the limits configured under {@link #PROPERTY}.
+     */
+    public static Map<String, Limit> bind(Environment environment) {
+        return Binder.get(environment)
+                .bind(PROPERTY, Bindable.mapOf(String.class, Limit.class))
+                .orElse(Map.of());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Limits of one version, as declared or configured. Zero or less leaves a dimension unlimited,
+     * and a burst of zero or less allows one second worth of requests at once.
+     */
+    public record Limit(double permitsPerSecond, int burst, int maxConcurrency) {
+
+        static Limit of(TerminusRateLimit rateLimit) {
+            return new Limit(rateLimit.permitsPerSecond(), rateLimit.burst(), rateLimit.maxConcurrency());
+        }
+
+        TerminusVersionLimit create(String version) {
+            TerminusRateLimiter rateLimiter = permitsPerSecond > 0
+                    ? new TerminusRateLimiter(permitsPerSecond,
+                    burst > 0 ? burst : (int) Math.max(1, Math.ceil(permitsPerSecond)))
+                    : null;
+            TerminusBulkhead bulkhead = maxConcurrency > 0 ? new TerminusBulkhead(version, maxConcurrency) : null;
+            return rateLimiter != null || bulkhead != null
+                    ? new TerminusVersionLimit(version, rateLimiter, bulkhead)
+                    : null;
+        }
+    }
+
+    /**
+     * Collects limits while handler methods are detected. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Set<Class<?>> types = new HashSet<>();
+        private final Map<String, Limit> declared = new HashMap<>();
+        private final Map<String, Class<?>> declaredBy = new HashMap<>();
+        private Map<String, Limit> configured = Map.of();
+
+        private Builder() {
+        }
+
+        /**
+         * Reads the {@link TerminusRateLimit} of a controller, once per controller type.
+         *
+         * @param versions the versions the controller declares
+         * @throws IllegalStateException if the annotation names a version the controller does not
+         *                               declare, or one another controller limits differently
+         */
+        public Builder declare(Class<?> handlerType, String[] versions) {
+            if (!types.add(handlerType)) {
+                return this;
+            }
+            TerminusRateLimit rateLimit = AnnotatedElementUtils.findMergedAnnotation(handlerType, TerminusRateLimit.class);
+            if (rateLimit == null) {
+                return this;
+            }
+            Limit limit = Limit.of(rateLimit);
+            for (String version : rateLimit.versions().length > 0 ? rateLimit.versions() : versions) {
+                if (!Arrays.asList(versions).contains(version)) {
+                    throw new IllegalStateException("TerminusRateLimit on " + handlerType.getName()
+                            + " names version '" + version + "', which the controller does not declare");
+                }
+                Limit previous = declared.putIfAbsent(version, limit);
+                if (previous != null && !previous.equals(limit)) {
+                    throw new IllegalStateException("TerminusRateLimit on " + handlerType.getName()
+                            + " conflicts with the limit " + declaredBy.get(version).getName()
+                            + " declares for version '" + version + "'");
+                }
+                declaredBy.putIfAbsent(version, handlerType);
+            }
+            return this;
+        }
+
+        /**
+         * @param configured limits by version, overriding those declared on controllers
+         */
+        public Builder configure(Map<String, Limit> configured) {
+            this.configured = configured;
+            return this;
+        }
+
+        /**
+         * @param versions all declared versions, canonical instances
+         * @throws IllegalStateException if a configured version is not declared
+         */
+        public TerminusVersionLimits build(Set<String> versions) {
+            Map<String, Limit> merged = new HashMap<>(declared);
+            configured.forEach((version, limit) -> {
+                if (!versions.contains(version)) {
+                    throw new IllegalStateException(PROPERTY + " names version '" + version
+                            + "', which no Terminus controller declares");
+                }
+                merged.put(version, limit);
+            });
+            Map<String, TerminusVersionLimit> limits = new HashMap<>();
+            for (String version : versions) {
+                Limit limit = merged.get(version);
+                TerminusVersionLimit versionLimit = limit != null ? limit.create(version) : null;
+                if (versionLimit != null) {
+                    limits.put(version, versionLimit);
+                }
+            }
+            return limits.isEmpty() ? NONE : new TerminusVersionLimits(Map.copyOf(limits));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.firmys.terminus.management;
+
+import com.firmys.terminus.TerminusRouteReport;
+import com.firmys.terminus.TerminusTrafficSplits;
+import com.firmys.terminus.TerminusVersionOverrides;
+import com.firmys.terminus.TerminusVersionRegistry;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.metrics.TerminusLatencyHistogram;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * TerminusVersionManagementController exposes the {@link TerminusVersionRegistry} over HTTP, so
+ * versions can be retired, aliased and redirected on a running instance.
+ * <pre>
+ * Operations, relative to `terminus.management.path` (`/terminus/versions` by default):
+ * - `GET`: the declared versions and the overrides applied.
+ * - `GET /routes`: the versioned routes registered, their collisions and shadowed routes, and
+ *   the hit counts and sampled match times of each, see {@link TerminusRouteReport}.
+ * - `GET /latencies`: the p50, p99 and p999 latency of the requests each declared version
+ *   served, by handler, see {@link TerminusLatencyHistogram}.
+ * - `GET /deprecations`: the deprecated versions, the requests they still serve and the
+ *   clients calling them most, see {@link TerminusVersionDeprecation}.
+ * - `POST /{version}/disable`, `POST /{version}/enable`: retire a version, answered with
+ *   `410 Gone`, or bring it back.
+ * - `PUT /aliases/{alias}?target=`, `DELETE /aliases/{alias}`: resolve a name such as `latest`
+ *   to a declared version.
+ * - `PUT /redirects/{version}?target=`, `DELETE /redirects/{version}`: serve the traffic of a
+ *   declared version by another one.
+ * - `PUT /fallbacks/{version}?targets=`, `DELETE /fallbacks/{version}`: try further versions,
+ *   in order, for requests the version itself has no handler for.
+ * - `GET /splits`: the traffic splits applied, see {@link TerminusTrafficSplits}.
+ * - `PUT /splits/{split}/{version}?share=`, `DELETE /splits/{split}`: give a version a share, in
+ *   percent, of the traffic of an alias or of `unversioned` requests, zero taking it out again,
+ *   or stop splitting that traffic.
+ *
+ * Every operation answers with the resulting state. Overrides naming undeclared versions are
+ * rejected with `400 Bad Request` and leave the current state unchanged, as are splits sharing
+ * more than all of their traffic.
+ * </pre>
+ * Only registered with `terminus.management.enabled=true`. The operations change how every
+ * request is served, so they should be exposed on a management port or secured like any other
+ * administrative endpoint. Overrides are held in memory and apply to this instance only.
+ */
+@RestController
+@ConditionalOnProperty(name = "terminus.management.enabled", havingValue = "true")
+@RequestMapping("${terminus.management.path:/terminus/versions}")
+public class TerminusVersionManagementController {
+
+    private final TerminusVersionRegistry registry;
+
+    public TerminusVersionManagementController(TerminusVersionRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping
+    public Versions versions() {
+        return Versions.of(registry.getVersions(), registry.getVersionOverrides());
+    }
+
+    @GetMapping("/routes")
+    public TerminusRouteReport routes() {
+        return registry.getRouteReport();
+    }
+
+    @GetMapping("/latencies")
+    public Map<String, Map<String, TerminusLatencyHistogram.Snapshot>> latencies() {
+        Map<String, Map<String, TerminusLatencyHistogram.Snapshot>> latencies = new TreeMap<>();
+        registry.getRouteReport().routes().forEach(route -> route.latencies().forEach((version, latency) ->
+                latencies.computeIfAbsent(version, key -> new TreeMap<>()).put(route.handler(), latency)));
+        return latencies;
+    }
+
+    @GetMapping("/deprecations")
+    public List<TerminusVersionDeprecation.Report> deprecations() {
+        return registry.getDeprecationReport();
+    }
+
+    @PostMapping("/{version}/disable")
+    public Versions disable(@PathVariable("version") String version) {
+        return update(overrides -> overrides.disable(version));
+    }
+
+    @PostMapping("/{version}/enable")
+    public Versions enable(@PathVariable("version") String version) {
+        return update(overrides -> overrides.enable(version));
+    }
+
+    @PutMapping("/aliases/{alias}")
+    public Versions alias(@PathVariable("alias") String alias, @RequestParam("target") String target) {
+        return update(overrides -> overrides.alias(alias, target));
+    }
+
+    @DeleteMapping("/aliases/{alias}")
+    public Versions removeAlias(@PathVariable("alias") String alias) {
+        return update(overrides -> overrides.removeAlias(alias));
+    }
+
+    @PutMapping("/redirects/{version}")
+    public Versions redirect(@PathVariable("version") String version, @RequestParam("target") String target) {
+        return update(overrides -> overrides.redirect(version, target));
+    }
+
+    @DeleteMapping("/redirects/{version}")
+    public Versions removeRedirect(@PathVariable("version") String version) {
+        return update(overrides -> overrides.removeRedirect(version));
+    }
+
+    @PutMapping("/fallbacks/{version}")
+    public Versions fallback(@PathVariable("version") String version,
+                             @RequestParam("targets") List<String> targets) {
+        return update(overrides -> overrides.fallback(version, targets));
+    }
+
+    @DeleteMapping("/fallbacks/{version}")
+    public Versions removeFallback(@PathVariable("version") String version) {
+        return update(overrides -> overrides.removeFallback(version));
+    }
+
+    @GetMapping("/splits")
+    public Map<String, Map<String, Double>> splits() {
+        return sorted(registry.getTrafficSplits());
+    }
+
+    @PutMapping("/splits/{split}/{version}")
+    public Map<String, Map<String, Double>> share(@PathVariable("split") String split,
+                                                  @PathVariable("version") String version,
+                                                  @RequestParam("share") double share) {
+        return updateSplits(splits -> splits.share(split, version, share));
+    }
+
+    @DeleteMapping("/splits/{split}")
+    public Map<String, Map<String, Double>> removeSplit(@PathVariable("split") String split) {
+        return updateSplits(splits -> splits.remove(split));
+    }
+
+    private Map<String, Map<String, Double>> updateSplits(UnaryOperator<TerminusTrafficSplits> update) {
+        try {
+            return sorted(registry.updateTrafficSplits(update));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    // Versions keep the order they were given a share in, which their assignment depends on
+    private static Map<String, Map<String, Double>> sorted(TerminusTrafficSplits splits) {
+        return new TreeMap<>(splits.shares());
+    }
+
+    private Versions update(UnaryOperator<TerminusVersionOverrides> update) {
+        try {
+            return Versions.of(registry.getVersions(), registry.updateVersionOverrides(update));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * The declared versions and the overrides applied to them, in a stable order.
+     */
+    public record Versions(Set<String> declared, Set<String> disabled, Map<String, String> aliases,
+                           Map<String, String> redirects, Map<String, List<String>> fallbacks) {
+
+        static Versions of(Set<String> declared, TerminusVersionOverrides overrides) {
+            return new Versions(new TreeSet<>(declared), new TreeSet<>(overrides.disabled()),
+                    new TreeMap<>(overrides.aliases()), new TreeMap<>(overrides.redirects()),
+                    new TreeMap<>(overrides.fallbacks()));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.firmys.terminus.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer backed {@link TerminusMetrics}.
+ * <pre>
+ * Meters:
+ * - `terminus.requests` (counter, tag `version`): requests carrying a declared version.
+ * - `terminus.requests.unknown` (counter): requests carrying an undeclared version.
+ * - `terminus.requests.fallback` (counter, tag `version`): versioned requests handled by the
+ *   unversioned mappings because no versioned route matched.
+ * - `terminus.resolution` (timer, tags `version`, `endpoint`): time spent resolving a versioned
+ *   request to its handler.
+ * - `terminus.response.cache` (counter, tags `endpoint`, `result`): requests to memoized handlers,
+ *   answered from the cache (`hit`) or not (`miss`).
+ * - `terminus.bulkhead.rejected` (counter, tag `version`): requests rejected by the concurrency
+ *   limit of their version.
+ * - `terminus.requests.coalesced` (counter, tag `endpoint`): requests that joined an identical
+ *   request in flight.
+ * - `terminus.requests.rejected` (counter, tags `version`, `reason`): requests rejected by the
+ *   filters for exceeding the rate limit (`rate-limit`) or concurrency limit (`overload`) of
+ *   their version.
+ * - `terminus.split` (timer, tags `split`, `version`, `outcome`): requests whose traffic is split,
+ *   by the version serving them and whether they succeeded (`success`) or failed with an error or
+ *   a `5xx` status (`error`), from the filter to the completion of the response.
+ * - `terminus.requests.deprecated` (counter, tag `version`): requests resolved to a deprecated
+ *   version.
+ * - `terminus.latency` (gauge, tags `version`, `endpoint`, `quantile`): the `0.5`, `0.99` and
+ *   `0.999` quantiles of the latency of the requests a version served through an endpoint, in
+ *   seconds, read from its {@link TerminusLatencyHistogram} when scraped.
+ * </pre>
+ * Meters are registered on first use and cached per version and endpoint, so recording an event
+ * is a map lookup on the already registered meter.
+ */
+public class MicrometerTerminusMetrics implements TerminusMetrics {
+
+    public static final String REQUESTS = "terminus.requests";
+    public static final String UNKNOWN = "terminus.requests.unknown";
+    public static final String FALLBACK = "terminus.requests.fallback";
+    public static final String RESOLUTION = "terminus.resolution";
+    public static final String RESPONSE_CACHE = "terminus.response.cache";
+    public static final String BULKHEAD_REJECTED = "terminus.bulkhead.rejected";
+    public static final String COALESCED = "terminus.requests.coalesced";
+    public static final String REJECTED = "terminus.requests.rejected";
+    public static final String SPLIT = "terminus.split";
+    public static final String DEPRECATED = "terminus.requests.deprecated";
+    public static final String LATENCY = "terminus.latency";
+
+    private final MeterRegistry registry;
+    private final Counter unknown;
+    private final Map<String, Counter> requests = new ConcurrentHashMap<>();
+    private final Map<String, Counter> fallbacks = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> resolutions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheHits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheMisses = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bulkheadRejections = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rateLimited = new ConcurrentHashMap<>();
+    private final Map<String, Counter> overloaded = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer[]>> splits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deprecated = new ConcurrentHashMap<>();
+
+    public MicrometerTerminusMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.unknown = Counter.builder(UNKNOWN)
+                .description("Requests carrying a version no Terminus controller declares")
+                .register(registry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void versionRequested(String version) {
+        requests.computeIfAbsent(version, ver -> Counter.builder(REQUESTS)
+                        .description("Requests carrying a declared Terminus version")
+                        .tag("version", ver)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void unknownVersion() {
+        unknown.increment();
+    }
+
+    @Override
+    public void fallback(String version) {
+        fallbacks.computeIfAbsent(version, ver -> Counter.builder(FALLBACK)
+                        .description("Versioned requests handled by unversioned mappings")
+                        .tag("version", ver)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void resolved(String version, String endpoint, long nanos) {
+        resolutions.computeIfAbsent(version, ver -> new ConcurrentHashMap<>())
+                .computeIfAbsent(endpoint, end -> Timer.builder(RESOLUTION)
+                        .description("Time spent resolving a versioned request to its handler")
+                        .tag("version", version)
+                        .tag("endpoint", end)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void responseCache(String endpoint, boolean hit) {
+        (hit ? cacheHits : cacheMisses).computeIfAbsent(endpoint, end -> Counter.builder(RESPONSE_CACHE)
+                        .description("Requests to memoized Terminus handlers")
+                        .tag("endpoint", end)
+                        .tag("result", hit ? "hit" : "miss")
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void bulkheadRejected(String version) {
+        bulkheadRejections.computeIfAbsent(version, ver -> Counter.builder(BULKHEAD_REJECTED)
+                        .description("Requests rejected by the concurrency limit of their version")
+                        .tag("version", ver)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void coalesced(String endpoint) {
+        coalesced.computeIfAbsent(endpoint, end -> Counter.builder(COALESCED)
+                        .description("Requests served by an identical request in flight")
+                        .tag("endpoint", end)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void rejected(String version, boolean rateLimit) {
+        (rateLimit ? rateLimited : overloaded).computeIfAbsent(version, ver -> Counter.builder(REJECTED)
+                        .description("Requests rejected by the limits of their version")
+                        .tag("version", ver)
+                        .tag("reason", rateLimit ? "rate-limit" : "overload")
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void split(String split, String version, long nanos, boolean failed) {
+        Timer[] outcomes = splits.computeIfAbsent(split, name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(version, ver -> new Timer[]{splitTimer(split, ver, "success"),
+                        splitTimer(split, ver, "error")});
+        outcomes[failed ? 1 : 0].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer splitTimer(String split, String version, String outcome) {
+        return Timer.builder(SPLIT)
+                .description("Requests whose traffic is split between Terminus versions")
+                .tag("split", split)
+                .tag("version", version)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void deprecated(String version) {
+        deprecated.computeIfAbsent(version, ver -> Counter.builder(DEPRECATED)
+                        .description("Requests resolved to a deprecated Terminus version")
+                        .tag("version", ver)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void latency(String version, String endpoint, TerminusLatencyHistogram histogram) {
+        for (double quantile : new double[]{0.5, 0.99, 0.999}) {
+            Gauge.builder(LATENCY, histogram, latencies -> latencies.percentile(quantile * 100) / 1e9)
+                    .description("Latency quantiles of the requests a Terminus version served")
+                    .baseUnit("seconds")
+                    .tag("version", version)
+                    .tag("endpoint", endpoint)
+                    .tag("quantile", Double.toString(quantile))
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.firmys.terminus.metrics;
+
+/**
+ * TerminusMetrics records how requests are resolved by the Terminus filters and handler mappings.
+ * <p>
+ * Implementations receive only canonical versions declared by {@code Terminus} controllers and
+ * endpoint names derived from registered handler methods, so any tags they derive from these
+ * values have bounded cardinality. Requested versions that are not declared are only counted,
+ * never recorded by value.
+ * <pre>
+ * Recorded events:
+ * - `versionRequested`: a request carried a declared version.
+ * - `unknownVersion`: a request carried a version that no controller declares.
+ * - `fallback`: a request carried a declared version, but no versioned route matched its path,
+ *   so it was handled by the unversioned mappings.
+ * - `resolved`: time spent resolving a versioned request to its handler.
+ * - `responseCache`: a request to a handler memoized with `TerminusMemoize` was answered from
+ *   its cache, or missed it.
+ * - `bulkheadRejected`: a request was rejected as its version reached the concurrency limit
+ *   declared with `TerminusVirtualThreads`.
+ * - `coalesced`: a request to a handler mapped with `singleFlight` joined an identical request
+ *   in flight rather than invoking the handler itself.
+ * - `rejected`: a request was rejected by the filters, before any handler lookup, as its version
+ *   exceeded its rate limit or concurrency limit.
+ * - `split`: a request whose traffic is split by `TerminusTrafficSplits` completed, with the
+ *   version that served it, `unversioned` for the baseline of unversioned traffic, its time from
+ *   the filter on and whether it failed.
+ * - `deprecated`: a request resolved to a version deprecated with `TerminusDeprecated`.
+ * - `latency`: a {@link TerminusLatencyHistogram} was created for a declared version and
+ *   endpoint, once, for the backend to export its percentiles.
+ * </pre>
+ * {@link #NOOP} is used whenever no metrics backend is available. Callers check
+ * {@link #isEnabled()} before taking timestamps, so disabled metrics add no work per request.
+ */
+public interface TerminusMetrics {
+
+    TerminusMetrics NOOP = new TerminusMetrics() {
+    };
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    default void versionRequested(String version) {
+    }
+
+    default void unknownVersion() {
+    }
+
+    default void fallback(String version) {
+    }
+
+    default void resolved(String version, String endpoint, long nanos) {
+    }
+
+    default void responseCache(String endpoint, boolean hit) {
+    }
+
+    default void bulkheadRejected(String version) {
+    }
+
+    default void coalesced(String endpoint) {
+    }
+
+    default void rejected(String version, boolean rateLimited) {
+    }
+
+    default void split(String split, String version, long nanos, boolean failed) {
+    }
+
+    default void deprecated(String version) {
+    }
+
+    default void latency(String version, String endpoint, TerminusLatencyHistogram histogram) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.firmys.terminus.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers {@link MicrometerTerminusMetrics} when Micrometer is on the classpath and a
+ * {@link MeterRegistry} is available. Without Micrometer this configuration is skipped entirely
+ * and the handler mappings keep using {@link TerminusMetrics#NOOP}.
+ * <p>
+ * Metrics can be switched off with {@code terminus.metrics.enabled=false}.
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "terminus.metrics", name = "enabled", matchIfMissing = true)
+public class TerminusMetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TerminusMetrics.class)
+    TerminusMetrics terminusMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfUnique();
+        return registry != null ? new MicrometerTerminusMetrics(registry) : TerminusMetrics.NOOP;
+    }
+}
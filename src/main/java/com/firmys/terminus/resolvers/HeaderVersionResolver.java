@@ -0,0 +1,28 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * Reads the version from a request header, {@code X-Terminus-Version} by default.
+ */
+public class HeaderVersionResolver implements TerminusVersionResolver {
+
+    private final String headerName;
+
+    public HeaderVersionResolver(String headerName) {
+        this.headerName = headerName;
+    }
+
+    @Override
+    public <R> String resolveVersion(R request, TerminusRequestAccessor<R> accessor) {
+        return accessor.header(request, headerName);
+    }
+
+    @Override
+    public TerminusVersionSource source() {
+        return TerminusVersionSource.HEADER;
+    }
+
+    @Override
+    public String varyHeader() {
+        return headerName;
+    }
+}
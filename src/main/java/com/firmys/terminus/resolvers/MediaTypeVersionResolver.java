@@ -0,0 +1,106 @@
+package com.firmys.terminus.resolvers;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Reads the version from a parameter of the media types in the {@code Accept} header, e.g.
+ * {@code Accept: application/vnd.x+json;version=2}. This lets caches that key on media type,
+ * such as CDNs, tell versions apart without a custom header.
+ * <pre>
+ * Parsing:
+ * - The header is scanned once, left to right; no media types or parameter maps are created.
+ * - The first media range declaring the parameter wins.
+ * - Parameter names are matched case-insensitively and quoted values are unquoted.
+ * </pre>
+ */
+public class MediaTypeVersionResolver implements TerminusVersionResolver {
+
+    private final String parameterName;
+
+    public MediaTypeVersionResolver(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    @Override
+    public <R> String resolveVersion(R request, TerminusRequestAccessor<R> accessor) {
+        String accept = accessor.header(request, HttpHeaders.ACCEPT);
+        return accept != null ? parameter(accept, parameterName) : null;
+    }
+
+    @Override
+    public TerminusVersionSource source() {
+        return TerminusVersionSource.MEDIA_TYPE;
+    }
+
+    @Override
+    public String varyHeader() {
+        return HttpHeaders.ACCEPT;
+    }
+
+    /*
+     * Returns the value of the first media type parameter with the given name. Parameters start
+     * after a `;` and end at the next `;` or `,`; quoted values may contain either.
+     */
+    static String parameter(String header, String name) {
+        int length = header.length();
+        int index = 0;
+        while (index < length) {
+            int separator = header.indexOf(';', index);
+            if (separator < 0) {
+                return null;
+            }
+            int nameStart = skipWhitespace(header, separator + 1);
+            int nameEnd = nameStart;
+            while (nameEnd < length && !isDelimiter(header.charAt(nameEnd)) && header.charAt(nameEnd) != '=') {
+                nameEnd++;
+            }
+            if (nameEnd == length || header.charAt(nameEnd) != '=') {
+                index = nameEnd;
+                continue;
+            }
+            boolean matches = trimEnd(header, nameStart, nameEnd) - nameStart == name.length()
+                    && header.regionMatches(true, nameStart, name, 0, name.length());
+            int valueStart = skipWhitespace(header, nameEnd + 1);
+            int valueEnd;
+            if (valueStart < length && header.charAt(valueStart) == '"') {
+                valueEnd = header.indexOf('"', valueStart + 1);
+                if (valueEnd < 0) {
+                    return null;
+                }
+                if (matches) {
+                    return valueEnd > valueStart + 1 ? header.substring(valueStart + 1, valueEnd) : null;
+                }
+                index = valueEnd + 1;
+            } else {
+                valueEnd = valueStart;
+                while (valueEnd < length && !isDelimiter(header.charAt(valueEnd))) {
+                    valueEnd++;
+                }
+                int trimmedEnd = trimEnd(header, valueStart, valueEnd);
+                if (matches) {
+                    return trimmedEnd > valueStart ? header.substring(valueStart, trimmedEnd) : null;
+                }
+                index = valueEnd;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return ch == ';' || ch == ',';
+    }
+
+    private static int skipWhitespace(String value, int index) {
+        while (index < value.length() && value.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int trimEnd(String value, int start, int end) {
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+}
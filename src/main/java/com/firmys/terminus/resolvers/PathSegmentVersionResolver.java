@@ -0,0 +1,27 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * Reads the version from the first segment of the request path, e.g. {@code /2/resource}.
+ * <p>
+ * These paths are served from the route table of the version named, or by the prefixed mappings
+ * registered for it when the table has no match, so a segment only counts as a version when it
+ * names a declared version exactly. Only segments
+ * starting with a digit are considered, which keeps ordinary paths from being looked up.
+ */
+public class PathSegmentVersionResolver implements TerminusVersionResolver {
+
+    @Override
+    public <R> String resolveVersion(R request, TerminusRequestAccessor<R> accessor) {
+        String path = accessor.path(request);
+        if (path.length() < 2 || path.charAt(0) != '/' || !Character.isDigit(path.charAt(1))) {
+            return null;
+        }
+        int end = path.indexOf('/', 1);
+        return path.substring(1, end < 0 ? path.length() : end);
+    }
+
+    @Override
+    public TerminusVersionSource source() {
+        return TerminusVersionSource.PATH;
+    }
+}
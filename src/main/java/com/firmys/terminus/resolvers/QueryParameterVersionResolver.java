@@ -0,0 +1,53 @@
+package com.firmys.terminus.resolvers;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the version from a query parameter, e.g. {@code ?version=2}.
+ * <p>
+ * The raw query string is scanned for the parameter directly rather than parsed into a
+ * parameter map. Form parameters in a request body are never read, so resolving a version
+ * does not consume the body. Values are only URL decoded when they contain escapes.
+ */
+public class QueryParameterVersionResolver implements TerminusVersionResolver {
+
+    private final String parameterName;
+
+    public QueryParameterVersionResolver(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    @Override
+    public <R> String resolveVersion(R request, TerminusRequestAccessor<R> accessor) {
+        return accessor.queryParameter(request, parameterName);
+    }
+
+    @Override
+    public TerminusVersionSource source() {
+        return TerminusVersionSource.QUERY_PARAMETER;
+    }
+
+    static String parameter(String query, String name) {
+        int length = query.length();
+        int start = 0;
+        while (start < length) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            int nameEnd = start + name.length();
+            if (nameEnd < end && query.charAt(nameEnd) == '=' && query.startsWith(name, start)) {
+                return nameEnd + 1 < end ? decode(query.substring(nameEnd + 1, end)) : null;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static String decode(String value) {
+        return value.indexOf('%') >= 0 || value.indexOf('+') >= 0
+                ? URLDecoder.decode(value, StandardCharsets.UTF_8)
+                : value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * TerminusRequestAccessor gives {@link TerminusVersionResolver}s read-only access to the parts of
+ * a request they need, so the same resolvers serve both Spring MVC and WebFlux.
+ * <p>
+ * Accessors are stateless singletons per request type rather than per-request wrappers, so
+ * resolving a version creates no view objects. Values are handed out as the underlying request
+ * holds them; nothing is parsed or decoded up front.
+ *
+ * @param <R> the request type, e.g. {@code HttpServletRequest} or {@code ServerWebExchange}
+ */
+public interface TerminusRequestAccessor<R> {
+
+    /**
+     * @return the first value of the header, or {@code null} if absent
+     */
+    String header(R request, String name);
+
+    /**
+     * @return the raw, undecoded query string without the leading {@code ?}, or {@code null}
+     */
+    String rawQuery(R request);
+
+    /**
+     * @return the request path within the application, starting with {@code /}
+     */
+    String path(R request);
+
+    /**
+     * @return the decoded value of the first query parameter with the name, or {@code null} if
+     * absent
+     */
+    default String queryParameter(R request, String name) {
+        String query = rawQuery(request);
+        return query != null ? QueryParameterVersionResolver.parameter(query, name) : null;
+    }
+}
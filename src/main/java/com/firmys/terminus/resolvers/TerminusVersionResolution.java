@@ -0,0 +1,33 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * The outcome of resolving the requested version of a request, cached as a request attribute
+ * under {@code TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE} so that it is computed
+ * once per request.
+ *
+ * @param version   the canonical declared version serving the request, or {@code null} if the
+ *                  request carries no version or an unknown one
+ * @param requested the raw version as read from the request, or {@code null} if none
+ * @param source    where the version was read from, or {@code null} if none
+ */
+public record TerminusVersionResolution(String version, String requested, TerminusVersionSource source) {
+
+    /**
+     * The resolution of a request carrying no version.
+     */
+    public static final TerminusVersionResolution NONE = new TerminusVersionResolution(null, null, null);
+
+    /**
+     * @return {@code true} if a declared version serves the request
+     */
+    public boolean isResolved() {
+        return version != null;
+    }
+
+    /**
+     * @return {@code true} if the request carries a version no controller declares
+     */
+    public boolean isUnknown() {
+        return version == null && requested != null;
+    }
+}
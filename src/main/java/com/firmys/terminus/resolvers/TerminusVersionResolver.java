@@ -0,0 +1,30 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * TerminusVersionResolver reads the requested version from one part of a request.
+ * <p>
+ * Resolvers are chained by {@link TerminusVersionResolvers}, which validates what they return
+ * against the declared versions. A resolver only extracts the raw value and returns
+ * {@code null} when its part of the request carries no version. Custom resolvers registered
+ * as beans are consulted before the built-in ones.
+ */
+public interface TerminusVersionResolver {
+
+    /**
+     * @return the raw requested version, or {@code null} if the request does not carry one
+     */
+    <R> String resolveVersion(R request, TerminusRequestAccessor<R> accessor);
+
+    /**
+     * @return the part of the request this resolver reads
+     */
+    TerminusVersionSource source();
+
+    /**
+     * @return the request header this resolver reads, listed in the {@code Vary} header of
+     * responses, or {@code null} if it reads no header
+     */
+    default String varyHeader() {
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.firmys.terminus.resolvers;
+
+import com.firmys.terminus.TerminusConstants;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the {@link TerminusVersionResolvers} chain used by the Terminus handler mappings and
+ * filters.
+ * <pre>
+ * Order of the chain:
+ * 1. `TerminusVersionResolver` beans, in their declared order.
+ * 2. `terminus.version.header`: header name, `X-Terminus-Version` by default.
+ * 3. `terminus.version.media-type-parameter`: `Accept` media type parameter, `version` by default.
+ * 4. `terminus.version.query-parameter`: query parameter, off by default.
+ * 5. `terminus.version.path-segment`: first path segment when `true`, off by default.
+ *
+ * Setting a name property to an empty value turns that source off.
+ * </pre>
+ */
+@Configuration
+public class TerminusVersionResolverConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TerminusVersionResolvers.class)
+    TerminusVersionResolvers terminusVersionResolvers(
+            ObjectProvider<TerminusVersionResolver> customResolvers,
+            @Value("${terminus.version.header:" + TerminusConstants.TERMINUS_VERSION_HEADER + "}") String header,
+            @Value("${terminus.version.media-type-parameter:version}") String mediaTypeParameter,
+            @Value("${terminus.version.query-parameter:}") String queryParameter,
+            @Value("${terminus.version.path-segment:false}") boolean pathSegment) {
+
+        List<TerminusVersionResolver> resolvers = new ArrayList<>(customResolvers.orderedStream().toList());
+        if (!header.isBlank()) {
+            resolvers.add(new HeaderVersionResolver(header));
+        }
+        if (!mediaTypeParameter.isBlank()) {
+            resolvers.add(new MediaTypeVersionResolver(mediaTypeParameter));
+        }
+        if (!queryParameter.isBlank()) {
+            resolvers.add(new QueryParameterVersionResolver(queryParameter));
+        }
+        if (pathSegment) {
+            resolvers.add(new PathSegmentVersionResolver());
+        }
+        return new TerminusVersionResolvers(resolvers);
+    }
+}
@@ -0,0 +1,103 @@
+package com.firmys.terminus.resolvers;
+
+import com.firmys.terminus.TerminusConstants;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
+
+/**
+ * TerminusVersionResolvers chains {@link TerminusVersionResolver}s and resolves the version of
+ * a request in a single pass over them.
+ * <pre>
+ * Resolution:
+ * - Resolvers are consulted in order. The first value naming a declared version wins.
+ * - Values naming no declared version are skipped, so a later source can still resolve. When
+ *   none resolves, the first such value is reported as unknown.
+ * - A path segment only counts when it names a declared version exactly; otherwise it is an
+ *   ordinary path and never reported as unknown.
+ *
+ * Default chain, see {@link #DEFAULT}:
+ * 1. `X-Terminus-Version` header
+ * 2. `version` parameter of an `Accept` media type
+ * </pre>
+ * The handler mappings cache the result as a request attribute, so each request is resolved
+ * once however many components ask for its version.
+ * <p>
+ * As responses depend on the headers the resolvers read, the filters list them in the
+ * {@code Vary} header of every response, see {@link #getVaryHeader()}.
+ */
+public class TerminusVersionResolvers {
+
+    public static final TerminusVersionResolvers DEFAULT = new TerminusVersionResolvers(List.of(
+            new HeaderVersionResolver(TerminusConstants.TERMINUS_VERSION_HEADER),
+            new MediaTypeVersionResolver("version")));
+
+    private final TerminusVersionResolver[] resolvers;
+
+    private final String varyHeader;
+
+    public TerminusVersionResolvers(List<? extends TerminusVersionResolver> resolvers) {
+        this.resolvers = resolvers.toArray(new TerminusVersionResolver[0]);
+        String vary = Arrays.stream(this.resolvers)
+                .map(TerminusVersionResolver::varyHeader)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.joining(", "));
+        this.varyHeader = vary.isEmpty() ? null : vary;
+    }
+
+    /**
+     * Resolves the version of a request.
+     *
+     * @param request  the request to read
+     * @param accessor reads the parts of the request
+     * @param declared maps a raw version to the canonical declared version serving it, or to
+     *                 {@code null} when no declared version can
+     */
+    public <R> TerminusVersionResolution resolve(R request, TerminusRequestAccessor<R> accessor,
+                                                 UnaryOperator<String> declared) {
+        String unknown = null;
+        TerminusVersionSource unknownSource = null;
+        for (TerminusVersionResolver resolver : resolvers) {
+            String requested = resolver.resolveVersion(request, accessor);
+            if (requested == null) {
+                continue;
+            }
+            String version = declared.apply(requested);
+            if (resolver.source() == TerminusVersionSource.PATH) {
+                if (version != null && version.equals(requested)) {
+                    return new TerminusVersionResolution(version, requested, resolver.source());
+                }
+                continue;
+            }
+            if (version != null) {
+                return new TerminusVersionResolution(version, requested, resolver.source());
+            }
+            if (unknown == null) {
+                unknown = requested;
+                unknownSource = resolver.source();
+            }
+        }
+        return unknown != null
+                ? new TerminusVersionResolution(null, unknown, unknownSource)
+                : TerminusVersionResolution.NONE;
+    }
+
+    /**
+     * @return the value of the {@code Vary} header for the request headers read by this chain,
+     * e.g. {@code X-Terminus-Version, Accept}, or {@code null} if it reads none
+     */
+    public String getVaryHeader() {
+        return varyHeader;
+    }
+
+    /**
+     * @return the resolvers of this chain, in order
+     */
+    public List<TerminusVersionResolver> getResolvers() {
+        return List.of(resolvers);
+    }
+}
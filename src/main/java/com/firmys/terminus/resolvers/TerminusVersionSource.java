@@ -0,0 +1,27 @@
+package com.firmys.terminus.resolvers;
+
+/**
+ * The part of a request a version was read from.
+ */
+public enum TerminusVersionSource {
+
+    /**
+     * A request header, {@code X-Terminus-Version} by default.
+     */
+    HEADER,
+
+    /**
+     * A parameter of an {@code Accept} media type, e.g. {@code application/vnd.x+json;version=2}.
+     */
+    MEDIA_TYPE,
+
+    /**
+     * A query parameter, e.g. {@code ?version=2}.
+     */
+    QUERY_PARAMETER,
+
+    /**
+     * The first segment of the request path, e.g. {@code /2/resource}.
+     */
+    PATH
+}
@@ -0,0 +1,338 @@
+package com.firmys.terminus.transform;
+
+import com.firmys.terminus.annotations.TerminusDowngrade;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TerminusResponseTransform reshapes the JSON responses of a handler method for an older version
+ * it serves through {@link TerminusDowngrade}, removing and renaming fields.
+ * <p>
+ * Responses are rewritten as a stream of tokens, by a {@link TerminusTransformingGenerator}
+ * placed between the serializer and the output, so a downgraded response costs about what the
+ * same response costs for the handler's own versions. No tree is built and no copy of the
+ * response is kept.
+ * <pre>
+ * Applied by:
+ * - Spring MVC: {@link TerminusResponseTransformAdvice}, wrapping bodies into a
+ *   {@link TerminusTransformedBody} serialized through the transforming generator. Bodies
+ *   already rendered as a JSON `String` are parsed and copied through it.
+ * - WebFlux: {@link TerminusTransformingResponse}, feeding the encoded body to a non-blocking
+ *   parser buffer by buffer, see {@link #rewriter}. Server-sent events are scanned line by
+ *   line and only the JSON values of their `data` lines are parsed, see {@link #eventStreamRewriter}.
+ * </pre>
+ * The handler mappings select the transform of the version a request resolved to and keep it
+ * under {@link #ATTRIBUTE}.
+ */
+public final class TerminusResponseTransform {
+
+    public static final String ATTRIBUTE = TerminusResponseTransform.class.getName();
+
+    static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String version;
+
+    private final Rule root;
+
+    private TerminusResponseTransform(String version, Rule root) {
+        this.version = version;
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalStateException if a rename is not given as {@code path=name}, or a field is
+     *                               both removed and renamed
+     */
+    public static TerminusResponseTransform of(TerminusDowngrade downgrade) {
+        Rule root = new Rule();
+        for (String path : downgrade.remove()) {
+            root.path(path).remove = true;
+        }
+        for (String rename : downgrade.rename()) {
+            int separator = rename.indexOf('=');
+            if (separator <= 0 || separator == rename.length() - 1) {
+                throw new IllegalStateException("TerminusDowngrade for version '" + downgrade.version()
+                        + "' renames '" + rename + "', expected 'path=name'");
+            }
+            Rule rule = root.path(rename.substring(0, separator).trim());
+            if (rule.remove) {
+                throw new IllegalStateException("TerminusDowngrade for version '" + downgrade.version()
+                        + "' both removes and renames '" + rename.substring(0, separator).trim() + "'");
+            }
+            rule.rename = new SerializedString(rename.substring(separator + 1).trim());
+        }
+        return new TerminusResponseTransform(downgrade.version(), root);
+    }
+
+    /**
+     * @return {@code true} for the media types rewritten: JSON, {@code +json} types and NDJSON
+     */
+    public static boolean isJson(MediaType mediaType) {
+        return mediaType != null
+                && (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+                || MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)
+                || (mediaType.getSubtypeSuffix() != null && mediaType.getSubtypeSuffix().equals("json")));
+    }
+
+    /**
+     * @return {@code true} for server-sent events, whose {@code data} lines holding JSON are rewritten
+     */
+    public static boolean isEventStream(MediaType mediaType) {
+        return mediaType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(mediaType);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * @return a generator writing the tokens written to it, transformed, to the given one
+     */
+    public JsonGenerator transform(JsonGenerator generator) {
+        return new TerminusTransformingGenerator(generator, root);
+    }
+
+    /**
+     * Transforms a response already rendered as JSON text.
+     */
+    public String transform(String json) {
+        StringWriter writer = new StringWriter(json.length());
+        try (JsonParser parser = JSON_FACTORY.createParser(json);
+             JsonGenerator generator = transform(JSON_FACTORY.createGenerator(writer))) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * @param lineDelimited whether the response holds one value per line, as NDJSON does
+     * @return a rewriter for one response, fed as its body is written
+     */
+    public Rewriter rewriter(boolean lineDelimited) {
+        return new Rewriter(lineDelimited, false);
+    }
+
+    /**
+     * @return a rewriter for one server-sent event stream, rewriting the JSON objects and arrays
+     * of its {@code data} lines and passing every other line as it is
+     */
+    public Rewriter eventStreamRewriter() {
+        return new Rewriter(false, true);
+    }
+
+    /**
+     * Rewrites the bytes of one response as they arrive, holding only the token being parsed
+     * between two chunks.
+     * <p>
+     * Chunks are consumed before {@link #feed} returns, so callers may reuse the array they feed.
+     */
+    public final class Rewriter {
+
+        private static final byte[] DATA = "data:".getBytes(StandardCharsets.US_ASCII);
+
+        private static final int LINE_START = 0;
+        private static final int DATA_START = 1;
+        private static final int DATA_JSON = 2;
+        private static final int PASS = 3;
+
+        private final JsonParser parser;
+
+        private final ByteArrayBuilder output = new ByteArrayBuilder(512);
+
+        private final JsonGenerator generator;
+
+        private final boolean lineDelimited;
+
+        private final boolean eventStream;
+
+        private int lineState = LINE_START;
+
+        private int prefixLength;
+
+        private Rewriter(boolean lineDelimited, boolean eventStream) {
+            this.lineDelimited = lineDelimited;
+            this.eventStream = eventStream;
+            try {
+                parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+                JsonGenerator target = JSON_FACTORY.createGenerator(output);
+                if (lineDelimited || eventStream) {
+                    target.setRootValueSeparator(null);
+                }
+                generator = transform(target);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        /**
+         * @return the rewritten bytes available once the chunk is parsed, possibly none
+         */
+        public byte[] feed(byte[] chunk) {
+            return feed(chunk, chunk.length);
+        }
+
+        /**
+         * @param length the number of bytes of {@code chunk} to feed, from its start
+         * @return the rewritten bytes available once the chunk is parsed, possibly none
+         */
+        public byte[] feed(byte[] chunk, int length) {
+            try {
+                if (eventStream) {
+                    feedEvents(chunk, length);
+                } else {
+                    feedJson(chunk, 0, length);
+                }
+                return take();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        /**
+         * @return the rewritten bytes left once the body is complete
+         */
+        public byte[] finish() {
+            try {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+                copyAvailable();
+                parser.close();
+                generator.close();
+                output.write(DATA, 0, prefixLength);
+                return take();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void feedJson(byte[] chunk, int start, int end) throws IOException {
+            if (start < end) {
+                ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk, start, end);
+                copyAvailable();
+                generator.flush();
+            }
+        }
+
+        /*
+         * Scans the stream line by line. The value of a `data:` line starting with an object or
+         * an array is fed to the parser up to its line end; any other line, the field names and
+         * line ends included, is copied as it is. A `data:` prefix split between two chunks is
+         * held until it is complete.
+         */
+        private void feedEvents(byte[] chunk, int length) throws IOException {
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                byte b = chunk[i];
+                switch (lineState) {
+                    case LINE_START -> {
+                        if (b == DATA[prefixLength]) {
+                            if (++prefixLength == DATA.length) {
+                                output.write(DATA);
+                                prefixLength = 0;
+                                lineState = DATA_START;
+                            }
+                        } else {
+                            output.write(DATA, 0, prefixLength);
+                            prefixLength = 0;
+                            output.append(b);
+                            lineState = b == '\n' ? LINE_START : PASS;
+                        }
+                    }
+                    case DATA_START -> {
+                        if (b == '{' || b == '[') {
+                            lineState = DATA_JSON;
+                            start = i;
+                        } else {
+                            output.append(b);
+                            lineState = b == '\n' ? LINE_START : b == ' ' ? DATA_START : PASS;
+                        }
+                    }
+                    case DATA_JSON -> {
+                        if (b == '\n') {
+                            feedJson(chunk, start, i);
+                            output.append(b);
+                            lineState = LINE_START;
+                        }
+                    }
+                    default -> {
+                        output.append(b);
+                        if (b == '\n') {
+                            lineState = LINE_START;
+                        }
+                    }
+                }
+            }
+            if (lineState == DATA_JSON) {
+                feedJson(chunk, start, length);
+            }
+        }
+
+        private void copyAvailable() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                generator.copyCurrentEvent(parser);
+                // Each line is ended as soon as its value is, so no line waits for the next one
+                if (lineDelimited && parser.getParsingContext().inRoot()) {
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+
+        private byte[] take() {
+            byte[] bytes = output.toByteArray();
+            output.reset();
+            return bytes;
+        }
+    }
+
+    /*
+     * The rules for the fields of one object, keyed by field name. Each rule holds the rules
+     * for the fields of its own value, when that is an object or an array of objects.
+     */
+    static final class Rule {
+
+        private final Map<String, Rule> children = new HashMap<>();
+
+        private boolean remove;
+
+        private SerializedString rename;
+
+        Rule child(String name) {
+            return children.isEmpty() ? null : children.get(name);
+        }
+
+        boolean remove() {
+            return remove;
+        }
+
+        SerializedString rename() {
+            return rename;
+        }
+
+        private Rule path(String path) {
+            Rule rule = this;
+            for (String name : path.split("\\.")) {
+                rule = rule.children.computeIfAbsent(name, key -> new Rule());
+            }
+            return rule;
+        }
+    }
+}
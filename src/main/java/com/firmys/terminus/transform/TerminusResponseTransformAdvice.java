@@ -0,0 +1,70 @@
+package com.firmys.terminus.transform;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Applies the {@link TerminusResponseTransform} selected for a request by
+ * {@link TerminusMvcHandlerMapping} to its JSON body, right before it is written.
+ * <pre>
+ * - bodies written by a Jackson converter are wrapped into a {@link TerminusTransformedBody},
+ *   so they are rewritten while they are serialized.
+ * - bodies already rendered as JSON text are parsed and rewritten token by token.
+ * - any other body is written as it is.
+ * </pre>
+ * Runs after every other advice, so bodies stored by {@code TerminusMemoize} or shared by a
+ * single flight are the handler's own, and are transformed again for each request.
+ */
+@ControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnClass(WebMvcConfigurer.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TerminusResponseTransformAdvice implements ResponseBodyAdvice<Object> {
+
+    private final TerminusMvcHandlerMapping handlerMapping;
+
+    public TerminusResponseTransformAdvice(TerminusMvcHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return handlerMapping.hasResponseTransforms()
+                && (AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                || StringHttpMessageConverter.class.isAssignableFrom(converterType));
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null
+                || !TerminusResponseTransform.isJson(selectedContentType)
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(TerminusResponseTransform.ATTRIBUTE)
+                instanceof TerminusResponseTransform transform)) {
+            return body;
+        }
+        if (body instanceof String json) {
+            return StringHttpMessageConverter.class.isAssignableFrom(selectedConverterType)
+                    ? transform.transform(json)
+                    : body;
+        }
+        return new TerminusTransformedBody(body, transform);
+    }
+}
@@ -0,0 +1,35 @@
+package com.firmys.terminus.transform;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A response body to be serialized through a {@link TerminusResponseTransform}. Jackson
+ * serializes the body as it would on its own, but through the transforming generator, so the
+ * transform costs no more than the fields it touches.
+ *
+ * @param body      the body returned by the handler method
+ * @param transform the transform of the version requested
+ */
+@JsonSerialize(using = TerminusTransformedBody.Serializer.class)
+public record TerminusTransformedBody(Object body, TerminusResponseTransform transform) {
+
+    public static class Serializer extends StdSerializer<TerminusTransformedBody> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serializer() {
+            super(TerminusTransformedBody.class);
+        }
+
+        @Override
+        public void serialize(TerminusTransformedBody value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            provider.defaultSerializeValue(value.body(), value.transform().transform(generator));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.firmys.terminus.transform;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Applies the rules of a {@link TerminusResponseTransform} to the tokens written through it,
+ * whether by a Jackson serializer or copied from a parser.
+ * <pre>
+ * - the rule of each open object or array is kept on a stack, so a field name is looked up
+ *   among the rules of its parent only, without building paths.
+ * - a renamed field is written under its new name.
+ * - a removed field is not written, and neither is its value: writes are switched to a sink
+ *   until the next field of the parent object, or its end.
+ * </pre>
+ */
+final class TerminusTransformingGenerator extends JsonGeneratorDelegate {
+
+    private final JsonGenerator target;
+
+    private final TerminusResponseTransform.Rule root;
+
+    private TerminusResponseTransform.Rule[] rules = new TerminusResponseTransform.Rule[8];
+
+    private boolean[] arrays = new boolean[8];
+
+    private int depth;
+
+    private TerminusResponseTransform.Rule field;
+
+    private JsonGenerator sink;
+
+    private boolean skipping;
+
+    private int skipDepth;
+
+    TerminusTransformingGenerator(JsonGenerator target, TerminusResponseTransform.Rule root) {
+        super(target, false);
+        this.target = target;
+        this.root = root;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        TerminusResponseTransform.Rule rule = fieldRule(name);
+        if (rule == null) {
+            delegate.writeFieldName(name);
+        } else if (rule.rename() != null) {
+            delegate.writeFieldName(rule.rename());
+        } else if (!rule.remove()) {
+            delegate.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        TerminusResponseTransform.Rule rule = fieldRule(name.getValue());
+        if (rule == null) {
+            delegate.writeFieldName(name);
+        } else if (rule.rename() != null) {
+            delegate.writeFieldName(rule.rename());
+        } else if (!rule.remove()) {
+            delegate.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeFieldId(long id) throws IOException {
+        writeFieldName(Long.toString(id));
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        enter(false);
+        delegate.writeStartObject();
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        enter(false);
+        delegate.writeStartObject(forValue);
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        enter(false);
+        delegate.writeStartObject(forValue, size);
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        enter(true);
+        delegate.writeStartArray();
+    }
+
+    @Override
+    @Deprecated
+    public void writeStartArray(int size) throws IOException {
+        enter(true);
+        delegate.writeStartArray(delegate.currentValue(), size);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        enter(true);
+        delegate.writeStartArray(forValue);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        enter(true);
+        delegate.writeStartArray(forValue, size);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        exit();
+        delegate.writeEndObject();
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        exit();
+        delegate.writeEndArray();
+    }
+
+    /*
+     * Returns the rule of a field of the current object, or `null` when it has none or the
+     * field lies within a removed value, which is written to the sink as it is. Ends the
+     * removed value preceding the field, if any.
+     */
+    private TerminusResponseTransform.Rule fieldRule(String name) {
+        if (skipping) {
+            if (skipDepth > 0) {
+                return null;
+            }
+            stopSkipping();
+        }
+        TerminusResponseTransform.Rule parent = depth > 0 ? rules[depth - 1] : null;
+        TerminusResponseTransform.Rule rule = parent != null ? parent.child(name) : null;
+        field = rule;
+        if (rule != null && rule.remove()) {
+            startSkipping();
+        }
+        return rule;
+    }
+
+    private void enter(boolean array) {
+        if (skipping) {
+            skipDepth++;
+            return;
+        }
+        if (depth == rules.length) {
+            rules = Arrays.copyOf(rules, depth * 2);
+            arrays = Arrays.copyOf(arrays, depth * 2);
+        }
+        // Elements of an array share its rule, so arrays are transparent to paths
+        rules[depth] = depth == 0 ? root : arrays[depth - 1] ? rules[depth - 1] : field;
+        arrays[depth++] = array;
+        field = null;
+    }
+
+    private void exit() {
+        if (skipping) {
+            if (skipDepth > 0) {
+                skipDepth--;
+                return;
+            }
+            stopSkipping();
+        }
+        depth--;
+    }
+
+    private void startSkipping() {
+        if (sink == null) {
+            try {
+                sink = TerminusResponseTransform.JSON_FACTORY.createGenerator(Writer.nullWriter());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            sink.setCodec(target.getCodec());
+        }
+        delegate = sink;
+        skipping = true;
+        skipDepth = 0;
+    }
+
+    private void stopSkipping() {
+        delegate = target;
+        skipping = false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.firmys.terminus.transform;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the {@link TerminusResponseTransform} selected for an exchange by the reactive handler
+ * mapping to its JSON body, buffer by buffer as the body is written, the WebFlux counterpart of
+ * {@link TerminusResponseTransformAdvice}.
+ * <p>
+ * WebFlux encodes bodies straight into buffers, so the encoded body is fed to the non-blocking
+ * parser of a {@link TerminusResponseTransform.Rewriter} and each buffer is replaced by what it
+ * rewrites to. Streamed bodies keep their flush boundaries and NDJSON keeps one value per line.
+ * Server-sent events keep their fields and only have the JSON of their {@code data} lines
+ * rewritten. Exchanges without a transform, or with a body that is neither, are written as they are.
+ * <p>
+ * Bodies are rewritten element by element: each buffer is rewritten when the server requests
+ * it and released before the next one is, through one input array reused for the whole
+ * response, so the memory held does not grow with the length of the stream.
+ */
+public class TerminusTransformingResponse extends ServerHttpResponseDecorator {
+
+    private final ServerWebExchange exchange;
+
+    private byte[] input = new byte[0];
+
+    public TerminusTransformingResponse(ServerWebExchange exchange) {
+        super(exchange.getResponse());
+        this.exchange = exchange;
+    }
+
+    @NonNull
+    @Override
+    public Mono<Void> writeWith(@NonNull Publisher<? extends DataBuffer> body) {
+        TerminusResponseTransform.Rewriter rewriter = rewriter();
+        if (rewriter == null) {
+            return super.writeWith(body);
+        }
+        return super.writeWith(rewrite(body, rewriter).concatWith(finish(rewriter)));
+    }
+
+    @NonNull
+    @Override
+    public Mono<Void> writeAndFlushWith(@NonNull Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        TerminusResponseTransform.Rewriter rewriter = rewriter();
+        if (rewriter == null) {
+            return super.writeAndFlushWith(body);
+        }
+        return super.writeAndFlushWith(Flux.from(body)
+                .<Publisher<DataBuffer>>map(chunk -> rewrite(chunk, rewriter))
+                .concatWith(Mono.just(finish(rewriter))));
+    }
+
+    /*
+     * The transform is selected once the handler is, so it is looked up when the body is
+     * written rather than when the response is decorated.
+     */
+    private TerminusResponseTransform.Rewriter rewriter() {
+        TerminusResponseTransform transform = exchange.getAttribute(TerminusResponseTransform.ATTRIBUTE);
+        MediaType contentType = getHeaders().getContentType();
+        if (transform == null) {
+            return null;
+        }
+        if (TerminusResponseTransform.isEventStream(contentType)) {
+            return transform.eventStreamRewriter();
+        }
+        if (!TerminusResponseTransform.isJson(contentType)) {
+            return null;
+        }
+        getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return transform.rewriter(MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType));
+    }
+
+    private Flux<DataBuffer> rewrite(Publisher<? extends DataBuffer> body, TerminusResponseTransform.Rewriter rewriter) {
+        DataBufferFactory bufferFactory = bufferFactory();
+        return Flux.from(body).handle((buffer, sink) -> {
+            int length = buffer.readableByteCount();
+            if (input.length < length) {
+                input = new byte[length];
+            }
+            buffer.read(input, 0, length);
+            DataBufferUtils.release(buffer);
+            byte[] rewritten = rewriter.feed(input, length);
+            if (rewritten.length > 0) {
+                sink.next(bufferFactory.wrap(rewritten));
+            }
+        });
+    }
+
+    private Mono<DataBuffer> finish(TerminusResponseTransform.Rewriter rewriter) {
+        return Mono.fromSupplier(rewriter::finish)
+                .filter(bytes -> bytes.length > 0)
+                .map(bufferFactory()::wrap);
+    }
+}
@@ -1,6 +1,14 @@
 package com.firmys.terminus;
 
+import com.firmys.terminus.controllers.TestLatestV0Controller;
+import com.firmys.terminus.controllers.TestVirtualThreadController;
+import com.firmys.terminus.deprecation.TerminusVersionDeprecation;
+import com.firmys.terminus.execution.TerminusBulkhead;
+import com.firmys.terminus.execution.TerminusSingleFlight;
 import com.firmys.terminus.filters.TerminusVersionFilter;
+import com.firmys.terminus.metrics.MicrometerTerminusMetrics;
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionSource;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,25 +16,68 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
-@SpringBootTest(classes = TerminusTestApp.class)
+@SpringBootTest(classes = TerminusTestApp.class, properties = {
+        "terminus.version.query-parameter=version",
+        "terminus.version.path-segment=true",
+        "terminus.limits.versions[limited].permits-per-second=1",
+        "terminus.limits.versions[limited].burst=2",
+        "terminus.management.enabled=true",
+        "terminus.version.aliases.current=2",
+        "terminus.version.fallbacks.legacy=2"})
+@Import(TerminusControllerTests.MeterRegistryConfig.class)
 class TerminusControllerTests {
 
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private TerminusVersionFilter terminusVersionFilter;
 
+    @Autowired
+    private TerminusMvcHandlerMapping handlerMapping;
+
+    @Autowired
+    private TestLatestV0Controller latestV0Controller;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -42,4 +93,484 @@ class TerminusControllerTests {
                 .headers(headers)).andExpect(status().isOk()).andReturn();
         Assertions.assertNotNull(result);
     }
+
+    @Test
+    void shouldRouteVersionHeaderWithoutRewritingUri() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+    }
+
+    @Test
+    void shouldRouteEachVersionedHandlerOfController() throws Exception {
+        this.mockMvc.perform(get("/test/details")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("details for versions 0, 1, 2"));
+        this.mockMvc.perform(get("/2/test/details"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("details for versions 0, 1, 2"));
+    }
+
+    @Test
+    void shouldMatchMethodAndMediaTypeOfVersionedHandlers() throws Exception {
+        this.mockMvc.perform(post("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("created for versions 0, 1, 2"));
+        this.mockMvc.perform(post("/1/test"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("created for versions 0, 1, 2"));
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"versions\": [0, 1, 2]}"));
+        this.mockMvc.perform(get("/1/test").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"));
+    }
+
+    @Test
+    void shouldRouteToHighestCompatibleVersion() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+    }
+
+    @Test
+    void shouldRouteVersionWithinDeclaredRange() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "3.2.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 3.x"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "[3.0,4.0)"));
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "4.0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("latest version"));
+    }
+
+    @Test
+    void shouldResolveVersionFromMediaTypeParameter() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .accept("application/vnd.terminus+json;version=2, text/plain;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "2"));
+    }
+
+    @Test
+    void shouldResolveVersionFromQueryParameter() throws Exception {
+        this.mockMvc.perform(get("/test").queryParam("version", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE,
+                        new TerminusVersionResolution("0", "0", TerminusVersionSource.QUERY_PARAMETER)));
+    }
+
+    @Test
+    void shouldResolveVersionFromPathSegment() throws Exception {
+        this.mockMvc.perform(get("/2/test/details"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("details for versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_RESOLUTION_ATTRIBUTE,
+                        new TerminusVersionResolution("2", "2", TerminusVersionSource.PATH)));
+    }
+
+    @Test
+    void shouldPreferHeaderOverOtherVersionSources() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                        .queryParam("version", "3.1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+    }
+
+    @Test
+    void shouldTreatUnknownVersionAsUnversioned() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "9"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("latest version"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, nullValue()));
+    }
+
+    @Test
+    void shouldRecordVersionMetrics() throws Exception {
+        double requested = meterRegistry.counter(MicrometerTerminusMetrics.REQUESTS, "version", "2").count();
+        double unknown = meterRegistry.counter(MicrometerTerminusMetrics.UNKNOWN).count();
+
+        this.mockMvc.perform(get("/test").header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/test").header(TerminusConstants.TERMINUS_VERSION_HEADER, "9"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(requested + 1,
+                meterRegistry.counter(MicrometerTerminusMetrics.REQUESTS, "version", "2").count());
+        Assertions.assertEquals(unknown + 1, meterRegistry.counter(MicrometerTerminusMetrics.UNKNOWN).count());
+        Assertions.assertNotNull(meterRegistry.find(MicrometerTerminusMetrics.RESOLUTION)
+                .tags("version", "2", "endpoint", "TestLatestV0Controller#test")
+                .timer());
+    }
+
+    @Test
+    void shouldVaryResponsesByVersionSources() throws Exception {
+        this.mockMvc.perform(get("/test"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, "X-Terminus-Version, Accept"));
+    }
+
+    @Test
+    void shouldAnswerMatchingETagWithNotModified() throws Exception {
+        String etag = this.mockMvc.perform(get("/test/cached")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("cached for versions 0, 1, 2"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+
+        this.mockMvc.perform(get("/test/cached")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        this.mockMvc.perform(get("/test/cached")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldServeMemoizedResponsesWithoutInvokingHandler() throws Exception {
+        String first = this.mockMvc.perform(get("/test/memoized?id=a")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        this.mockMvc.perform(get("/test/memoized?id=a&ignored=x")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(first));
+        this.mockMvc.perform(get("/test/memoized?id=b")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(first)));
+        this.mockMvc.perform(get("/test/memoized?id=a")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(first)));
+
+        Assertions.assertEquals(1.0, meterRegistry.get("terminus.response.cache")
+                .tags("endpoint", "TestLatestV0Controller#memoized", "result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequestsIntoOneInvocation() throws Exception {
+        TerminusSingleFlight singleFlight = handlerMapping.getSingleFlight(
+                ClassUtils.getMethod(TestLatestV0Controller.class, "coalesced"));
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (String query : new String[]{"a=1&b=2", "b=2&a=1", "a=1&b=2"}) {
+            responses.add(CompletableFuture.supplyAsync(() -> perform(get("/test/coalesced?" + query)
+                    .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))));
+            while (singleFlight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        while (singleFlight.coalesced() < 2) {
+            Thread.onSpinWait();
+        }
+        latestV0Controller.releaseCoalesced();
+
+        for (CompletableFuture<String> response : responses) {
+            Assertions.assertEquals("lookup 1", response.join());
+        }
+        Assertions.assertEquals(0, singleFlight.inFlight());
+        Assertions.assertEquals(2.0, meterRegistry.get(MicrometerTerminusMetrics.COALESCED)
+                .tag("endpoint", "TestLatestV0Controller#coalesced").counter().count());
+    }
+
+    private String perform(RequestBuilder request) {
+        try {
+            return this.mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    void shouldRunVirtualThreadHandlersOnVirtualThreads() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/test/thread")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "legacy"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("virtual true"));
+    }
+
+    @Test
+    void shouldRejectRequestsBeyondVersionConcurrencyLimit() throws Exception {
+        TerminusBulkhead bulkhead = handlerMapping.getBulkheads().get(TestVirtualThreadController.class).get("legacy");
+        Assertions.assertTrue(bulkhead.tryAcquire());
+        try {
+            this.mockMvc.perform(get("/test/thread")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "legacy"))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            bulkhead.release();
+        }
+        Assertions.assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void shouldAnnounceDeprecatedVersionsAndTrackTheirClients() throws Exception {
+        for (int i = 0; i < 400; i++) {
+            this.mockMvc.perform(get("/test/details")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "legacy")
+                            .header(HttpHeaders.USER_AGENT, "legacy-app"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(TerminusVersionDeprecation.DEPRECATION_HEADER, "@1748736000"))
+                    .andExpect(header().string(TerminusVersionDeprecation.SUNSET_HEADER,
+                            "Thu, 01 Jan 2026 00:00:00 GMT"))
+                    .andExpect(header().string(TerminusVersionDeprecation.LINK_HEADER,
+                            "<https://example.com/migrating-from-legacy>; rel=\"deprecation\"; type=\"text/html\""));
+        }
+        this.mockMvc.perform(get("/test/details")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(TerminusVersionDeprecation.DEPRECATION_HEADER));
+
+        TerminusVersionDeprecation.Report legacy = handlerMapping.getDeprecationReport().get(0);
+        Assertions.assertEquals("legacy", legacy.version());
+        Assertions.assertTrue(legacy.requests() >= 400);
+        Assertions.assertTrue(meterRegistry.get(MicrometerTerminusMetrics.DEPRECATED)
+                .tag("version", "legacy").counter().count() >= 400);
+        this.mockMvc.perform(get("/terminus/versions/deprecations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].version").value("legacy"))
+                .andExpect(jsonPath("$[0].clients[0].client").value("legacy-app"));
+    }
+
+    @Test
+    void shouldRejectRequestsBeyondVersionRateLimitBeforeHandlerLookup() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(get("/test/limited")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "limited"))
+                    .andExpect(status().isOk());
+        }
+        this.mockMvc.perform(get("/test/limited")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "limited"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(request().attribute(TerminusMvcHandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, nullValue()));
+
+        Assertions.assertEquals(1.0, meterRegistry.get(MicrometerTerminusMetrics.REJECTED)
+                .tag("version", "limited").tag("reason", "rate-limit").counter().count());
+    }
+
+    @Test
+    void shouldDisableAliasAndRedirectVersionsAtRuntime() throws Exception {
+        TerminusVersionOverrides configured = handlerMapping.getVersionOverrides();
+        try {
+            this.mockMvc.perform(post("/terminus/versions/0/disable"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.disabled[0]").value("0"));
+            this.mockMvc.perform(put("/terminus/versions/aliases/stable").param("target", "1"))
+                    .andExpect(status().isOk());
+            this.mockMvc.perform(put("/terminus/versions/redirects/2").param("target", "[3.0,4.0)"))
+                    .andExpect(status().isOk());
+            this.mockMvc.perform(put("/terminus/versions/redirects/1").param("target", "2"))
+                    .andExpect(status().isBadRequest());
+
+            this.mockMvc.perform(get("/test")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0"))
+                    .andExpect(status().isGone());
+            this.mockMvc.perform(get("/test")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "stable"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("versions 0, 1, 2"))
+                    .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+            this.mockMvc.perform(get("/test")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("versions 3.x"));
+        } finally {
+            handlerMapping.updateVersionOverrides(overrides -> configured);
+        }
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRegisterOneMappingPerHandlerMethod() throws Exception {
+        List<RequestMappingInfo> details = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(entry -> entry.getValue().getBeanType() == TestLatestV0Controller.class
+                        && entry.getValue().getMethod().getName().equals("details"))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        Assertions.assertEquals(1, details.size());
+        Assertions.assertEquals(Set.of("/0/test/details", "/1/test/details", "/2/test/details"),
+                details.get(0).getPatternValues());
+    }
+
+    @Test
+    void shouldReportVersionedRoutesWithHitCounts() throws Exception {
+        long before = route("TestLatestV0Controller#details").hits();
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc.perform(get("/test/details")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1"))
+                    .andExpect(status().isOk());
+        }
+
+        TerminusRouteReport.RouteEntry details = route("TestLatestV0Controller#details");
+        Assertions.assertTrue(details.hits() >= before + 3);
+        Assertions.assertEquals(List.of("0", "1", "2"), details.versions().stream().sorted().toList());
+        Assertions.assertEquals(Set.of("GET"), details.methods());
+        Assertions.assertTrue(handlerMapping.getRouteReport().collisions().isEmpty());
+        Assertions.assertTrue(details.latencies().get("1").count() >= 3);
+        Assertions.assertTrue(details.latencies().get("1").p99Nanos() > 0);
+
+        this.mockMvc.perform(get("/terminus/versions/routes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.versions[?(@.version == '[3.0,4.0)')].patternRoutes").value(0))
+                .andExpect(jsonPath("$.versions[?(@.version == 'legacy')].candidates[1]").value("2"))
+                .andExpect(jsonPath("$.routes[?(@.handler == 'TestLatestV0Controller#details')].paths[0]")
+                        .value("/test/details"));
+        this.mockMvc.perform(get("/terminus/versions/latencies"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['1']['TestLatestV0Controller#details'].p50Nanos").isNumber());
+    }
+
+    private TerminusRouteReport.RouteEntry route(String handler) {
+        return handlerMapping.getRouteReport().routes().stream()
+                .filter(route -> route.handler().equals(handler))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void shouldServeDowngradedVersionFromLatestHandler() throws Exception {
+        String downgraded = "{\"name\":\"Ada\",\"addresses\":[{\"city\":\"London\"},{\"city\":\"Oxford\"}]}";
+        this.mockMvc.perform(get("/test/profile")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0.9"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(downgraded, JsonCompareMode.STRICT));
+        this.mockMvc.perform(get("/0.9/test/profile"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(downgraded, JsonCompareMode.STRICT));
+        this.mockMvc.perform(get("/test/profile")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Ada"))
+                .andExpect(jsonPath("$.email").value("ada@example.com"))
+                .andExpect(jsonPath("$.addresses[1].zip").value("OX1"));
+    }
+
+    @Test
+    void shouldResolvePathPrefixedVersionsFromRouteTable() throws Exception {
+        long before = route("TestLatestV0Controller#item").hits();
+        this.mockMvc.perform(get("/1/test/items/42"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("item 42 for versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+        this.mockMvc.perform(get("/test/items/7")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("item 7 for versions 0, 1, 2"));
+        this.mockMvc.perform(get("/1/test/items"))
+                .andExpect(status().isNotFound());
+
+        Assertions.assertTrue(route("TestLatestV0Controller#item").hits() >= before + 2);
+    }
+
+    @Test
+    void shouldResolveConfiguredAliasesAndFallbacks() throws Exception {
+        this.mockMvc.perform(get("/test")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "current"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("versions 0, 1, 2"))
+                .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "2"));
+        this.mockMvc.perform(get("/test/details")
+                        .header(TerminusConstants.TERMINUS_VERSION_HEADER, "legacy"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("details for versions 0, 1, 2"));
+
+        TerminusVersionOverrides configured = handlerMapping.getVersionOverrides();
+        try {
+            this.mockMvc.perform(put("/terminus/versions/fallbacks/legacy").param("targets", "limited,1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.fallbacks.legacy[1]").value("1"));
+            this.mockMvc.perform(get("/test/details")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "legacy"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("details for versions 0, 1, 2"));
+        } finally {
+            handlerMapping.updateVersionOverrides(overrides -> configured);
+        }
+    }
+
+    @Test
+    void shouldMoveSplitTrafficToAssignedVersion() throws Exception {
+        try {
+            handlerMapping.updateTrafficSplits(splits -> splits
+                    .share(TerminusTrafficSplits.UNVERSIONED, "1", 100)
+                    .share("current", "0", 100));
+            this.mockMvc.perform(get("/test"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("versions 0, 1, 2"))
+                    .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "1"));
+            this.mockMvc.perform(get("/test")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "current"))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "0"));
+            this.mockMvc.perform(get("/test")
+                            .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(TerminusConstants.TERMINUS_VERSION_ATTRIBUTE, "2"));
+
+            Assertions.assertTrue(meterRegistry.get(MicrometerTerminusMetrics.SPLIT)
+                    .tag("split", TerminusTrafficSplits.UNVERSIONED)
+                    .tag("version", "1")
+                    .tag("outcome", "success")
+                    .timer().count() >= 1);
+            this.mockMvc.perform(put("/terminus/versions/splits/current/undeclared").param("share", "5"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            handlerMapping.updateTrafficSplits(splits -> splits
+                    .remove(TerminusTrafficSplits.UNVERSIONED)
+                    .remove("current"));
+        }
+        this.mockMvc.perform(get("/test"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("latest version"));
+    }
+
+    @Test
+    void shouldRouteToLatestWithoutVersionHeader() throws Exception {
+        this.mockMvc.perform(get("/test"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("latest version"));
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 }
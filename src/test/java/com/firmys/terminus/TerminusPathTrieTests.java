@@ -0,0 +1,61 @@
+package com.firmys.terminus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TerminusPathTrieTests {
+
+    @Test
+    void shouldFindLiteralPathsThroughCollapsedEdges() {
+        TerminusPathTrie<String> trie = TerminusPathTrie.<String>builder()
+                .add("/", "root")
+                .add("/api/internal/orders", "orders")
+                .add("/api/internal/orders/", "orders/")
+                .add("/api/internal/customers", "customers")
+                .add("/status", "status")
+                .build();
+
+        Assertions.assertEquals(List.of("root"), trie.literal("/", 0));
+        Assertions.assertEquals(List.of("orders"), trie.literal("/api/internal/orders", 0));
+        Assertions.assertEquals(List.of("orders/"), trie.literal("/api/internal/orders/", 0));
+        Assertions.assertEquals(List.of("customers"), trie.literal("/api/internal/customers", 0));
+        Assertions.assertEquals(List.of(), trie.literal("/api/internal", 0));
+        Assertions.assertEquals(List.of(), trie.literal("/api/internals/orders", 0));
+        Assertions.assertEquals(List.of(), trie.literal("/statuses", 0));
+        Assertions.assertEquals(List.of(), trie.literal("/api/internal/orders/1", 0));
+    }
+
+    @Test
+    void shouldLookUpPathsAfterVersionPrefix() {
+        TerminusPathTrie<String> trie = TerminusPathTrie.<String>builder()
+                .add("/", "root")
+                .add("/orders", "orders")
+                .build();
+
+        Assertions.assertEquals(List.of("orders"), trie.literal("/1.2/orders", 4));
+        Assertions.assertEquals(List.of("root"), trie.literal("/1.2", 4));
+        Assertions.assertEquals(List.of(), trie.literal("/1.2/customers", 4));
+    }
+
+    @Test
+    void shouldCollectPatternsAlongPathLongestPrefixFirst() {
+        TerminusPathTrie<String> trie = TerminusPathTrie.<String>builder()
+                .add("/{*path}", "catchAll")
+                .add("/orders/{id}", "order")
+                .add("/orders/{id}/items/{item}", "order")
+                .add("/orders/{id}/items", "orderItems")
+                .add("/orders/export/**", "export")
+                .add("/customers/{id}", "customer")
+                .build();
+
+        Assertions.assertEquals(List.of("export", "order", "orderItems", "catchAll"),
+                trie.patterns("/orders/export/2024", 0));
+        Assertions.assertEquals(List.of("order", "orderItems", "catchAll"), trie.patterns("/orders/7/items", 0));
+        Assertions.assertEquals(List.of("catchAll"), trie.patterns("/invoices/7", 0));
+        Assertions.assertEquals(List.of("customer", "catchAll"), trie.patterns("/2/customers/7", 2));
+        Assertions.assertEquals(List.of(), TerminusPathTrie.<String>builder().add("/orders", "orders").build()
+                .patterns("/orders", 0));
+    }
+}
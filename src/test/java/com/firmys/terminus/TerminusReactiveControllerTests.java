@@ -1,23 +1,42 @@
 package com.firmys.terminus;
 
+import com.firmys.terminus.cache.TerminusResponseCacheResultHandler;
 import com.firmys.terminus.controllers.TestLatestReactiveController;
 import com.firmys.terminus.controllers.TestLatestV0ReactiveController;
+import com.firmys.terminus.execution.TerminusSingleFlight;
+import com.firmys.terminus.filters.TerminusVersionReactiveFilter;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @WebFluxTest
 @ActiveProfiles("reactive")
-@Import({TestLatestReactiveController.class, TestLatestV0ReactiveController.class})
+@Import({TerminusReactiveConfig.class, TerminusVersionReactiveFilter.class,
+        TerminusResponseCacheResultHandler.class,
+        TestLatestReactiveController.class, TestLatestV0ReactiveController.class})
 public class TerminusReactiveControllerTests {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private TerminusReactiveHandlerMapping handlerMapping;
+
+    @Autowired
+    private TestLatestV0ReactiveController latestV0Controller;
+
     @Test
     void shouldReturnOkStatusForRootPath() {
         HttpHeaders headers = new HttpHeaders();
@@ -30,4 +49,157 @@ public class TerminusReactiveControllerTests {
                 .expectStatus().isOk();
     }
 
+    @Test
+    void shouldRouteVersionHeaderWithoutMutatingExchange() {
+        webTestClient.get()
+                .uri("/test")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("versions 0, 1, 2");
+    }
+
+    @Test
+    void shouldRouteToLatestWithoutVersionHeader() {
+        webTestClient.get()
+                .uri("/test")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("latest version");
+    }
+
+    @Test
+    void shouldRewriteDowngradedResponsesAsTheyAreWritten() {
+        webTestClient.get()
+                .uri("/test/profile")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0.9")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"name\":\"Ada\",\"addresses\":[{\"city\":\"London\"},{\"city\":\"Oxford\"}]}",
+                        JsonCompareMode.STRICT);
+        webTestClient.get()
+                .uri("/test/profile")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.email").isEqualTo("ada@example.com");
+    }
+
+    @Test
+    void shouldStreamEachVersionElementByElement() {
+        String downgraded = "{\"name\":\"Ada\",\"addresses\":[{\"city\":\"London\"},{\"city\":\"Oxford\"}]}";
+        List<String> lines = webTestClient.get()
+                .uri("/test/profiles?count=1000")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0.9")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .collectList().block();
+        Assertions.assertEquals(1000, lines.size());
+        Assertions.assertTrue(lines.stream().allMatch(downgraded::equals));
+
+        webTestClient.get()
+                .uri("/test/profiles?count=3")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "0.9")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(("data:" + downgraded + "\n\n").repeat(3));
+
+        Assertions.assertEquals(1000, webTestClient.get()
+                .uri("/test/profiles?count=1000")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .filter(line -> line.contains("ada@example.com"))
+                .count().block());
+    }
+
+    @Test
+    void shouldRegisterAndReportRoutesLikeServletStack() {
+        webTestClient.get()
+                .uri("/test")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "2")
+                .exchange()
+                .expectStatus().isOk();
+
+        TerminusRouteReport.RouteEntry test = handlerMapping.getRouteReport().routes().stream()
+                .filter(route -> route.handler().equals("TestLatestV0ReactiveController#test"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals(List.of("0", "1", "2"), test.versions().stream().sorted().toList());
+        Assertions.assertTrue(test.hits() >= 1);
+        Assertions.assertEquals(1, handlerMapping.getHandlerMethods().values().stream()
+                .filter(method -> method.getBeanType() == TestLatestV0ReactiveController.class
+                        && method.getMethod().getName().equals("test"))
+                .count());
+    }
+
+    @Test
+    void shouldServeMemoizedResponsesWithoutInvokingHandler() {
+        String first = webTestClient.get()
+                .uri("/test/memoized?id=a")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        webTestClient.get()
+                .uri("/test/memoized?id=a")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(first);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalRequestsIntoOneInvocation() {
+        TerminusSingleFlight singleFlight = handlerMapping.getSingleFlight(
+                ClassUtils.getMethod(TestLatestV0ReactiveController.class, "coalesced"));
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> webTestClient.get()
+                    .uri("/test/coalesced")
+                    .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).returnResult().getResponseBody()));
+            while (singleFlight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        while (singleFlight.coalesced() < 2) {
+            Thread.onSpinWait();
+        }
+        latestV0Controller.releaseCoalesced();
+
+        for (CompletableFuture<String> response : responses) {
+            Assertions.assertEquals("lookup 1", response.join());
+        }
+    }
+
+    @Test
+    void shouldAnswerMatchingETagWithNotModified() {
+        String etag = webTestClient.get()
+                .uri("/test/cached")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=60, public")
+                .expectHeader().valueEquals(HttpHeaders.VARY, "X-Terminus-Version, Accept")
+                .expectBody(String.class).isEqualTo("cached for versions 0, 1, 2")
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/test/cached")
+                .header(TerminusConstants.TERMINUS_VERSION_HEADER, "1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
 }
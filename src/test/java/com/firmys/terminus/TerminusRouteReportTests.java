@@ -0,0 +1,62 @@
+package com.firmys.terminus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+class TerminusRouteReportTests {
+
+    @Test
+    void shouldReportCollidingRoutesOfOneVersion() {
+        TerminusRouteReport report = TerminusRouteReport.builder()
+                .version("1", List.of("1"), false)
+                .route("1", new Object(), Set.of("GET"), Set.of("/orders"), Set.of("/orders"), "",
+                        "OrdersV1#list", new TerminusRouteStats())
+                .route("1", new Object(), Set.of("GET"), Set.of("/orders"), Set.of("/orders"), "",
+                        "LegacyOrders#list", new TerminusRouteStats())
+                .route("1", new Object(), Set.of("GET"), Set.of("/orders"), Set.of("/orders"),
+                        "produces [application/json]", "OrdersV1#json", new TerminusRouteStats())
+                .build();
+
+        Assertions.assertEquals(1, report.collisions().size());
+        Assertions.assertEquals("/orders", report.collisions().get(0).path());
+        Assertions.assertEquals(List.of("OrdersV1#list", "LegacyOrders#list"), report.collisions().get(0).handlers());
+    }
+
+    @Test
+    void shouldReportRoutesShadowedByPreferredVersions() {
+        Object shared = new Object();
+        TerminusRouteStats stats = new TerminusRouteStats();
+        stats.hit();
+        stats.sampled(1_000, 2);
+        TerminusRouteReport report = TerminusRouteReport.builder()
+                .version("1.2", List.of("1.2", "1.0"), false)
+                .version("1.0", List.of("1.0"), false)
+                .route("1.0", new Object(), Set.of("GET"), Set.of("/orders"), Set.of("/orders"), "",
+                        "OrdersV1#list", new TerminusRouteStats())
+                .route("1.0", shared, Set.of("GET"), Set.of("/orders/{id}"), Set.of(), "",
+                        "Orders#get", stats)
+                .route("1.2", new Object(), Set.of("GET"), Set.of("/orders"), Set.of("/orders"), "",
+                        "OrdersV12#list", new TerminusRouteStats())
+                .route("1.2", shared, Set.of("GET"), Set.of("/orders/{id}"), Set.of(), "",
+                        "Orders#get", stats)
+                .build();
+
+        Assertions.assertEquals(1, report.shadowed().size());
+        TerminusRouteReport.Shadowed shadowed = report.shadowed().get(0);
+        Assertions.assertEquals("1.2", shadowed.version());
+        Assertions.assertEquals("OrdersV1#list", shadowed.handler());
+        Assertions.assertEquals("OrdersV12#list", shadowed.shadowedBy());
+        Assertions.assertEquals("1.2", shadowed.servedByVersion());
+
+        TerminusRouteReport.RouteEntry get = report.routes().get(0);
+        Assertions.assertEquals("Orders#get", get.handler());
+        Assertions.assertEquals(List.of("1.0", "1.2"), get.versions());
+        Assertions.assertEquals(1_000, get.meanMatchNanos());
+        Assertions.assertEquals(2.0, get.meanVersionsTried());
+        Assertions.assertEquals(1, report.versions().get(0).patternRoutes());
+        Assertions.assertEquals(1, report.versions().get(0).literalPaths());
+    }
+}
@@ -0,0 +1,79 @@
+package com.firmys.terminus;
+
+import com.firmys.terminus.resolvers.TerminusVersionResolution;
+import com.firmys.terminus.resolvers.TerminusVersionSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+class TerminusTrafficSplitsTests {
+
+    private static TerminusTrafficSplits splits(String name, Object... shares) {
+        Map<String, Double> versions = new LinkedHashMap<>();
+        for (int i = 0; i < shares.length; i += 2) {
+            versions.put((String) shares[i], ((Number) shares[i + 1]).doubleValue());
+        }
+        return new TerminusTrafficSplits("X-Client-Id", Map.of(name, versions));
+    }
+
+    @Test
+    void shouldAssignSharesOfClients() {
+        TerminusTrafficSplits.Split split = splits("latest", "2.0", 10, "2.1", 5).get("latest");
+        int canary = 0;
+        int next = 0;
+        for (int client = 0; client < 100_000; client++) {
+            String version = split.assign("client-" + client);
+            if ("2.0".equals(version)) {
+                canary++;
+            } else if ("2.1".equals(version)) {
+                next++;
+            }
+        }
+
+        Assertions.assertEquals(10_000, canary, 1_000);
+        Assertions.assertEquals(5_000, next, 750);
+    }
+
+    @Test
+    void shouldKeepClientsOnTheirVersionWhileShareGrows() {
+        TerminusTrafficSplits splits = splits("latest", "2.0", 5);
+        TerminusTrafficSplits.Split small = splits.get("latest");
+        TerminusTrafficSplits.Split large = splits.share("latest", "2.0", 50).get("latest");
+
+        for (int client = 0; client < 10_000; client++) {
+            String key = "client-" + client;
+            Assertions.assertEquals(small.assign(key), small.assign(key));
+            if (small.assign(key) != null) {
+                Assertions.assertEquals("2.0", large.assign(key));
+            }
+        }
+    }
+
+    @Test
+    void shouldOnlySplitUnversionedAndAliasedTraffic() {
+        TerminusTrafficSplits splits = splits("latest", "2.0", 10)
+                .share(TerminusTrafficSplits.UNVERSIONED, "2.0", 10);
+
+        Assertions.assertEquals("latest", splits.get(
+                new TerminusVersionResolution("1.3", "latest", TerminusVersionSource.HEADER)).name());
+        Assertions.assertEquals(TerminusTrafficSplits.UNVERSIONED, splits.get(TerminusVersionResolution.NONE).name());
+        Assertions.assertNull(splits.get(new TerminusVersionResolution("1.3", "1.3", TerminusVersionSource.HEADER)));
+        Assertions.assertNull(splits.get(new TerminusVersionResolution(null, "9", TerminusVersionSource.HEADER)));
+        Assertions.assertNull(splits.get(new TerminusVersionResolution("1.3", "latest", TerminusVersionSource.PATH)));
+    }
+
+    @Test
+    void shouldRejectInvalidSplits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> splits("latest", "2.0", 60, "2.1", 50));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> splits("latest", "2.0", -1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> splits("latest", "3.0", 10).validate(Set.of("1.3", "2.0")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> splits("1.3", "2.0", 10).validate(Set.of("1.3", "2.0")));
+        Assertions.assertTrue(splits("latest", "2.0", 10).remove("latest").isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.firmys.terminus;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TerminusVersionIndexTests {
+
+    private static TerminusVersionIndex<String> index(String... declarations) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String declaration : declarations) {
+            values.put(declaration, declaration);
+        }
+        return TerminusVersionIndex.build(values);
+    }
+
+    @Test
+    void shouldResolveExactVersionsFirst() {
+        TerminusVersionIndex<String> index = index("1.2", "1.3", "2.0");
+
+        Assertions.assertEquals(List.of("1.3", "1.2"), index.resolve("1.3"));
+        Assertions.assertEquals(List.of("1.3", "1.2"), index.resolve("1.3.0"));
+        Assertions.assertEquals(List.of("2.0"), index.resolve("2"));
+    }
+
+    @Test
+    void shouldFallBackToHighestCompatibleVersion() {
+        TerminusVersionIndex<String> index = index("1.2", "1.3", "2.0");
+
+        Assertions.assertEquals(List.of("1.2"), index.resolve("1.2.5"));
+        Assertions.assertEquals(List.of("1.3", "1.2"), index.resolve("1.4"));
+        Assertions.assertEquals(List.of(), index.resolve("1.1"));
+        Assertions.assertEquals(List.of(), index.resolve("3.0"));
+    }
+
+    @Test
+    void shouldResolveVersionRanges() {
+        TerminusVersionIndex<String> index = index("[1.2,2.0)", "(2.0,2.5]", "[3,)");
+
+        Assertions.assertEquals(List.of("[1.2,2.0)"), index.resolve("1.2"));
+        Assertions.assertEquals(List.of("[1.2,2.0)"), index.resolve("1.9.9"));
+        Assertions.assertEquals(List.of(), index.resolve("2.0"));
+        Assertions.assertEquals(List.of("(2.0,2.5]"), index.resolve("2.0.1"));
+        Assertions.assertEquals(List.of("(2.0,2.5]"), index.resolve("2.5"));
+        Assertions.assertEquals(List.of(), index.resolve("2.5.1"));
+        Assertions.assertEquals(List.of("[3,)"), index.resolve("42"));
+        Assertions.assertEquals(List.of("[1.2,2.0)"), index.resolve("[1.2,2.0)"));
+    }
+
+    @Test
+    void shouldPreferCoveringDeclarationsOverCompatibleVersions() {
+        TerminusVersionIndex<String> index = index("1.0", "1.4", "[1.2,1.6)");
+
+        Assertions.assertEquals(List.of("1.4", "[1.2,1.6)", "1.0"), index.resolve("1.4"));
+        Assertions.assertEquals(List.of("[1.2,1.6)", "1.4", "1.0"), index.resolve("1.5"));
+        Assertions.assertEquals(List.of("1.4", "1.0"), index.resolve("1.7"));
+    }
+
+    @Test
+    void shouldMatchOpaqueVersionsExactly() {
+        TerminusVersionIndex<String> index = index("beta", "1");
+
+        Assertions.assertEquals(List.of("beta"), index.resolve("beta"));
+        Assertions.assertEquals(List.of(), index.resolve("beta2"));
+        Assertions.assertEquals(List.of(), index.resolve(null));
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index("[2.0,1.0)"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index("[1.x,2.0)"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> index("[1.0;2.0)"));
+    }
+}
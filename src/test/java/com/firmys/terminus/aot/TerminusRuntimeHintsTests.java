@@ -0,0 +1,47 @@
+package com.firmys.terminus.aot;
+
+import com.firmys.terminus.TerminusMvcHandlerMapping;
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.controllers.TestLatestV0Controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+class TerminusRuntimeHintsTests {
+
+    @Test
+    void shouldRegisterHintsForTerminusAnnotations() {
+        RuntimeHints hints = new RuntimeHints();
+        new TerminusRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        Assertions.assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Terminus.class).test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Terminus.class, "versions").invoke().test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TerminusMapping.class, "value").invoke().test(hints));
+    }
+
+    @Test
+    void shouldRegisterHintsForTerminusHandlerMethods() {
+        RuntimeHints hints = new RuntimeHints();
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, TestLatestV0Controller.class);
+
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TestLatestV0Controller.class, "test").invoke().test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TestLatestV0Controller.class, "details").invoke().test(hints));
+    }
+
+    @Test
+    void shouldImportHintsFromHandlerMapping() {
+        ImportRuntimeHints importRuntimeHints = TerminusMvcHandlerMapping.class.getAnnotation(ImportRuntimeHints.class);
+
+        Assertions.assertNotNull(importRuntimeHints);
+        Assertions.assertArrayEquals(new Class<?>[]{TerminusRuntimeHints.class}, importRuntimeHints.value());
+    }
+}
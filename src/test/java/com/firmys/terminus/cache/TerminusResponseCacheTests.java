@@ -0,0 +1,47 @@
+package com.firmys.terminus.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class TerminusResponseCacheTests {
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        TerminusResponseCache cache = new TerminusResponseCache("test", TimeUnit.MINUTES.toNanos(1), 10, new String[0]);
+
+        Assertions.assertNull(cache.get("1 /test"));
+        cache.put("1 /test", "body");
+        Assertions.assertEquals("body", cache.get("1 /test"));
+
+        Assertions.assertEquals(new TerminusResponseCache.Stats(1, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        TerminusResponseCache cache = new TerminusResponseCache("test", 0, 10, new String[0]);
+
+        cache.put("1 /test", "body");
+
+        Assertions.assertNull(cache.get("1 /test"));
+        Assertions.assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void shouldEvictRarelyUsedEntriesBeyondMaxEntries() {
+        TerminusResponseCache cache = new TerminusResponseCache("test", TimeUnit.MINUTES.toNanos(1), 4, new String[0]);
+        cache.put("popular", "body");
+        for (int i = 0; i < 8; i++) {
+            cache.get("popular");
+        }
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("rare " + i, "body");
+        }
+
+        Assertions.assertEquals(4, cache.stats().size());
+        Assertions.assertEquals(7, cache.stats().evictions());
+        Assertions.assertEquals("body", cache.get("popular"));
+    }
+}
@@ -1,17 +1,81 @@
 package com.firmys.terminus.controllers;
 
 import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDowngrade;
 import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusMemoize;
 
 import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Profile("!reactive")
 @Terminus(versions = {"0", "1", "2"})
 public class TestLatestV0Controller {
 
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final AtomicInteger coalescedLookups = new AtomicInteger();
+
+    private final CountDownLatch coalescedRelease = new CountDownLatch(1);
+
     @TerminusMapping(value = "/test", method = RequestMethod.GET)
     public String test() {
         return "versions 0, 1, 2";
     }
+
+    @TerminusMapping(value = "/test/details", method = RequestMethod.GET)
+    public String details() {
+        return "details for versions 0, 1, 2";
+    }
+
+    @TerminusMapping(value = "/test/items/{item}", method = RequestMethod.GET)
+    public String item(@PathVariable("item") String item) {
+        return "item " + item + " for versions 0, 1, 2";
+    }
+
+    @TerminusDowngrade(version = "0.9", remove = {"email", "addresses.zip"}, rename = "fullName=name")
+    @TerminusMapping(value = "/test/profile", method = RequestMethod.GET, produces = "application/json")
+    public TestProfile profile() {
+        return TestProfile.ADA;
+    }
+
+    @TerminusCache(maxAge = 60)
+    @TerminusMapping(value = "/test/cached", method = RequestMethod.GET)
+    public String cached() {
+        return "cached for versions 0, 1, 2";
+    }
+
+    @TerminusMemoize(params = "id")
+    @TerminusMapping(value = "/test/memoized", method = RequestMethod.GET)
+    public String memoized(@RequestParam("id") String id) {
+        return "lookup " + lookups.incrementAndGet() + " of " + id;
+    }
+
+    @TerminusMapping(value = "/test/coalesced", method = RequestMethod.GET, singleFlight = true)
+    public String coalesced() throws InterruptedException {
+        int lookup = coalescedLookups.incrementAndGet();
+        coalescedRelease.await(5, TimeUnit.SECONDS);
+        return "lookup " + lookup;
+    }
+
+    public void releaseCoalesced() {
+        coalescedRelease.countDown();
+    }
+
+    @TerminusMapping(value = "/test", method = RequestMethod.POST)
+    public String create() {
+        return "created for versions 0, 1, 2";
+    }
+
+    @TerminusMapping(value = "/test", method = RequestMethod.GET, produces = "application/json")
+    public String testJson() {
+        return "{\"versions\": [0, 1, 2]}";
+    }
 }
@@ -1,21 +1,70 @@
 package com.firmys.terminus.controllers;
 
 import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusCache;
+import com.firmys.terminus.annotations.TerminusDowngrade;
 import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusMemoize;
 
 import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.reactive.config.EnableWebFlux;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @Profile("reactive")
 @EnableWebFlux
 @Terminus(versions = {"0", "1", "2"})
 public class TestLatestV0ReactiveController {
 
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final AtomicInteger coalescedLookups = new AtomicInteger();
+
+    private final Sinks.Empty<Void> coalescedRelease = Sinks.empty();
+
     @TerminusMapping(value = "/test", method = RequestMethod.GET)
     public Mono<String> test() {
         return Mono.just("versions 0, 1, 2");
     }
+
+    @TerminusDowngrade(version = "0.9", remove = {"email", "addresses.zip"}, rename = "fullName=name")
+    @TerminusMapping(value = "/test/profile", method = RequestMethod.GET, produces = "application/json")
+    public Mono<TestProfile> profile() {
+        return Mono.just(TestProfile.ADA);
+    }
+
+    @TerminusDowngrade(version = "0.9", remove = {"email", "addresses.zip"}, rename = "fullName=name")
+    @TerminusMapping(value = "/test/profiles", method = RequestMethod.GET,
+            produces = {"application/x-ndjson", "text/event-stream"})
+    public Flux<TestProfile> profiles(@RequestParam("count") int count) {
+        return Flux.range(0, count).map(index -> TestProfile.ADA);
+    }
+
+    @TerminusCache(maxAge = 60)
+    @TerminusMapping(value = "/test/cached", method = RequestMethod.GET)
+    public Mono<String> cached() {
+        return Mono.just("cached for versions 0, 1, 2");
+    }
+
+    @TerminusMemoize(params = "id")
+    @TerminusMapping(value = "/test/memoized", method = RequestMethod.GET)
+    public Mono<String> memoized(@RequestParam("id") String id) {
+        return Mono.fromSupplier(() -> "lookup " + lookups.incrementAndGet() + " of " + id);
+    }
+
+    @TerminusMapping(value = "/test/coalesced", method = RequestMethod.GET, singleFlight = true)
+    public Mono<String> coalesced() {
+        int lookup = coalescedLookups.incrementAndGet();
+        return coalescedRelease.asMono().then(Mono.fromSupplier(() -> "lookup " + lookup));
+    }
+
+    public void releaseCoalesced() {
+        coalescedRelease.tryEmitEmpty();
+    }
 }
@@ -0,0 +1,12 @@
+package com.firmys.terminus.controllers;
+
+import java.util.List;
+
+public record TestProfile(String fullName, String email, List<Address> addresses) {
+
+    public static final TestProfile ADA = new TestProfile("Ada", "ada@example.com",
+            List.of(new Address("London", "NW1"), new Address("Oxford", "OX1")));
+
+    public record Address(String city, String zip) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.firmys.terminus.controllers;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusMapping;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+@Profile("!reactive")
+@Terminus(versions = {"[3.0,4.0)"})
+public class TestRangeController {
+
+    @TerminusMapping(value = "/test", method = RequestMethod.GET)
+    public String test() {
+        return "versions 3.x";
+    }
+}
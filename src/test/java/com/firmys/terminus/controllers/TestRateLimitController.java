@@ -0,0 +1,19 @@
+package com.firmys.terminus.controllers;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusRateLimit;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+@Profile("!reactive")
+@Terminus(versions = {"limited"})
+@TerminusRateLimit(permitsPerSecond = 1000)
+public class TestRateLimitController {
+
+    @TerminusMapping(value = "/test/limited", method = RequestMethod.GET)
+    public String limited() {
+        return "limited";
+    }
+}
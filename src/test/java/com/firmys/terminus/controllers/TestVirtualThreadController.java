@@ -0,0 +1,21 @@
+package com.firmys.terminus.controllers;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+import com.firmys.terminus.annotations.TerminusMapping;
+import com.firmys.terminus.annotations.TerminusVirtualThreads;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+@Profile("!reactive")
+@Terminus(versions = {"legacy"}, deprecated = @TerminusDeprecated(version = "legacy", since = "2025-06-01",
+        sunset = "2026-01-01", link = "https://example.com/migrating-from-legacy"))
+@TerminusVirtualThreads(maxConcurrency = 1)
+public class TestVirtualThreadController {
+
+    @TerminusMapping(value = "/test/thread", method = RequestMethod.GET)
+    public String thread() {
+        return "virtual " + Thread.currentThread().isVirtual();
+    }
+}
@@ -0,0 +1,42 @@
+package com.firmys.terminus.deprecation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TerminusClientSketchTests {
+
+    @Test
+    void shouldKeepHeaviestClientsAmongManyOthers() {
+        TerminusClientSketch sketch = new TerminusClientSketch();
+        for (int round = 0; round < 200; round++) {
+            sketch.add("mobile-app/1.4");
+            if (round % 2 == 0) {
+                sketch.add("partner-batch");
+            }
+            for (int client = 0; client < 50; client++) {
+                sketch.add("client-" + (round * 50 + client));
+            }
+        }
+
+        List<TerminusClientSketch.Client> top = sketch.top();
+        Assertions.assertEquals(TerminusClientSketch.TOP, top.size());
+        Assertions.assertEquals("mobile-app/1.4", top.get(0).client());
+        Assertions.assertEquals("partner-batch", top.get(1).client());
+        Assertions.assertTrue(top.get(0).count() >= 200);
+        Assertions.assertTrue(sketch.estimate("partner-batch") >= 100);
+        Assertions.assertTrue(sketch.estimate("client-7") >= 1);
+    }
+
+    @Test
+    void shouldTruncateLongClients() {
+        TerminusClientSketch sketch = new TerminusClientSketch();
+        String client = "x".repeat(TerminusClientSketch.MAX_CLIENT_LENGTH * 2);
+        sketch.add(client);
+        sketch.add(client);
+
+        Assertions.assertEquals(TerminusClientSketch.MAX_CLIENT_LENGTH, sketch.top().get(0).client().length());
+        Assertions.assertEquals(2, sketch.estimate(client));
+    }
+}
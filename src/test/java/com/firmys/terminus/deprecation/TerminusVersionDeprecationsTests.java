@@ -0,0 +1,97 @@
+package com.firmys.terminus.deprecation;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusDeprecated;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+class TerminusVersionDeprecationsTests {
+
+    private static final String[] VERSIONS = {"1.0", "2.0"};
+
+    @Test
+    void shouldFormatHeadersOnce() {
+        TerminusVersionDeprecation deprecation = TerminusVersionDeprecations.builder()
+                .declare(OrdersV1.class, VERSIONS)
+                .build(Set.of("1.0", "2.0"))
+                .get("1.0");
+
+        Assertions.assertEquals("@1748736000", deprecation.deprecationHeader());
+        Assertions.assertEquals("Thu, 01 Jan 2026 00:00:00 GMT", deprecation.sunsetHeader());
+        Assertions.assertEquals("<https://example.com/orders-v2>; rel=\"deprecation\"; type=\"text/html\"",
+                deprecation.linkHeader());
+        Assertions.assertEquals(Instant.parse("2026-01-01T00:00:00Z"), deprecation.report().sunset());
+    }
+
+    @Test
+    void shouldOnlyDeprecateDeclaredVersions() {
+        TerminusVersionDeprecations deprecations = TerminusVersionDeprecations.builder()
+                .declare(OrdersV1.class, VERSIONS)
+                .declare(SameOrdersV1.class, VERSIONS)
+                .build(Set.of("1.0", "2.0"));
+
+        Assertions.assertNull(deprecations.get("2.0"));
+        Assertions.assertNull(deprecations.get(null));
+        Assertions.assertEquals(List.of("1.0"), deprecations.report().stream()
+                .map(TerminusVersionDeprecation.Report::version)
+                .toList());
+        Assertions.assertTrue(TerminusVersionDeprecations.builder().build(Set.of("1.0")).isEmpty());
+    }
+
+    @Test
+    void shouldRejectInvalidDeprecations() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> TerminusVersionDeprecations.builder().declare(Undeclared.class, VERSIONS));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> TerminusVersionDeprecations.builder().declare(InvalidSunset.class, VERSIONS));
+        Assertions.assertThrows(IllegalStateException.class, () -> TerminusVersionDeprecations.builder()
+                .declare(OrdersV1.class, VERSIONS)
+                .declare(ConflictingOrdersV1.class, VERSIONS));
+    }
+
+    @Test
+    void shouldEstimateClientsFromSamples() {
+        TerminusVersionDeprecation deprecation = new TerminusVersionDeprecation("1.0",
+                Instant.parse("2025-06-01T12:00:00Z"), null, null);
+        for (int i = 0; i < 10; i++) {
+            deprecation.requested();
+            deprecation.sampled("billing");
+        }
+        deprecation.sampled(null);
+
+        TerminusVersionDeprecation.Report report = deprecation.report();
+        Assertions.assertNull(deprecation.sunsetHeader());
+        Assertions.assertNull(deprecation.linkHeader());
+        Assertions.assertEquals(10, report.requests());
+        Assertions.assertEquals(List.of(new TerminusVersionDeprecation.Client("billing",
+                10L * TerminusVersionDeprecation.SAMPLE_RATE)), report.clients());
+    }
+
+    @Terminus(versions = {"1.0", "2.0"}, deprecated = @TerminusDeprecated(version = "1.0", since = "2025-06-01",
+            sunset = "2026-01-01T00:00:00Z", link = "https://example.com/orders-v2"))
+    static class OrdersV1 {
+    }
+
+    @Terminus(versions = {"1.0", "2.0"}, deprecated = @TerminusDeprecated(version = "1.0", since = "2025-06-01",
+            sunset = "2026-01-01", link = "https://example.com/orders-v2"))
+    static class SameOrdersV1 {
+    }
+
+    @Terminus(versions = {"1.0", "2.0"}, deprecated = @TerminusDeprecated(version = "1.0", since = "2025-07-01"))
+    static class ConflictingOrdersV1 {
+    }
+
+    @Terminus(versions = {"1.0", "2.0"}, deprecated = @TerminusDeprecated(version = "0.9", since = "2025-06-01"))
+    static class Undeclared {
+    }
+
+    @Terminus(versions = {"1.0", "2.0"}, deprecated = @TerminusDeprecated(version = "1.0", since = "2025-06-01",
+            sunset = "next year"))
+    static class InvalidSunset {
+    }
+}
@@ -0,0 +1,39 @@
+package com.firmys.terminus.execution;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class TerminusSingleFlightTests {
+
+    @Test
+    void shouldShareTheBodyOfTheLeadingCall() {
+        TerminusSingleFlight singleFlight = new TerminusSingleFlight("test", TimeUnit.MINUTES.toNanos(1));
+        TerminusSingleFlight.Call leader = singleFlight.newCall("1 /test");
+
+        Assertions.assertNull(singleFlight.join(leader));
+        TerminusSingleFlight.Call joined = singleFlight.join(singleFlight.newCall("1 /test"));
+        leader.share("body");
+        leader.finish();
+
+        Assertions.assertSame(leader, joined);
+        Assertions.assertEquals("body", joined.await());
+        Assertions.assertEquals(1, singleFlight.coalesced());
+        Assertions.assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldUnregisterCallsThatTimeOut() throws InterruptedException {
+        TerminusSingleFlight singleFlight = new TerminusSingleFlight("test", TimeUnit.MILLISECONDS.toNanos(10));
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertNull(singleFlight.join(singleFlight.newCall("1 /test?page=" + i)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, singleFlight.inFlight());
+    }
+}
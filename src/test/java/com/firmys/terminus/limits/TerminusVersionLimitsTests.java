@@ -0,0 +1,79 @@
+package com.firmys.terminus.limits;
+
+import com.firmys.terminus.annotations.Terminus;
+import com.firmys.terminus.annotations.TerminusRateLimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+class TerminusVersionLimitsTests {
+
+    @Test
+    void shouldAdmitBurstThenRejectAcrossStripes() {
+        TerminusRateLimiter limiter = new TerminusRateLimiter(0.001, 8, 64);
+
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldAdmitExactlyBurstThatDoesNotDivideOverStripes() {
+        TerminusRateLimiter limiter = new TerminusRateLimiter(0.001, 11, 64);
+
+        for (int i = 0; i < 11; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        Assertions.assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldShedRequestsBeyondConcurrencyLimitBeforeRateLimit() {
+        TerminusVersionLimit limit = new TerminusVersionLimits.Limit(0.001, 2, 1).create("1");
+
+        Assertions.assertEquals(TerminusVersionLimit.Admission.ADMITTED, limit.tryAcquire());
+        Assertions.assertEquals(TerminusVersionLimit.Admission.OVERLOADED, limit.tryAcquire());
+        limit.release();
+        Assertions.assertEquals(TerminusVersionLimit.Admission.ADMITTED, limit.tryAcquire());
+        limit.release();
+        Assertions.assertEquals(TerminusVersionLimit.Admission.RATE_LIMITED, limit.tryAcquire());
+        Assertions.assertEquals(1, limit.overloaded());
+        Assertions.assertEquals(1, limit.rateLimited());
+        Assertions.assertEquals(0, limit.bulkhead().active());
+    }
+
+    @Test
+    void shouldPreferConfiguredLimitsOverDeclaredOnes() {
+        TerminusVersionLimits limits = TerminusVersionLimits.builder()
+                .declare(LimitedController.class, new String[]{"1", "2"})
+                .configure(Map.of("2", new TerminusVersionLimits.Limit(0, 0, 3)))
+                .build(Set.of("1", "2", "3"));
+
+        Assertions.assertEquals(50, limits.get("1").rateLimiter().permitsPerSecond());
+        Assertions.assertEquals(50, limits.get("1").rateLimiter().burst());
+        Assertions.assertNull(limits.get("2").rateLimiter());
+        Assertions.assertEquals(3, limits.get("2").bulkhead().maxConcurrency());
+        Assertions.assertNull(limits.get("3"));
+    }
+
+    @Test
+    void shouldRejectLimitsOfUndeclaredVersions() {
+        TerminusVersionLimits.Builder builder = TerminusVersionLimits.builder();
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> builder.declare(LimitedController.class, new String[]{"1"}));
+        Assertions.assertThrows(IllegalStateException.class, () -> TerminusVersionLimits.builder()
+                .configure(Map.of("9", new TerminusVersionLimits.Limit(1, 1, 0)))
+                .build(Set.of("1")));
+    }
+
+    @Terminus(versions = {"1", "2"})
+    @TerminusRateLimit(versions = {"1", "2"}, permitsPerSecond = 50)
+    static class LimitedController {
+    }
+}
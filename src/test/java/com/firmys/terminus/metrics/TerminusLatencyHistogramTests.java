@@ -0,0 +1,77 @@
+package com.firmys.terminus.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class TerminusLatencyHistogramTests {
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        TerminusLatencyHistogram histogram = new TerminusLatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        TerminusLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(10_000, snapshot.count());
+        assertWithin(5_000_000, snapshot.p50Nanos());
+        assertWithin(9_900_000, snapshot.p99Nanos());
+        assertWithin(9_990_000, snapshot.p999Nanos());
+        assertWithin(10_000_000, snapshot.maxNanos());
+        Assertions.assertEquals(snapshot.p99Nanos(), histogram.percentile(99));
+    }
+
+    @Test
+    void shouldMapEveryValueToOneBucket() {
+        int previous = 0;
+        for (long micros = 0; micros < 1L << 20; micros++) {
+            long value = micros;
+            int bucket = TerminusLatencyHistogram.bucket(value);
+            Assertions.assertTrue(bucket == previous || bucket == previous + 1, () -> "gap at " + value);
+            Assertions.assertTrue(TerminusLatencyHistogram.highestNanos(bucket) >= micros * 1000);
+            previous = bucket;
+        }
+        Assertions.assertEquals(TerminusLatencyHistogram.BUCKETS - 1, TerminusLatencyHistogram.bucket((1L << 27) - 1));
+    }
+
+    @Test
+    void shouldClampOutOfRangeLatencies() {
+        TerminusLatencyHistogram histogram = new TerminusLatencyHistogram();
+        histogram.record(-1);
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+
+        TerminusLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(2, snapshot.count());
+        Assertions.assertEquals(999, histogram.percentile(50));
+        Assertions.assertEquals(TerminusLatencyHistogram.highestNanos(TerminusLatencyHistogram.BUCKETS - 1),
+                snapshot.maxNanos());
+        Assertions.assertEquals(0, new TerminusLatencyHistogram().snapshot().p99Nanos());
+    }
+
+    @Test
+    void shouldCountConcurrentRecordings() throws InterruptedException {
+        TerminusLatencyHistogram histogram = new TerminusLatencyHistogram();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+                    }
+                });
+            }
+        }
+
+        Assertions.assertEquals(80_000, histogram.snapshot().count());
+        assertWithin(2_000_000, histogram.percentile(50));
+    }
+
+    // Buckets report their highest value, at most 1/32 above the value recorded
+    private static void assertWithin(long expectedNanos, long actualNanos) {
+        Assertions.assertTrue(actualNanos >= expectedNanos - 1000 && actualNanos <= expectedNanos * 33 / 32 + 1000,
+                () -> actualNanos + " not within bucket precision of " + expectedNanos);
+    }
+}
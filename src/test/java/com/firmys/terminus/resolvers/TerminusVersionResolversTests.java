@@ -0,0 +1,88 @@
+package com.firmys.terminus.resolvers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class TerminusVersionResolversTests {
+
+    private static final Set<String> DECLARED = Set.of("1", "2");
+
+    private static final TerminusRequestAccessor<Map<String, String>> ACCESSOR = new TerminusRequestAccessor<>() {
+
+        @Override
+        public String header(Map<String, String> request, String name) {
+            return request.get(name);
+        }
+
+        @Override
+        public String rawQuery(Map<String, String> request) {
+            return request.get("?");
+        }
+
+        @Override
+        public String path(Map<String, String> request) {
+            return request.getOrDefault("/", "/");
+        }
+    };
+
+    private final TerminusVersionResolvers resolvers = new TerminusVersionResolvers(List.of(
+            new HeaderVersionResolver("X-Version"),
+            new MediaTypeVersionResolver("version"),
+            new QueryParameterVersionResolver("version"),
+            new PathSegmentVersionResolver()));
+
+    private TerminusVersionResolution resolve(Map<String, String> request) {
+        return resolvers.resolve(request, ACCESSOR, version -> DECLARED.contains(version) ? version : null);
+    }
+
+    @Test
+    void shouldResolveInChainOrder() {
+        Assertions.assertEquals(new TerminusVersionResolution("1", "1", TerminusVersionSource.HEADER),
+                resolve(Map.of("X-Version", "1", "?", "version=2")));
+        Assertions.assertEquals(new TerminusVersionResolution("2", "2", TerminusVersionSource.QUERY_PARAMETER),
+                resolve(Map.of("X-Version", "9", "?", "version=2")));
+        Assertions.assertEquals(TerminusVersionResolution.NONE, resolve(Map.of("/", "/test")));
+    }
+
+    @Test
+    void shouldReportFirstUnknownVersion() {
+        TerminusVersionResolution resolution = resolve(Map.of("X-Version", "9", "?", "version=8"));
+
+        Assertions.assertTrue(resolution.isUnknown());
+        Assertions.assertEquals(new TerminusVersionResolution(null, "9", TerminusVersionSource.HEADER), resolution);
+    }
+
+    @Test
+    void shouldOnlyTreatDeclaredPathSegmentsAsVersions() {
+        Assertions.assertEquals(new TerminusVersionResolution("2", "2", TerminusVersionSource.PATH),
+                resolve(Map.of("/", "/2/test")));
+        Assertions.assertEquals(TerminusVersionResolution.NONE, resolve(Map.of("/", "/42/orders")));
+        Assertions.assertEquals(TerminusVersionResolution.NONE, resolve(Map.of("/", "/test/2")));
+    }
+
+    @Test
+    void shouldReadMediaTypeParameters() {
+        Assertions.assertEquals("2", MediaTypeVersionResolver.parameter(
+                "application/vnd.x+json;version=2", "version"));
+        Assertions.assertEquals("2.1", MediaTypeVersionResolver.parameter(
+                "text/html, application/vnd.x+json ; charset=utf-8 ; Version = \"2.1\" ;q=0.9", "version"));
+        Assertions.assertEquals("1", MediaTypeVersionResolver.parameter(
+                "application/json;q=0.8, application/vnd.x+json;version=1", "version"));
+        Assertions.assertNull(MediaTypeVersionResolver.parameter("application/json;versions=1", "version"));
+        Assertions.assertNull(MediaTypeVersionResolver.parameter("application/json;version=", "version"));
+        Assertions.assertNull(MediaTypeVersionResolver.parameter("*/*", "version"));
+    }
+
+    @Test
+    void shouldReadQueryParameters() {
+        Assertions.assertEquals("2", QueryParameterVersionResolver.parameter("version=2", "version"));
+        Assertions.assertEquals("1.2", QueryParameterVersionResolver.parameter("a=b&version=1.2&c", "version"));
+        Assertions.assertEquals("[1,2)", QueryParameterVersionResolver.parameter("version=%5B1%2C2%29", "version"));
+        Assertions.assertNull(QueryParameterVersionResolver.parameter("myversion=2&version=", "version"));
+        Assertions.assertNull(QueryParameterVersionResolver.parameter("versions=2", "version"));
+    }
+}
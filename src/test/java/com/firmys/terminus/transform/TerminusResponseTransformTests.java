@@ -0,0 +1,105 @@
+package com.firmys.terminus.transform;
+
+import com.firmys.terminus.annotations.TerminusDowngrade;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+class TerminusResponseTransformTests {
+
+    private static final String BODY = "{\"fullName\":\"Ada\",\"email\":\"ada@example.com\","
+            + "\"addresses\":[{\"city\":\"London\",\"zip\":\"NW1\",\"tags\":{\"zip\":1}}]}";
+
+    private static final String DOWNGRADED = "{\"name\":\"Ada\",\"addresses\":[{\"city\":\"London\",\"tags\":{\"zip\":1}}]}";
+
+    @Test
+    void shouldTransformWhileSerializing() throws Exception {
+        Object body = new ObjectMapper().readValue(BODY, Map.class);
+
+        String json = new ObjectMapper().writeValueAsString(new TerminusTransformedBody(body, transform("profile")));
+
+        Assertions.assertEquals(DOWNGRADED, json);
+    }
+
+    @Test
+    void shouldRewriteBodiesFedInChunks() {
+        TerminusResponseTransform.Rewriter rewriter = transform("profile").rewriter(false);
+        byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+        StringBuilder out = new StringBuilder();
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + 7));
+            out.append(new String(rewriter.feed(chunk), StandardCharsets.UTF_8));
+        }
+        out.append(new String(rewriter.finish(), StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(DOWNGRADED, out.toString());
+        Assertions.assertEquals(DOWNGRADED, transform("profile").transform(BODY));
+    }
+
+    @Test
+    void shouldEndEachLineOfLineDelimitedBodies() {
+        TerminusResponseTransform.Rewriter rewriter = transform("profile").rewriter(true);
+
+        byte[] first = rewriter.feed((BODY + "\n" + BODY.substring(0, 20)).getBytes(StandardCharsets.UTF_8));
+        byte[] second = rewriter.feed((BODY.substring(20) + "\n").getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertTrue(new String(first, StandardCharsets.UTF_8).startsWith(DOWNGRADED + "\n"));
+        Assertions.assertEquals(DOWNGRADED + "\n" + DOWNGRADED + "\n", new String(first, StandardCharsets.UTF_8)
+                + new String(second, StandardCharsets.UTF_8)
+                + new String(rewriter.finish(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRewriteOnlyJsonDataOfServerSentEvents() {
+        TerminusResponseTransform.Rewriter rewriter = transform("profile").eventStreamRewriter();
+        String events = ":ping\nid:1\ndata:" + BODY + "\n\nevent:note\ndata:plain text\n\ndata: " + BODY + "\n\n";
+        byte[] bytes = events.getBytes(StandardCharsets.UTF_8);
+        byte[] input = new byte[3];
+        StringBuilder out = new StringBuilder();
+        for (int offset = 0; offset < bytes.length; offset += input.length) {
+            int length = Math.min(input.length, bytes.length - offset);
+            System.arraycopy(bytes, offset, input, 0, length);
+            out.append(new String(rewriter.feed(input, length), StandardCharsets.UTF_8));
+        }
+        out.append(new String(rewriter.finish(), StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(":ping\nid:1\ndata:" + DOWNGRADED + "\n\nevent:note\ndata:plain text\n\ndata: "
+                + DOWNGRADED + "\n\n", out.toString());
+    }
+
+    @Test
+    void shouldRejectInvalidRenames() {
+        Assertions.assertThrows(IllegalStateException.class, () -> transform("invalid"));
+        Assertions.assertThrows(IllegalStateException.class, () -> transform("conflicting"));
+    }
+
+    private static TerminusResponseTransform transform(String method) {
+        try {
+            return TerminusResponseTransform.of(Downgrades.class.getDeclaredMethod(method)
+                    .getAnnotation(TerminusDowngrade.class));
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static class Downgrades {
+
+        @TerminusDowngrade(version = "0.9", remove = {"email", "addresses.zip"}, rename = "fullName=name")
+        void profile() {
+        }
+
+        @TerminusDowngrade(version = "0.9", rename = "fullName")
+        void invalid() {
+        }
+
+        @TerminusDowngrade(version = "0.9", remove = "email", rename = "email=mail")
+        void conflicting() {
+        }
+    }
+}
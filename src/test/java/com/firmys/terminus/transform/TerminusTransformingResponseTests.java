@@ -0,0 +1,110 @@
+package com.firmys.terminus.transform;
+
+import com.firmys.terminus.annotations.TerminusDowngrade;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams bodies of {@code terminus.streaming.bytes} bytes, 64 MB by default, through
+ * {@link TerminusTransformingResponse}, for a downgraded version and for the handler's own, and
+ * checks that no more than a few elements are ever held between the handler and the server.
+ */
+class TerminusTransformingResponseTests {
+
+    private static final long STREAM_BYTES = Long.getLong("terminus.streaming.bytes", 64L << 20);
+
+    private static final long MAX_IN_FLIGHT = 64;
+
+    private static final String PROFILE = "{\"fullName\":\"Ada\",\"email\":\"ada@example.com\","
+            + "\"addresses\":[{\"city\":\"London\",\"zip\":\"NW1\"}]}";
+
+    private static final String DOWNGRADED = "{\"name\":\"Ada\",\"addresses\":[{\"city\":\"London\"}]}";
+
+    @Test
+    void shouldStreamDowngradedNdjsonElementByElement() {
+        assertStreamed(transform(), MediaType.APPLICATION_NDJSON, PROFILE + "\n", DOWNGRADED + "\n");
+    }
+
+    @Test
+    void shouldStreamDowngradedServerSentEventsElementByElement() {
+        assertStreamed(transform(), MediaType.TEXT_EVENT_STREAM,
+                "id:7\ndata:" + PROFILE + "\n\n", "id:7\ndata:" + DOWNGRADED + "\n\n");
+    }
+
+    @Test
+    void shouldStreamOwnVersionAsWritten() {
+        assertStreamed(null, MediaType.APPLICATION_NDJSON, PROFILE + "\n", PROFILE + "\n");
+    }
+
+    private static void assertStreamed(TerminusResponseTransform transform, MediaType mediaType,
+                                       String element, String expected) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/profiles"));
+        if (transform != null) {
+            exchange.getAttributes().put(TerminusResponseTransform.ATTRIBUTE, transform);
+        }
+        MockServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentType(mediaType);
+
+        byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+        byte[] first = expected.getBytes(StandardCharsets.UTF_8);
+        long elements = STREAM_BYTES / bytes.length;
+        AtomicLong emitted = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong maxInFlight = new AtomicLong();
+        StringBuilder head = new StringBuilder();
+        response.setWriteHandler(body -> body.doOnNext(buffer -> {
+            if (head.length() < expected.length()) {
+                head.append(buffer.toString(buffer.readPosition(),
+                        Math.min(buffer.readableByteCount(), expected.length() - head.length()),
+                        StandardCharsets.UTF_8));
+            }
+            long total = written.addAndGet(buffer.readableByteCount());
+            maxInFlight.accumulateAndGet(emitted.get() - total / first.length, Math::max);
+            DataBufferUtils.release(buffer);
+        }).then());
+
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        Flux<Flux<DataBuffer>> body = Flux.<DataBuffer, Long>generate(() -> 0L, (count, sink) -> {
+            if (count == elements) {
+                sink.complete();
+            } else {
+                emitted.incrementAndGet();
+                sink.next(bufferFactory.wrap(bytes));
+            }
+            return count + 1;
+        }).map(Flux::just);
+
+        new TerminusTransformingResponse(exchange).writeAndFlushWith(body).block();
+
+        Assertions.assertEquals(expected, head.toString());
+        Assertions.assertEquals(elements * first.length, written.get());
+        Assertions.assertTrue(maxInFlight.get() <= MAX_IN_FLIGHT,
+                () -> maxInFlight.get() + " elements held between handler and server");
+    }
+
+    private static TerminusResponseTransform transform() {
+        try {
+            return TerminusResponseTransform.of(TerminusTransformingResponseTests.class
+                    .getDeclaredMethod("profile").getAnnotation(TerminusDowngrade.class));
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @TerminusDowngrade(version = "0.9", remove = {"email", "addresses.zip"}, rename = "fullName=name")
+    private static void profile() {
+    }
+}